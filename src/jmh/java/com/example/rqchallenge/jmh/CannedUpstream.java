@@ -0,0 +1,171 @@
+package com.example.rqchallenge.jmh;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Random;
+
+/**
+ * In-process stand-in for the remote employee API: a {@link ClientHttpRequestFactory} that answers
+ * {@code GET .../employees} with a pre-built roster body and everything else with 404, without touching the
+ * network. Plugged into a {@code RestTemplate}, it lets benchmarks exercise the real client code paths,
+ * including response parsing, at any roster size.
+ */
+public final class CannedUpstream implements ClientHttpRequestFactory {
+
+    private static final String[] FIRST_NAMES = {
+            "Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod", "Rhona", "Colleen", "Sonya",
+            "Jena", "Quinn", "Charde", "Haley", "Tatyana", "Michael", "Paul", "Gloria", "Bradley", "Dai"};
+    private static final String[] LAST_NAMES = {
+            "Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler", "Davidson", "Hurst", "Frost",
+            "Gaines", "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd", "Little", "Greer", "Rios"};
+
+    private final byte[] roster;
+
+    private CannedUpstream(byte[] roster) {
+        this.roster = roster;
+    }
+
+    /**
+     * Returns an upstream serving a roster of {@code size} employees. The same size always yields the same
+     * roster, so results are comparable across runs.
+     */
+    public static CannedUpstream withRoster(int size) {
+        return new CannedUpstream(rosterJson(size));
+    }
+
+    /**
+     * Returns the roster body exactly as the remote API sends it: an envelope around a {@code data} array whose
+     * numeric fields are strings.
+     */
+    public static byte[] rosterJson(int size) {
+        Random random = new Random(size);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size * 110 + 64);
+        try (JsonGenerator json = new JsonFactory().createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("status", "success");
+            json.writeArrayFieldStart("data");
+            for (int i = 0; i < size; i++) {
+                json.writeStartObject();
+                json.writeStringField("id", Integer.toString(i + 1));
+                json.writeStringField("employee_name",
+                        FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                json.writeStringField("employee_salary", Integer.toString(20_000 + random.nextInt(480_000)));
+                json.writeStringField("employee_age", Integer.toString(18 + random.nextInt(50)));
+                json.writeStringField("profile_image", "");
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] getRoster() {
+        return roster;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        boolean found = httpMethod == HttpMethod.GET && uri.getPath().endsWith("/employees");
+        return new CannedRequest(uri, httpMethod, found ? HttpStatus.OK : HttpStatus.NOT_FOUND, found ? roster : new byte[0]);
+    }
+
+    private static final class CannedRequest implements ClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod method;
+        private final HttpStatus status;
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        CannedRequest(URI uri, HttpMethod method, HttpStatus status, byte[] body) {
+            this.uri = uri;
+            this.method = method;
+            this.status = status;
+            this.body = body;
+        }
+
+        @Override
+        public String getMethodValue() {
+            return method.name();
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public ClientHttpResponse execute() {
+            return new CannedResponse(status, body);
+        }
+    }
+
+    private static final class CannedResponse implements ClientHttpResponse {
+        private final HttpStatus status;
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        CannedResponse(HttpStatus status, byte[] body) {
+            this.status = status;
+            this.body = body;
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return status.value();
+        }
+
+        @Override
+        public String getStatusText() {
+            return status.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
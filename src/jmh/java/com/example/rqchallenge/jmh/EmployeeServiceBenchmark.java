@@ -0,0 +1,94 @@
+package com.example.rqchallenge.jmh;
+
+import com.example.rqchallenge.config.UpstreamProperties;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.service.IEmployeeService;
+import com.example.rqchallenge.employees.service.impl.CachedEmployeeService;
+import com.example.rqchallenge.employees.service.impl.EmployeeServiceImpl;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of the employee service against an in-process {@link CannedUpstream}, for each roster size.
+ * <p>
+ * {@code remote} is {@link EmployeeServiceImpl} on its own, which fetches and parses the roster on every call;
+ * {@code cached} is {@link CachedEmployeeService} answering from a snapshot loaded once during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeServiceBenchmark {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    int rosterSize;
+
+    @Param({"remote", "cached"})
+    String service;
+
+    // matches roughly one employee in four hundred: a first and a last name from the canned roster
+    @Param({"garrett wint"})
+    String searchString;
+
+    private ExecutorService upstreamExecutor;
+    private IEmployeeService employeeService;
+
+    @Setup
+    public void setUp() {
+        UpstreamProperties properties = new UpstreamProperties();
+        // the canned upstream has no quota to protect, so rate limiting would only measure the token bucket
+        properties.setRequestsPerSecond(1e9);
+        properties.setBurst(Integer.MAX_VALUE);
+        upstreamExecutor = Executors.newCachedThreadPool();
+        EmployeeServiceImpl remote = new EmployeeServiceImpl(new RestTemplate(CannedUpstream.withRoster(rosterSize)),
+                properties, upstreamExecutor, new UpstreamCallScheduler(properties));
+
+        if ("cached".equals(service)) {
+            EmployeeSnapshotCache cache = new EmployeeSnapshotCache(remote);
+            cache.get();
+            employeeService = new CachedEmployeeService(remote, cache);
+        } else {
+            employeeService = remote;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        upstreamExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Employee> searchEmployeesByName() {
+        return employeeService.searchEmployeesByName(searchString);
+    }
+
+    @Benchmark
+    public int getHighestSalary() {
+        return employeeService.getHighestSalary();
+    }
+
+    @Benchmark
+    public List<String> getTopTenHighestEarningEmployeeNames() {
+        return employeeService.getTopTenHighestEarningEmployeeNames();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.rqchallenge.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request throughput when every request blocks on a slow upstream call, running requests either on a Tomcat-sized
+ * platform pool ({@code platform}, thread per request) or on one virtual thread per request ({@code virtual}).
+ * <p>
+ * Each invocation submits a batch of requests and waits for all of them, and the score is requests per second.
+ * The {@code virtual} rows need a Java 21+ runtime and fail their setup on older ones. The build targets Java 17,
+ * so they have never been measured here: no {@code virtual} numbers back {@code employees.execution.mode=virtual}
+ * until this is run with a Java 21+ {@code java} on the JMH classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ExecutorThroughputBenchmark {
+
+    private static final int REQUESTS = 2_000;
+
+    @Param({"platform", "virtual"})
+    String executor;
+
+    @Param({"50"})
+    long upstreamLatencyMillis;
+
+    @Param({"200"})
+    int platformThreads;
+
+    private ExecutorService requests;
+
+    @Setup
+    public void setUp() {
+        requests = "virtual".equals(executor) ? newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        requests.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void blockingRequests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            requests.execute(() -> {
+                try {
+                    Thread.sleep(upstreamLatencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21+, running on Java " + Runtime.version().feature(), e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.rqchallenge.jmh;
+
+import com.example.rqchallenge.config.UpstreamProperties;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.service.impl.CachedEmployeeService;
+import com.example.rqchallenge.employees.service.impl.EmployeeServiceImpl;
+import com.example.rqchallenge.employees.support.EmployeeMetrics;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Operation;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link EmployeeMetrics} on the paths it instruments, with metrics recorded into a
+ * {@link PrometheusMeterRegistry} ({@code prometheus}) or discarded ({@code noop}).
+ * <p>
+ * {@code recordUpstreamResponse} and {@code recordSnapshotLookup} measure the recording calls on their own;
+ * {@code getEmployeeById} is a cached read, the hottest instrumented path. Run with the {@code gc} profiler (on by
+ * default in {@code build.gradle}) to confirm recording allocates nothing per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class MetricsOverheadBenchmark {
+
+    private static final int ROSTER_SIZE = 10_000;
+
+    @Param({"noop", "prometheus"})
+    String registry;
+
+    private ExecutorService upstreamExecutor;
+    private EmployeeMetrics metrics;
+    private CachedEmployeeService employeeService;
+
+    @Setup
+    public void setUp() {
+        metrics = "prometheus".equals(registry)
+                ? new EmployeeMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT))
+                : EmployeeMetrics.noop();
+
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.setRequestsPerSecond(1e9);
+        properties.setBurst(Integer.MAX_VALUE);
+        upstreamExecutor = Executors.newCachedThreadPool();
+        EmployeeServiceImpl remote = new EmployeeServiceImpl(new RestTemplate(CannedUpstream.withRoster(ROSTER_SIZE)),
+                properties, upstreamExecutor, new UpstreamCallScheduler(properties, metrics), metrics);
+        EmployeeSnapshotCache cache = new EmployeeSnapshotCache(remote);
+        cache.get();
+        employeeService = new CachedEmployeeService(remote, cache, metrics);
+    }
+
+    @TearDown
+    public void tearDown() {
+        upstreamExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void recordUpstreamResponse() {
+        metrics.recordUpstreamResponse(Operation.GET, 200, 1_500_000L);
+    }
+
+    @Benchmark
+    public void recordSnapshotLookup() {
+        metrics.recordSnapshotLookup(true);
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById("4242");
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.rqchallenge.jmh;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.support.SerializedPayloadCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of producing one {@code GET /employees} body, for each roster size: serializing the snapshot with Jackson
+ * on every request, serializing and gzipping it on every request, or writing the bytes cached by
+ * {@link SerializedPayloadCache} for the snapshot version.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadSerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    int rosterSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+    private EmployeeSnapshot snapshot;
+    private SerializedPayloadCache payloads;
+
+    @Setup
+    public void setUp() {
+        List<Employee> roster = new ArrayList<>(rosterSize);
+        for (int i = 0; i < rosterSize; i++) {
+            roster.add(new Employee(i + 1, "Employee " + i, 30_000 + (i * 37) % 400_000, 18 + i % 50, ""));
+        }
+        snapshot = EmployeeSnapshot.of(1, roster);
+        payloads = new SerializedPayloadCache(objectMapper);
+        payloads.get("employees", snapshot.getVersion(), snapshot::getEmployees).gzip();
+    }
+
+    @Benchmark
+    public int serializePerRequest() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, snapshot.getEmployees());
+        return out.size();
+    }
+
+    @Benchmark
+    public int serializeAndGzipPerRequest() throws IOException {
+        out.reset();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 1 << 16)) {
+            objectMapper.writeValue(gzip, snapshot.getEmployees());
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int cachedJson() throws IOException {
+        out.reset();
+        out.write(payloads.get("employees", snapshot.getVersion(), snapshot::getEmployees).json());
+        return out.size();
+    }
+
+    @Benchmark
+    public int cachedGzip() throws IOException {
+        out.reset();
+        out.write(payloads.get("employees", snapshot.getVersion(), snapshot::getEmployees).gzip());
+        return out.size();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.rqchallenge.jmh;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.model.ApiResponse;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.upstream.RosterJsonReader;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Parsing the remote API's roster body, for each roster size: Jackson data binding into
+ * {@code ApiResponse<List<Employee>>} as the {@code RestTemplate} message converter does, and the streaming
+ * {@link RosterJsonReader} collecting into a list or straight into an {@link EmployeeSnapshot}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RosterDeserializationBenchmark {
+
+    private static final TypeReference<ApiResponse<List<Employee>>> ROSTER = new TypeReference<ApiResponse<List<Employee>>>() {
+    };
+
+    @Param({"100", "10000", "100000", "1000000"})
+    int rosterSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = CannedUpstream.rosterJson(rosterSize);
+    }
+
+    @Benchmark
+    public ApiResponse<List<Employee>> objectMapper() throws IOException {
+        return objectMapper.readValue(body, ROSTER);
+    }
+
+    @Benchmark
+    public List<Employee> streamingToList() throws IOException {
+        return RosterJsonReader.read(new ByteArrayInputStream(body), Collectors.toList());
+    }
+
+    @Benchmark
+    public EmployeeSnapshot streamingToSnapshot() throws IOException {
+        return RosterJsonReader.read(new ByteArrayInputStream(body), EmployeeSnapshot.collector(() -> 1));
+    }
+}
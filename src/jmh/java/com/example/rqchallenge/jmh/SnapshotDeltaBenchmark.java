@@ -0,0 +1,88 @@
+package com.example.rqchallenge.jmh;
+
+import com.example.rqchallenge.employees.cache.EmployeeChangeSet;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refreshing a snapshot by rebuilding it from the whole roster, against diffing the roster with the current
+ * snapshot ({@code diff}) and applying only the changes ({@code diffAndApply}), at several churn rates: the share of
+ * employees updated, with as many again replaced by new hires.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SnapshotDeltaBenchmark {
+
+    @Param({"1000000"})
+    int rosterSize;
+
+    @Param({"0", "0.0001", "0.01", "0.1"})
+    double churn;
+
+    private EmployeeSnapshot base;
+    private List<Employee> incoming;
+
+    @Setup
+    public void setUp() {
+        List<Employee> roster = new ArrayList<>(rosterSize);
+        for (int i = 0; i < rosterSize; i++) {
+            roster.add(new Employee(i + 1, "Employee " + i, 30_000 + (i * 37) % 400_000, 18 + i % 50, ""));
+        }
+        base = EmployeeSnapshot.of(1, roster);
+        base.searchByName("employee 1", 0, 1);
+        incoming = churned(roster, churn);
+    }
+
+    @Benchmark
+    public EmployeeSnapshot rebuild() {
+        return incoming.stream().collect(EmployeeSnapshot.collector(() -> 2));
+    }
+
+    @Benchmark
+    public EmployeeChangeSet diff() {
+        return incoming.stream().collect(base.changeCollector());
+    }
+
+    @Benchmark
+    public EmployeeSnapshot diffAndApply() {
+        EmployeeChangeSet changes = incoming.stream().collect(base.changeCollector());
+        return base.withChanges(2, changes.upserts(), changes.getDeletedIds());
+    }
+
+    // updates every nth employee and replaces as many again with new ids
+    private static List<Employee> churned(List<Employee> roster, double churn) {
+        int every = churn == 0 ? Integer.MAX_VALUE : (int) Math.round(1 / churn);
+        List<Employee> incoming = new ArrayList<>(roster.size());
+        int nextId = roster.size() + 1;
+        for (int i = 0; i < roster.size(); i++) {
+            Employee employee = roster.get(i);
+            if (churn > 0 && i % every == 0) {
+                incoming.add(new Employee(employee.getId(), employee.getName(), employee.getSalary() + 1, employee.getAge(), ""));
+            } else if (churn > 0 && i % every == 1) {
+                incoming.add(new Employee(nextId++, "Hire " + i, employee.getSalary(), employee.getAge(), ""));
+            } else {
+                incoming.add(employee);
+            }
+        }
+        return incoming;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.rqchallenge.jmh;
+
+import com.example.rqchallenge.employees.cache.EmployeeColumns;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a roster as {@code List<Employee>}, as {@link EmployeeColumns}, and as a full {@link EmployeeSnapshot}
+ * (columns plus salary and name indexes), from rows created the way the JSON reader creates them, with fresh
+ * strings, so the list pays for duplicate profile image strings and the dictionary does not.
+ * <p>
+ * With the {@code gc} profiler (on by default in {@code build.gradle}), {@code gc.alloc.rate.norm} is the bytes
+ * each build allocates, rows included: an upper bound on what the structure retains.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SnapshotFootprintBenchmark {
+
+    @Param({"100000", "1000000"})
+    int rows;
+
+    @Benchmark
+    public List<Employee> list() {
+        List<Employee> list = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            list.add(row(i));
+        }
+        return list;
+    }
+
+    @Benchmark
+    public EmployeeColumns columns() {
+        EmployeeColumns.Builder builder = new EmployeeColumns.Builder(rows);
+        for (int i = 0; i < rows; i++) {
+            builder.add(row(i));
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public EmployeeSnapshot snapshot() {
+        return list().stream().collect(EmployeeSnapshot.collector(() -> 1));
+    }
+
+    private static Employee row(int i) {
+        return new Employee(i + 1, new StringBuilder("Employee ").append(i).toString(),
+                30_000 + (i * 37) % 400_000, 18 + i % 50, new StringBuilder().append("").toString());
+    }
+}
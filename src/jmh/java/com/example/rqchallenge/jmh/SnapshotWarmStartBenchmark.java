@@ -0,0 +1,67 @@
+package com.example.rqchallenge.jmh;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cache.SnapshotFileStore;
+import com.example.rqchallenge.employees.upstream.RosterJsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the first snapshot from the remote API's roster body (cold start, network time excluded) against
+ * restoring it from a {@link SnapshotFileStore} file (warm start), for each roster size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SnapshotWarmStartBenchmark {
+
+    @Param({"100000", "1000000"})
+    int rosterSize;
+
+    private byte[] body;
+    private Path directory;
+    private SnapshotFileStore store;
+
+    @Setup
+    public void setUp() throws IOException {
+        body = CannedUpstream.rosterJson(rosterSize);
+        directory = Files.createTempDirectory("snapshot-warm-start");
+        store = new SnapshotFileStore(directory.resolve("employee-snapshot.bin"));
+        store.save(coldStart());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(store.getPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public EmployeeSnapshot coldStart() throws IOException {
+        return RosterJsonReader.read(new ByteArrayInputStream(body), EmployeeSnapshot.collector(() -> 1));
+    }
+
+    @Benchmark
+    public EmployeeSnapshot warmStart() {
+        return store.load().orElseThrow();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.rqchallenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Several instances sharing one upstream roster: one refreshes it and the others replicate its snapshot.
+ */
+@Data
+@ConfigurationProperties(prefix = "employees.cluster")
+public class ClusterProperties {
+
+    /** Replicate the snapshot between the instances listed in {@code members}; needs the snapshot cache. */
+    private boolean enabled = false;
+
+    /** Base URL the other members reach this instance on; must appear the same way in their member lists. */
+    private String selfUrl = "http://localhost:8080";
+
+    /** Base URLs of the instances in the cluster, this one included or not. */
+    private List<String> members = new ArrayList<>();
+
+    /** How long a member may go without answering heartbeats before it is considered down. */
+    private Duration failureTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a member that does not lead keeps its own creates and deletes over leader snapshots that do not show
+     * them yet; should exceed the leader's refresh interval.
+     */
+    private Duration localWriteTimeout = Duration.ofMinutes(3);
+
+    /** Connect and read timeout for calls between members. */
+    private Duration requestTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,24 @@
+package com.example.rqchallenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Threading model for request handling and outbound fan-out calls.
+ */
+@Data
+@ConfigurationProperties(prefix = "employees.execution")
+public class ExecutionProperties {
+
+    public enum Mode {
+        /** Tomcat's worker pool and a fixed platform-thread pool for fan-out. */
+        PLATFORM,
+        /** One virtual thread per request and per fan-out task; needs a Java 21+ runtime and is not yet benchmarked. */
+        VIRTUAL
+    }
+
+    private Mode mode = Mode.PLATFORM;
+
+    /** Size of the platform-thread pool used for fan-out calls in {@link Mode#PLATFORM}. */
+    private int fanOutThreads = 32;
+}
@@ -0,0 +1,87 @@
+package com.example.rqchallenge.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads for request handling and outbound fan-out, per {@link ExecutionProperties}.
+ * <p>
+ * Virtual threads are looked up by reflection because the build targets Java 17, where they do not exist: on the
+ * Java 17 runtime this project builds and is measured with, {@code virtual} mode falls back to platform threads,
+ * and its throughput has not been measured (see {@code ExecutorThroughputBenchmark}).
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ExecutionProperties.class)
+public class ExecutorConfig {
+
+    /**
+     * Executor for outbound calls that fan out from a single request, such as batch lookups.
+     * Callers bound their own parallelism; this pool only supplies the threads.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService upstreamExecutor(ExecutionProperties properties) {
+        if (properties.getMode() == ExecutionProperties.Mode.VIRTUAL) {
+            Optional<ExecutorService> virtual = VirtualThreads.newPerTaskExecutor();
+            if (virtual.isPresent()) {
+                return virtual.get();
+            }
+            log.warn("Virtual threads requested but not available on Java {}; falling back to {} platform threads",
+                    Runtime.version().feature(), properties.getFanOutThreads());
+        }
+        return Executors.newFixedThreadPool(properties.getFanOutThreads(), namedDaemonThreads("upstream-"));
+    }
+
+    /**
+     * One virtual thread per Tomcat request, or no executor when the runtime has no virtual threads and Tomcat keeps
+     * its worker pool. Tomcat does not shut down an executor it was given, so the context does.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnClass(AbstractProtocol.class)
+    @ConditionalOnProperty(name = "employees.execution.mode", havingValue = "virtual")
+    public ExecutorService requestExecutor() {
+        return VirtualThreads.newPerTaskExecutor().orElseGet(() -> {
+            log.warn("Virtual threads requested but not available on Java {}; Tomcat keeps its worker pool",
+                    Runtime.version().feature());
+            return null;
+        });
+    }
+
+    /**
+     * Runs each Tomcat request on its own virtual thread instead of the bounded worker pool.
+     */
+    @Bean
+    @ConditionalOnClass(AbstractProtocol.class)
+    @ConditionalOnProperty(name = "employees.execution.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequestExecutor(
+            @Qualifier("requestExecutor") Optional<ExecutorService> requestExecutor) {
+        return protocolHandler -> requestExecutor.ifPresent(executor -> {
+            if (protocolHandler instanceof AbstractProtocol) {
+                ((AbstractProtocol<?>) protocolHandler).setExecutor(executor);
+            }
+        });
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.rqchallenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection pool and timeout settings for the HTTP client used to call the remote employee API.
+ */
+@Data
+@ConfigurationProperties(prefix = "employees.http")
+public class HttpClientProperties {
+
+    /** Maximum pooled connections across all routes. */
+    private int maxConnections = 50;
+
+    /** Maximum pooled connections per route unless overridden in {@link #maxConnectionsPerHost}. */
+    private int maxConnectionsPerRoute = 20;
+
+    /** Per-host overrides of the route limit, keyed by scheme and host, e.g. {@code https://dummy.restapiexample.com}. */
+    private Map<String, Integer> maxConnectionsPerHost = new HashMap<>();
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /** How long a caller may wait for a connection to be leased from the pool. */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    /** Keep-alive applied when the server does not send a Keep-Alive header. */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /** Maximum lifetime of a pooled connection. */
+    private Duration connectionTimeToLive = Duration.ofMinutes(5);
+
+    /** Idle time after which a pooled connection is re-validated before being leased. */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /** Idle time after which a pooled connection is closed by the background evictor. */
+    private Duration idleEvictionTimeout = Duration.ofSeconds(60);
+
+    /** Advertise and transparently decode gzip/deflate responses. */
+    private boolean gzip = true;
+}
@@ -0,0 +1,26 @@
+package com.example.rqchallenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Caching of single-employee lookups made against the remote API.
+ */
+@Data
+@ConfigurationProperties(prefix = "employees.lookup-cache")
+public class LookupCacheProperties {
+
+    /** Ids whose lookup result is kept at most; 0 turns the cache off. */
+    private int maxSize = 10_000;
+
+    /** How long an employee found upstream is answered from the cache. */
+    private Duration ttl = Duration.ofSeconds(60);
+
+    /** How long an id the upstream did not find is answered as not found without asking again. */
+    private Duration notFoundTtl = Duration.ofSeconds(10);
+
+    /** Fraction of an entry's lifetime after which a hit also reloads it in the background; 1 or more turns this off. */
+    private double refreshAhead = 0.8;
+}
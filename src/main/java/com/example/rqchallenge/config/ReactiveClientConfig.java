@@ -0,0 +1,43 @@
+package com.example.rqchallenge.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Non-blocking client for the remote employee API, sized from the same {@link HttpClientProperties}
+ * as the blocking {@code RestTemplate}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employees.stack", havingValue = "reactive")
+public class ReactiveClientConfig {
+
+    @Bean
+    public WebClient employeeWebClient(HttpClientProperties properties,
+                                       UpstreamProperties upstreamProperties,
+                                       @Value("${employees.reactive.max-in-memory-size:64MB}") DataSize maxInMemorySize) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("employees-upstream")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleEvictionTimeout())
+                .maxLifeTime(properties.getConnectionTimeToLive())
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .compress(properties.isGzip());
+        return WebClient.builder()
+                .baseUrl(upstreamProperties.getBaseUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()))
+                .build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.rqchallenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * How the service layer talks to the remote employee API.
+ */
+@Data
+@ConfigurationProperties(prefix = "employees.upstream")
+public class UpstreamProperties {
+
+    /** Root URL of the remote employee API; point it at a local stand-in to run without the real service. */
+    private String baseUrl = "https://dummy.restapiexample.com/api/v1";
+
+    /** Maximum concurrent upstream lookups issued for one batch request. */
+    private int batchParallelism = 8;
+
+    /** Maximum concurrent upstream writes issued for one bulk create or delete. */
+    private int writeConcurrency = 4;
+
+    /** Sustained call rate allowed by the upstream quota. */
+    private double requestsPerSecond = 10;
+
+    /** Calls that may be made back to back before the sustained rate applies. */
+    private int burst = 20;
+
+    /** Fraction of the burst that background refreshes may not use, keeping it for interactive reads. */
+    private double backgroundReserve = 0.5;
+
+    /** Longest a call waits for budget before failing. */
+    private Duration acquireTimeout = Duration.ofSeconds(2);
+
+    /** Attempts per call, including the first, for 429, 5xx and I/O failures. */
+    private int maxAttempts = 3;
+
+    private Duration initialBackoff = Duration.ofMillis(200);
+
+    private Duration maxBackoff = Duration.ofSeconds(5);
+
+    /** Consecutive failed attempts that open the circuit breaker. */
+    private int circuitFailureThreshold = 5;
+
+    /** How long the circuit stays open before a trial call is let through. */
+    private Duration circuitOpenDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,25 @@
+package com.example.rqchallenge.config;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} reflectively so the build can keep targeting
+ * Java 17 while a Java 21+ runtime still gets virtual threads.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static Optional<ExecutorService> newPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) factory.invoke(null));
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.rqchallenge.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Asynchronous employee creation: creates are journaled locally, acknowledged, and sent upstream in the background.
+ */
+@Data
+@ConfigurationProperties(prefix = "employees.write-behind")
+public class WriteBehindProperties {
+
+    /** Accept creates with 202 and send them upstream later; needs the snapshot cache. */
+    private boolean enabled = false;
+
+    /** Append-only journal of accepted creates and their outcomes; required when enabled. */
+    private String journalPath;
+
+    /** Queued creates sent upstream per drain. */
+    private int batchSize = 50;
+
+    /** Creates of one batch in flight at once. */
+    private int concurrency = 2;
+
+    /** Failed upstream attempts, each already retried by the call scheduler, before a create is given up. */
+    private int maxAttempts = 5;
+
+    /** Journal records written before the journal is rewritten with only the queued creates. */
+    private int compactAfter = 10_000;
+
+    /** Finished creates whose status is kept for lookups by tracking id. */
+    private int retainedStatuses = 10_000;
+}
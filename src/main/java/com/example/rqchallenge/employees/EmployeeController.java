@@ -1,47 +1,169 @@
 package com.example.rqchallenge.employees;
 
+import com.example.rqchallenge.employees.exception.InvalidRequestException;
+import com.example.rqchallenge.employees.model.BatchGetResponse;
+import com.example.rqchallenge.employees.model.BulkItemResult;
 import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeAnalytics;
+import com.example.rqchallenge.employees.model.EmployeeQuery;
+import com.example.rqchallenge.employees.model.PendingCreate;
 import com.example.rqchallenge.employees.service.IEmployeeService;
+import com.example.rqchallenge.employees.support.CachedPayloadList;
+import com.example.rqchallenge.employees.writebehind.CreateWriteBehindQueue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/employees")
+@ConditionalOnProperty(name = "employees.stack", havingValue = "blocking", matchIfMissing = true)
 public class EmployeeController implements IEmployeeController {
 
+    // records written between flushes of an NDJSON stream
+    private static final int STREAM_FLUSH_INTERVAL = 256;
+
     private final IEmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+    private final Optional<CreateWriteBehindQueue> writeBehind;
+    private final int maxSearchResults;
+    private final int maxBatchSize;
+    private final int maxBulkSize;
+    private final int salaryBucketWidth;
 
     @Autowired
-    public EmployeeController(IEmployeeService employeeService) {
+    public EmployeeController(IEmployeeService employeeService,
+                              ObjectMapper objectMapper,
+                              Optional<CreateWriteBehindQueue> writeBehind,
+                              @Value("${employees.search.max-results:1000}") int maxSearchResults,
+                              @Value("${employees.batch.max-size:500}") int maxBatchSize,
+                              @Value("${employees.bulk.max-size:5000}") int maxBulkSize,
+                              @Value("${employees.analytics.salary-bucket-width:50000}") int salaryBucketWidth) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.writeBehind = writeBehind;
+        this.maxSearchResults = maxSearchResults;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBulkSize = maxBulkSize;
+        this.salaryBucketWidth = salaryBucketWidth;
     }
 
+    /**
+     * Returns the whole roster as a {@link CachedPayloadList}: responses carry validators derived from the snapshot
+     * version and get 304 Not Modified while they still match, and the JSON, gzipped when the client accepts it, is
+     * serialized once per snapshot version. The roster is only read when that version is not cached yet.
+     */
     @Override
     @GetMapping()
     public ResponseEntity<List<Employee>> getAllEmployees() throws IOException {
-        List<Employee> employees = employeeService.getAllEmployees();
+        List<Employee> employees = CachedPayloadList.of("employees", employeeService.getRosterVersion(), () -> {
+            try {
+                return employeeService.getAllEmployees();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
         return new ResponseEntity<>(employees, HttpStatus.OK);
     }
 
+    /**
+     * Streams employees as newline-delimited JSON in ascending id order, one record per line, flushing as it goes
+     * so clients can start consuming before the whole roster is written. Pass the last id received as
+     * {@code after} to fetch the next page.
+     */
+    @Override
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamEmployees(@RequestParam(required = false) Integer after,
+                                                                 @RequestParam(required = false) Integer limit) {
+        Stream<Employee> employees = employeeService.streamEmployees(after, limit == null ? Integer.MAX_VALUE : limit);
+        StreamingResponseBody body = out -> writeNdjson(employees, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Override
+    @GetMapping(params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamEmployeesByFormat(@RequestParam(required = false) Integer after,
+                                                                         @RequestParam(required = false) Integer limit) {
+        return streamEmployees(after, limit);
+    }
+
     @Override
     @GetMapping("/search/{searchString}")
-    public ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString) {
-        List<Employee> employees = employeeService.searchEmployeesByName(searchString);
+    public ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString,
+                                                                   @RequestParam(defaultValue = "0") int offset,
+                                                                   @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? maxSearchResults : Math.min(limit, maxSearchResults);
+        List<Employee> employees = employeeService.searchEmployeesByName(searchString, offset, pageSize);
         return new ResponseEntity<>(employees, HttpStatus.OK);
     }
 
+    /**
+     * Returns employees filtered by inclusive salary and age ranges and a case-insensitive name prefix, sorted by
+     * {@code id}, {@code name}, {@code salary} or {@code age}, descending when prefixed with {@code -}. Pages are
+     * capped like name searches.
+     */
+    @Override
+    @GetMapping("/query")
+    public ResponseEntity<List<Employee>> queryEmployees(@RequestParam(required = false) Integer minSalary,
+                                                         @RequestParam(required = false) Integer maxSalary,
+                                                         @RequestParam(required = false) Integer minAge,
+                                                         @RequestParam(required = false) Integer maxAge,
+                                                         @RequestParam(required = false) String namePrefix,
+                                                         @RequestParam(defaultValue = "id") String sort,
+                                                         @RequestParam(defaultValue = "0") int offset,
+                                                         @RequestParam(required = false) Integer limit) {
+        boolean descending = sort.startsWith("-");
+        EmployeeQuery query = new EmployeeQuery(minSalary, maxSalary, minAge, maxAge, namePrefix,
+                sortField(descending ? sort.substring(1) : sort), descending, offset,
+                limit == null ? maxSearchResults : Math.min(limit, maxSearchResults));
+        return new ResponseEntity<>(employeeService.queryEmployees(query), HttpStatus.OK);
+    }
+
+    /**
+     * Returns one employee. A found employee carries an ETag naming the snapshot version and the employee's id, and
+     * Last-Modified from the snapshot, and Spring answers a request whose validators still match with 304 Not
+     * Modified. An unknown id is always 404.
+     */
     @Override
     @GetMapping("/{id}")
     public ResponseEntity<Employee> getEmployeeById(@PathVariable String id) {
-        return employeeService.getEmployeeById(id)
-                .map(employee -> new ResponseEntity<>(employee, HttpStatus.OK))
-                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        Optional<Employee> employee = employeeService.getEmployeeById(id);
+        if (!employee.isPresent()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        employeeService.getRosterVersionOf(employee.get()).ifPresent(version -> response
+                .eTag(version.etag("id" + employee.get().getId()))
+                .lastModified(version.getLastModified()));
+        return response.body(employee.get());
+    }
+
+    @Override
+    @PostMapping("/batchGet")
+    public ResponseEntity<BatchGetResponse> getEmployeesByIds(@RequestBody List<String> ids) {
+        if (ids.size() > maxBatchSize) {
+            throw new InvalidRequestException("At most " + maxBatchSize + " ids can be requested at once");
+        }
+        return new ResponseEntity<>(employeeService.getEmployeesByIds(ids), HttpStatus.OK);
     }
 
     @Override
@@ -52,23 +174,105 @@ public class EmployeeController implements IEmployeeController {
         return new ResponseEntity<>(highestSalary, HttpStatus.OK);
     }
 
+    /**
+     * Returns the ten highest earners' names, serialized once per snapshot version like {@link #getAllEmployees}.
+     */
     @Override
     @GetMapping("/topTenHighestEarningEmployeeNames")
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
-        List<String> topEarningEmployees = employeeService.getTopTenHighestEarningEmployeeNames();
+        List<String> topEarningEmployees = CachedPayloadList.of("topTenHighestEarningEmployeeNames",
+                employeeService.getRosterVersion(), employeeService::getTopTenHighestEarningEmployeeNames);
         return new ResponseEntity<>(topEarningEmployees, HttpStatus.OK);
     }
 
+    @Override
+    @GetMapping("/topEarners")
+    public ResponseEntity<List<String>> getTopEarningEmployeeNames(@RequestParam(defaultValue = "10") int n) {
+        List<String> topEarningEmployees = employeeService.getTopEarningEmployeeNames(n);
+        return new ResponseEntity<>(topEarningEmployees, HttpStatus.OK);
+    }
+
+    @Override
+    @GetMapping("/analytics")
+    public ResponseEntity<EmployeeAnalytics> getAnalytics(@RequestParam(required = false) Integer salaryBucketWidth) {
+        int width = salaryBucketWidth == null ? this.salaryBucketWidth : salaryBucketWidth;
+        return new ResponseEntity<>(employeeService.getAnalytics(width), HttpStatus.OK);
+    }
+
+    /**
+     * Creates an employee upstream and returns it with 201. With write-behind enabled the create is only journaled:
+     * the response is 202 with the employee under its provisional id, and {@code Location} points to the create's
+     * status under {@code /employees/pending/{trackingId}}.
+     */
     @Override
     @PostMapping()
     public ResponseEntity<Employee> createEmployee(@RequestBody Map<String, Object> employeeInput) {
+        if (writeBehind.isPresent()) {
+            PendingCreate pending = writeBehind.get().submit(employeeInput);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/employees/pending/" + pending.getTrackingId()))
+                    .body(pending.getEmployee());
+        }
         Employee createdEmployee = employeeService.createEmployee(employeeInput);
         return new ResponseEntity<>(createdEmployee, HttpStatus.CREATED);
     }
 
+    @Override
+    @GetMapping("/pending/{trackingId}")
+    public ResponseEntity<PendingCreate> getPendingCreate(@PathVariable String trackingId) {
+        return writeBehind.flatMap(queue -> queue.status(trackingId))
+                .map(status -> new ResponseEntity<>(status, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
     @Override
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteEmployeeById(@PathVariable String id) {
         return new ResponseEntity<>( employeeService.deleteEmployeeById(id), HttpStatus.OK);
     }
+
+    @Override
+    @PostMapping("/bulkCreate")
+    public ResponseEntity<List<BulkItemResult>> createEmployees(@RequestBody List<Map<String, Object>> employeeInputs) {
+        requireBulkSize(employeeInputs.size());
+        return new ResponseEntity<>(employeeService.createEmployees(employeeInputs), HttpStatus.OK);
+    }
+
+    @Override
+    @PostMapping("/bulkDelete")
+    public ResponseEntity<List<BulkItemResult>> deleteEmployeesByIds(@RequestBody List<String> ids) {
+        requireBulkSize(ids.size());
+        return new ResponseEntity<>(employeeService.deleteEmployeesByIds(ids), HttpStatus.OK);
+    }
+
+    private void writeNdjson(Stream<Employee> employees, OutputStream out) throws IOException {
+        try (Stream<Employee> records = employees;
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            ObjectWriter writer = objectMapper.writerFor(Employee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            int written = 0;
+            for (Iterator<Employee> it = records.iterator(); it.hasNext(); ) {
+                writer.writeValue(generator, it.next());
+                generator.writeRaw('\n');
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private static EmployeeQuery.SortField sortField(String name) {
+        try {
+            return EmployeeQuery.SortField.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown sort field: " + name);
+        }
+    }
+
+    private void requireBulkSize(int size) {
+        if (size > maxBulkSize) {
+            throw new InvalidRequestException("At most " + maxBulkSize + " items can be submitted at once");
+        }
+    }
 }
@@ -1,8 +1,14 @@
 package com.example.rqchallenge.employees;
 
+import com.example.rqchallenge.employees.model.BatchGetResponse;
+import com.example.rqchallenge.employees.model.BulkItemResult;
 import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeAnalytics;
+import com.example.rqchallenge.employees.model.PendingCreate;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -14,22 +20,60 @@ public interface IEmployeeController {
     @GetMapping()
     ResponseEntity<List<Employee>> getAllEmployees() throws IOException;
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamEmployees(@RequestParam(required = false) Integer after,
+                                                          @RequestParam(required = false) Integer limit);
+
+    @GetMapping(params = "format=ndjson")
+    ResponseEntity<StreamingResponseBody> streamEmployeesByFormat(@RequestParam(required = false) Integer after,
+                                                                  @RequestParam(required = false) Integer limit);
+
     @GetMapping("/search/{searchString}")
-    ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString);
+    ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString,
+                                                            @RequestParam(defaultValue = "0") int offset,
+                                                            @RequestParam(required = false) Integer limit);
+
+    @GetMapping("/query")
+    ResponseEntity<List<Employee>> queryEmployees(@RequestParam(required = false) Integer minSalary,
+                                                  @RequestParam(required = false) Integer maxSalary,
+                                                  @RequestParam(required = false) Integer minAge,
+                                                  @RequestParam(required = false) Integer maxAge,
+                                                  @RequestParam(required = false) String namePrefix,
+                                                  @RequestParam(defaultValue = "id") String sort,
+                                                  @RequestParam(defaultValue = "0") int offset,
+                                                  @RequestParam(required = false) Integer limit);
 
     @GetMapping("/{id}")
     ResponseEntity<Employee> getEmployeeById(@PathVariable String id);
 
+    @PostMapping("/batchGet")
+    ResponseEntity<BatchGetResponse> getEmployeesByIds(@RequestBody List<String> ids);
+
     @GetMapping("/highestSalary")
     ResponseEntity<Integer> getHighestSalaryOfEmployees();
 
     @GetMapping("/topTenHighestEarningEmployeeNames")
     ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames();
 
+    @GetMapping("/topEarners")
+    ResponseEntity<List<String>> getTopEarningEmployeeNames(@RequestParam(defaultValue = "10") int n);
+
+    @GetMapping("/analytics")
+    ResponseEntity<EmployeeAnalytics> getAnalytics(@RequestParam(required = false) Integer salaryBucketWidth);
+
     @PostMapping()
     ResponseEntity<Employee> createEmployee(@RequestBody Map<String, Object> employeeInput);
 
+    @GetMapping("/pending/{trackingId}")
+    ResponseEntity<PendingCreate> getPendingCreate(@PathVariable String trackingId);
+
     @DeleteMapping("/{id}")
     ResponseEntity<String> deleteEmployeeById(@PathVariable String id);
 
+    @PostMapping("/bulkCreate")
+    ResponseEntity<List<BulkItemResult>> createEmployees(@RequestBody List<Map<String, Object>> employeeInputs);
+
+    @PostMapping("/bulkDelete")
+    ResponseEntity<List<BulkItemResult>> deleteEmployeesByIds(@RequestBody List<String> ids);
+
 }
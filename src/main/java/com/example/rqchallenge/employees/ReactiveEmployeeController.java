@@ -0,0 +1,82 @@
+package com.example.rqchallenge.employees;
+
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.service.IReactiveEmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking variant of {@link EmployeeController}, active when {@code employees.stack=reactive}.
+ * <p>
+ * List endpoints stream one employee per line when the client accepts {@code application/x-ndjson}.
+ */
+@RestController
+@RequestMapping("/employees")
+@ConditionalOnProperty(name = "employees.stack", havingValue = "reactive")
+public class ReactiveEmployeeController {
+
+    private final IReactiveEmployeeService employeeService;
+    private final int maxSearchResults;
+
+    @Autowired
+    public ReactiveEmployeeController(IReactiveEmployeeService employeeService,
+                                      @Value("${employees.search.max-results:1000}") int maxSearchResults) {
+        this.employeeService = employeeService;
+        this.maxSearchResults = maxSearchResults;
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Employee> getAllEmployees() {
+        return employeeService.getAllEmployees();
+    }
+
+    @GetMapping(value = "/search/{searchString}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Employee> getEmployeesByNameSearch(@PathVariable String searchString,
+                                                   @RequestParam(defaultValue = "0") int offset,
+                                                   @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? maxSearchResults : Math.min(limit, maxSearchResults);
+        return employeeService.searchEmployeesByName(searchString, offset, pageSize);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id) {
+        return employeeService.getEmployeeById(id)
+                .map(employee -> new ResponseEntity<>(employee, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/highestSalary")
+    public Mono<Integer> getHighestSalaryOfEmployees() {
+        return employeeService.getHighestSalary();
+    }
+
+    @GetMapping("/topTenHighestEarningEmployeeNames")
+    public Flux<String> getTopTenHighestEarningEmployeeNames() {
+        return employeeService.getTopEarningEmployeeNames(10);
+    }
+
+    @GetMapping("/topEarners")
+    public Flux<String> getTopEarningEmployeeNames(@RequestParam(defaultValue = "10") int n) {
+        return employeeService.getTopEarningEmployeeNames(n);
+    }
+
+    @PostMapping()
+    public Mono<ResponseEntity<Employee>> createEmployee(@RequestBody Map<String, Object> employeeInput) {
+        return employeeService.createEmployee(employeeInput)
+                .map(employee -> new ResponseEntity<>(employee, HttpStatus.CREATED));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<String> deleteEmployeeById(@PathVariable String id) {
+        return employeeService.deleteEmployeeById(id);
+    }
+}
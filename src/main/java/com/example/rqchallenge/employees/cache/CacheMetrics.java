@@ -0,0 +1,77 @@
+package com.example.rqchallenge.employees.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges over the employee caches:
+ * <ul>
+ *     <li>{@code employees.snapshot.age}: seconds since the snapshot was last confirmed against the upstream
+ *     roster</li>
+ *     <li>{@code employees.snapshot.version}, {@code employees.snapshot.employees}: version and size of the current
+ *     snapshot</li>
+ *     <li>{@code employees.cache.size}: entries held by the {@code by_id} {@link EmployeeLookupCache}</li>
+ * </ul>
+ * While the snapshot cache is disabled or holds nothing yet, the snapshot version reads 0 and the other snapshot
+ * gauges read NaN.
+ * <p>
+ * The caches are looked up when a gauge is read rather than injected, so binding this to the {@link MeterRegistry}
+ * does not build the caches, and the upstream client under them, while the registry itself is still being created.
+ */
+@Component
+public class CacheMetrics implements MeterBinder {
+
+    private final ObjectProvider<EmployeeSnapshotCache> snapshotCache;
+    private final ObjectProvider<EmployeeLookupCache> lookupCache;
+
+    @Autowired
+    public CacheMetrics(ObjectProvider<EmployeeSnapshotCache> snapshotCache,
+                        ObjectProvider<EmployeeLookupCache> lookupCache) {
+        this.snapshotCache = snapshotCache;
+        this.lookupCache = lookupCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employees.snapshot.age", snapshotCache, CacheMetrics::snapshotAge)
+                .description("Seconds since the employee snapshot was last confirmed against the upstream roster")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("employees.snapshot.version", snapshotCache, cache -> {
+                    EmployeeSnapshot snapshot = snapshotOf(cache);
+                    return snapshot == null ? 0 : snapshot.getVersion();
+                })
+                .description("Version of the current employee snapshot")
+                .register(registry);
+        Gauge.builder("employees.snapshot.employees", snapshotCache, cache -> {
+                    EmployeeSnapshot snapshot = snapshotOf(cache);
+                    return snapshot == null ? Double.NaN : snapshot.size();
+                })
+                .description("Employees in the current snapshot")
+                .register(registry);
+        Gauge.builder("employees.cache.size", lookupCache, cache -> {
+                    EmployeeLookupCache byId = cache.getIfAvailable();
+                    return byId == null ? Double.NaN : byId.size();
+                })
+                .description("Entries held by the cache")
+                .tag("cache", "by_id")
+                .register(registry);
+    }
+
+    private static double snapshotAge(ObjectProvider<EmployeeSnapshotCache> provider) {
+        EmployeeSnapshotCache cache = provider.getIfAvailable();
+        if (cache == null || cache.peek() == null) {
+            return Double.NaN;
+        }
+        return (System.currentTimeMillis() - cache.getSyncedAtMillis()) / 1000.0;
+    }
+
+    private static EmployeeSnapshot snapshotOf(ObjectProvider<EmployeeSnapshotCache> provider) {
+        EmployeeSnapshotCache cache = provider.getIfAvailable();
+        return cache == null ? null : cache.peek();
+    }
+}
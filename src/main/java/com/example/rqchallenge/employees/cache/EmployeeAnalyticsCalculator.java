@@ -0,0 +1,132 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.model.EmployeeAnalytics;
+import com.example.rqchallenge.employees.model.HistogramBucket;
+import com.example.rqchallenge.employees.model.SalaryStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Computes {@link EmployeeAnalytics} for a snapshot.
+ * <p>
+ * Counts, sums, the salary histogram and age buckets come from one pass over the primitive columns, split
+ * across the common fork/join pool for large rosters and combined by merging {@link Accumulator}s. Order
+ * statistics (min, max, median, percentiles) are read directly from the snapshot's sorted salary index, so no
+ * sort is needed here.
+ */
+public final class EmployeeAnalyticsCalculator {
+
+    static final int[] PERCENTILES = {10, 25, 50, 75, 90, 95, 99};
+    static final int AGE_BUCKET_WIDTH = 10;
+    private static final int AGE_BUCKETS = 16;
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    private EmployeeAnalyticsCalculator() {
+    }
+
+    public static EmployeeAnalytics compute(EmployeeSnapshot snapshot, int salaryBucketWidth) {
+        if (salaryBucketWidth <= 0) {
+            throw new IllegalArgumentException("salary bucket width must be positive: " + salaryBucketWidth);
+        }
+        EmployeeColumns columns = snapshot.getColumns();
+        SortedIntIndex salaries = snapshot.salaryIndex();
+        long firstBucket = salaries.isEmpty() ? 0 : Math.floorDiv(salaries.min(), salaryBucketWidth);
+        int bucketCount = salaries.isEmpty() ? 0
+                : (int) (Math.floorDiv(salaries.max(), salaryBucketWidth) - firstBucket + 1);
+
+        IntStream rows = IntStream.range(0, columns.size());
+        if (columns.size() >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        Accumulator totals = rows.collect(
+                () -> new Accumulator(salaryBucketWidth, firstBucket, bucketCount),
+                (accumulator, row) -> accumulator.add(columns, row),
+                Accumulator::merge);
+
+        EmployeeAnalytics analytics = new EmployeeAnalytics();
+        analytics.setVersion(snapshot.getVersion());
+        analytics.setEmployeeCount(columns.size());
+        analytics.setSalary(salaryStats(salaries, totals));
+        analytics.setSalaryHistogram(buckets(totals.salaryCounts, firstBucket, salaryBucketWidth));
+        analytics.setAgeBuckets(buckets(totals.ageCounts, 0, AGE_BUCKET_WIDTH));
+        return analytics;
+    }
+
+    private static SalaryStats salaryStats(SortedIntIndex salaries, Accumulator totals) {
+        SalaryStats stats = new SalaryStats();
+        stats.setCount(salaries.size());
+        if (salaries.isEmpty()) {
+            return stats;
+        }
+        int n = salaries.size();
+        stats.setMin(salaries.min());
+        stats.setMax(salaries.max());
+        stats.setMean(totals.salarySum / (double) n);
+        stats.setMedian(n % 2 == 1 ? salaries.valueAt(n / 2)
+                : (salaries.valueAt(n / 2 - 1) + (double) salaries.valueAt(n / 2)) / 2);
+        for (int p : PERCENTILES) {
+            // nearest-rank percentile
+            int rank = (int) Math.ceil(p / 100.0 * n);
+            stats.getPercentiles().put("p" + p, salaries.valueAt(Math.max(rank, 1) - 1));
+        }
+        return stats;
+    }
+
+    private static List<HistogramBucket> buckets(long[] counts, long firstBucket, int width) {
+        int first = 0;
+        int last = counts.length - 1;
+        while (first <= last && counts[first] == 0) {
+            first++;
+        }
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+        List<HistogramBucket> buckets = new ArrayList<>(Math.max(0, last - first + 1));
+        for (int i = first; i <= last; i++) {
+            long from = (firstBucket + i) * width;
+            buckets.add(new HistogramBucket(from, from + width, counts[i]));
+        }
+        return buckets;
+    }
+
+    /**
+     * Mergeable per-thread totals, all primitive.
+     */
+    static final class Accumulator {
+        private final int salaryBucketWidth;
+        private final long firstBucket;
+        final long[] salaryCounts;
+        final long[] ageCounts = new long[AGE_BUCKETS];
+        long salarySum;
+
+        Accumulator(int salaryBucketWidth, long firstBucket, int bucketCount) {
+            this.salaryBucketWidth = salaryBucketWidth;
+            this.firstBucket = firstBucket;
+            this.salaryCounts = new long[bucketCount];
+        }
+
+        void add(EmployeeColumns columns, int row) {
+            int salary = columns.salary(row);
+            if (salary != EmployeeColumns.ABSENT) {
+                salarySum += salary;
+                salaryCounts[(int) (Math.floorDiv(salary, salaryBucketWidth) - firstBucket)]++;
+            }
+            int age = columns.age(row);
+            if (age != EmployeeColumns.ABSENT) {
+                ageCounts[Math.min(Math.max(age / AGE_BUCKET_WIDTH, 0), AGE_BUCKETS - 1)]++;
+            }
+        }
+
+        void merge(Accumulator other) {
+            salarySum += other.salarySum;
+            for (int i = 0; i < salaryCounts.length; i++) {
+                salaryCounts[i] += other.salaryCounts[i];
+            }
+            for (int i = 0; i < ageCounts.length; i++) {
+                ageCounts[i] += other.ageCounts[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.rqchallenge.employees.cache;
+
+/**
+ * Published in-process whenever {@link EmployeeSnapshotCache} moves to a new snapshot by applying changes,
+ * whether they came from a delta refresh or from writes made through this service. Listen for it with
+ * {@code @EventListener}.
+ */
+public final class EmployeeChangeEvent {
+
+    private final long previousVersion;
+    private final long version;
+    private final EmployeeChangeSet changes;
+
+    public EmployeeChangeEvent(long previousVersion, long version, EmployeeChangeSet changes) {
+        this.previousVersion = previousVersion;
+        this.version = version;
+        this.changes = changes;
+    }
+
+    public long getPreviousVersion() {
+        return previousVersion;
+    }
+
+    /**
+     * Returns the version of the snapshot the changes produced.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public EmployeeChangeSet getChanges() {
+        return changes;
+    }
+
+    @Override
+    public String toString() {
+        return "EmployeeChangeEvent(" + previousVersion + " -> " + version + ": " + changes + ")";
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable set of roster changes: employees created, employees whose fields changed, and ids removed.
+ */
+public final class EmployeeChangeSet {
+
+    private static final EmployeeChangeSet EMPTY =
+            new EmployeeChangeSet(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+    private final List<Employee> created;
+    private final List<Employee> updated;
+    private final List<Integer> deletedIds;
+
+    public EmployeeChangeSet(Collection<Employee> created, Collection<Employee> updated, Collection<Integer> deletedIds) {
+        this.created = Collections.unmodifiableList(new ArrayList<>(created));
+        this.updated = Collections.unmodifiableList(new ArrayList<>(updated));
+        this.deletedIds = Collections.unmodifiableList(new ArrayList<>(deletedIds));
+    }
+
+    public static EmployeeChangeSet empty() {
+        return EMPTY;
+    }
+
+    public List<Employee> getCreated() {
+        return created;
+    }
+
+    public List<Employee> getUpdated() {
+        return updated;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return deletedIds;
+    }
+
+    /**
+     * Returns the created and updated employees together, as the records to upsert into a snapshot.
+     */
+    public List<Employee> upserts() {
+        List<Employee> upserts = new ArrayList<>(created.size() + updated.size());
+        upserts.addAll(created);
+        upserts.addAll(updated);
+        return upserts;
+    }
+
+    public int size() {
+        return created.size() + updated.size() + deletedIds.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return created.size() + " created, " + updated.size() + " updated, " + deletedIds.size() + " deleted";
+    }
+}
@@ -0,0 +1,464 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable column-oriented storage for a roster.
+ * <p>
+ * Each attribute is a parallel array indexed by row: ids, salaries and ages as {@code int[]}, names and profile
+ * images as codes into a {@link StringDictionary}. Absent numbers are stored as {@link #ABSENT}. An
+ * {@link IntIntHashMap} maps ids to rows; when an id repeats, the last row wins. {@link Employee} objects are
+ * only created by {@link #materialize}.
+ */
+public final class EmployeeColumns {
+
+    public static final int ABSENT = Integer.MIN_VALUE;
+
+    // unused dictionary values tolerated before a patch compacts the dictionaries
+    private static final int DICTIONARY_SLACK = 1024;
+
+    private final int size;
+    private final int[] ids;
+    private final int[] salaries;
+    private final int[] ages;
+    private final int[] nameCodes;
+    private final int[] imageCodes;
+    private final StringDictionary names;
+    private final StringDictionary images;
+    private final IntIntHashMap rowsById;
+    private final boolean repeatedIds;
+
+    private EmployeeColumns(Builder builder) {
+        this(builder.size,
+                Arrays.copyOf(builder.ids, builder.size),
+                Arrays.copyOf(builder.salaries, builder.size),
+                Arrays.copyOf(builder.ages, builder.size),
+                Arrays.copyOf(builder.nameCodes, builder.size),
+                Arrays.copyOf(builder.imageCodes, builder.size),
+                builder.names.build(),
+                builder.images.build(),
+                null);
+    }
+
+    // rowsById is derived from ids when null
+    private EmployeeColumns(int size, int[] ids, int[] salaries, int[] ages, int[] nameCodes, int[] imageCodes,
+                            StringDictionary names, StringDictionary images, IntIntHashMap rowsById) {
+        this.size = size;
+        this.ids = ids;
+        this.salaries = salaries;
+        this.ages = ages;
+        this.nameCodes = nameCodes;
+        this.imageCodes = imageCodes;
+        this.names = names;
+        this.images = images;
+        int identified = 0;
+        if (rowsById == null) {
+            rowsById = new IntIntHashMap(size);
+            for (int row = 0; row < size; row++) {
+                if (ids[row] != ABSENT) {
+                    rowsById.put(ids[row], row);
+                    identified++;
+                }
+            }
+        } else {
+            identified = rowsById.size();
+        }
+        this.rowsById = rowsById;
+        this.repeatedIds = identified != rowsById.size();
+    }
+
+    /**
+     * Rebuilds columns from arrays previously taken from {@link #idColumn()} and friends; the arrays are adopted,
+     * not copied.
+     */
+    static EmployeeColumns restore(int[] ids, int[] salaries, int[] ages, int[] nameCodes, int[] imageCodes,
+                                   StringDictionary names, StringDictionary images) {
+        return new EmployeeColumns(ids.length, ids, salaries, ages, nameCodes, imageCodes, names, images, null);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    public int salary(int row) {
+        return salaries[row];
+    }
+
+    public int age(int row) {
+        return ages[row];
+    }
+
+    public String name(int row) {
+        return names.get(nameCodes[row]);
+    }
+
+    public String profileImage(int row) {
+        return images.get(imageCodes[row]);
+    }
+
+    /**
+     * Returns the row holding {@code id}, or -1 when there is none.
+     */
+    public int rowOf(int id) {
+        return rowsById.get(id, -1);
+    }
+
+    /**
+     * Returns true when {@code row} is the row {@link #rowOf} resolves its id to.
+     */
+    public boolean isCurrentRowForId(int row) {
+        return ids[row] != ABSENT && rowsById.get(ids[row], -1) == row;
+    }
+
+    /**
+     * Returns the distinct ids in ascending order.
+     */
+    public int[] sortedIds() {
+        return rowsById.sortedKeys();
+    }
+
+    public Employee materialize(int row) {
+        return new Employee(boxed(ids[row]), name(row), boxed(salaries[row]), boxed(ages[row]), profileImage(row));
+    }
+
+    int[] idColumn() {
+        return ids;
+    }
+
+    int[] salaryColumn() {
+        return salaries;
+    }
+
+    int[] ageColumn() {
+        return ages;
+    }
+
+    int[] nameCodeColumn() {
+        return nameCodes;
+    }
+
+    int[] imageCodeColumn() {
+        return imageCodes;
+    }
+
+    StringDictionary nameDictionary() {
+        return names;
+    }
+
+    StringDictionary imageDictionary() {
+        return images;
+    }
+
+    /**
+     * Returns a primitive index over the salary column, skipping rows without a salary.
+     */
+    SortedIntIndex salaryIndex() {
+        return SortedIntIndex.build(salaries, size, ABSENT);
+    }
+
+    /**
+     * Returns a primitive index over the age column, skipping rows without an age.
+     */
+    SortedIntIndex ageIndex() {
+        return SortedIntIndex.build(ages, size, ABSENT);
+    }
+
+    /**
+     * Returns a copy with {@code upserts} replacing rows with the same id and {@code deletedIds} removed.
+     */
+    public EmployeeColumns withChanges(Collection<Employee> upserts, Collection<Integer> deletedIds) {
+        return patch(upserts, deletedIds).columns;
+    }
+
+    /**
+     * Applies {@code upserts} and {@code deletedIds} in place on copies of the columns: an updated id keeps its
+     * row, a new id is appended, and a deleted row is filled with the last row. Only the touched rows are
+     * reported as dirty, so indexes over the columns can be patched instead of rebuilt.
+     * <p>
+     * Columns with repeated ids are rebuilt instead, keeping only the last row of each id, as are columns whose
+     * dictionaries have accumulated too many unused values; both are reported with every row dirty.
+     */
+    Patch patch(Collection<Employee> upserts, Collection<Integer> deletedIds) {
+        Map<Integer, Employee> replacements = new LinkedHashMap<>();
+        for (Employee employee : upserts) {
+            if (employee.getId() != null) {
+                replacements.put(employee.getId(), employee);
+            }
+        }
+        if (repeatedIds) {
+            return new Patch(rebuild(replacements, deletedIds, false), null);
+        }
+        if (names.size() + images.size() > 2 * size + DICTIONARY_SLACK) {
+            return new Patch(rebuild(replacements, deletedIds, true), null);
+        }
+
+        int capacity = size + replacements.size();
+        int[] newIds = Arrays.copyOf(ids, capacity);
+        int[] newSalaries = Arrays.copyOf(salaries, capacity);
+        int[] newAges = Arrays.copyOf(ages, capacity);
+        int[] newNameCodes = Arrays.copyOf(nameCodes, capacity);
+        int[] newImageCodes = Arrays.copyOf(imageCodes, capacity);
+        IntIntHashMap newRowsById = rowsById.copy();
+        int[] dirty = new int[deletedIds.size() + replacements.size()];
+        int dirtyCount = 0;
+        int length = size;
+
+        for (Integer id : deletedIds) {
+            int row = id == null || replacements.containsKey(id) ? -1 : newRowsById.get(id, -1);
+            if (row < 0) {
+                continue;
+            }
+            newRowsById.remove(id);
+            int last = --length;
+            if (row != last) {
+                newIds[row] = newIds[last];
+                newSalaries[row] = newSalaries[last];
+                newAges[row] = newAges[last];
+                newNameCodes[row] = newNameCodes[last];
+                newImageCodes[row] = newImageCodes[last];
+                if (newIds[row] != ABSENT) {
+                    newRowsById.put(newIds[row], row);
+                }
+                dirty[dirtyCount++] = row;
+            }
+        }
+
+        DictionaryAppender newNames = new DictionaryAppender(names);
+        DictionaryAppender newImages = new DictionaryAppender(images);
+        for (Employee employee : replacements.values()) {
+            int row = newRowsById.get(employee.getId(), -1);
+            int nameCode = StringDictionary.NULL_CODE;
+            int imageCode = StringDictionary.NULL_CODE;
+            if (row < 0) {
+                row = length++;
+                newRowsById.put(employee.getId(), row);
+            } else {
+                nameCode = newNameCodes[row];
+                imageCode = newImageCodes[row];
+            }
+            newIds[row] = employee.getId();
+            newSalaries[row] = unboxed(employee.getSalary());
+            newAges[row] = unboxed(employee.getAge());
+            newNameCodes[row] = newNames.encode(employee.getName(), nameCode);
+            newImageCodes[row] = newImages.encode(employee.getProfileImage(), imageCode);
+            dirty[dirtyCount++] = row;
+        }
+
+        if (length != capacity) {
+            newIds = Arrays.copyOf(newIds, length);
+            newSalaries = Arrays.copyOf(newSalaries, length);
+            newAges = Arrays.copyOf(newAges, length);
+            newNameCodes = Arrays.copyOf(newNameCodes, length);
+            newImageCodes = Arrays.copyOf(newImageCodes, length);
+        }
+        int bound = length;
+        int[] dirtyRows = Arrays.stream(dirty, 0, dirtyCount).filter(row -> row < bound).sorted().distinct().toArray();
+        EmployeeColumns columns = new EmployeeColumns(length, newIds, newSalaries, newAges, newNameCodes,
+                newImageCodes, newNames.build(), newImages.build(), newRowsById);
+        return new Patch(columns, dirtyRows);
+    }
+
+    /**
+     * Returns the hash {@link #contentHash(Employee)} would return for the employee materialized from {@code row}.
+     */
+    public int contentHash(int row) {
+        return contentHash(ids[row], salaries[row], ages[row], name(row), profileImage(row));
+    }
+
+    /**
+     * Hashes every field of {@code employee}, for cheap change detection against a row.
+     */
+    public static int contentHash(Employee employee) {
+        return contentHash(unboxed(employee.getId()), unboxed(employee.getSalary()), unboxed(employee.getAge()),
+                employee.getName(), employee.getProfileImage());
+    }
+
+    /**
+     * Returns true when {@code row} holds exactly the fields of {@code employee}.
+     */
+    public boolean sameContent(int row, Employee employee) {
+        return ids[row] == unboxed(employee.getId())
+                && salaries[row] == unboxed(employee.getSalary())
+                && ages[row] == unboxed(employee.getAge())
+                && Objects.equals(name(row), employee.getName())
+                && Objects.equals(profileImage(row), employee.getProfileImage());
+    }
+
+    private EmployeeColumns rebuild(Map<Integer, Employee> replacements, Collection<Integer> deletedIds, boolean compact) {
+        Set<Integer> removed = new HashSet<>(deletedIds);
+        removed.addAll(replacements.keySet());
+
+        Builder builder = compact ? new Builder(size + replacements.size()) : new Builder(this, size + replacements.size());
+        for (int row = 0; row < size; row++) {
+            if (ids[row] == ABSENT || (isCurrentRowForId(row) && !removed.contains(ids[row]))) {
+                if (compact) {
+                    builder.add(materialize(row));
+                } else {
+                    builder.copyRow(this, row);
+                }
+            }
+        }
+        replacements.values().forEach(builder::add);
+        return builder.build();
+    }
+
+    private static int contentHash(int id, int salary, int age, String name, String profileImage) {
+        int hash = id;
+        hash = 31 * hash + salary;
+        hash = 31 * hash + age;
+        hash = 31 * hash + Objects.hashCode(name);
+        return 31 * hash + Objects.hashCode(profileImage);
+    }
+
+    private static Integer boxed(int value) {
+        return value == ABSENT ? null : value;
+    }
+
+    private static int unboxed(Integer value) {
+        return value == null ? ABSENT : value;
+    }
+
+    /**
+     * Columns produced by {@link #patch}, with the rows whose contents differ from the same row before the patch,
+     * in ascending order, or null when the columns were rebuilt.
+     */
+    static final class Patch {
+        final EmployeeColumns columns;
+        final int[] dirtyRows;
+
+        Patch(EmployeeColumns columns, int[] dirtyRows) {
+            this.columns = columns;
+            this.dirtyRows = dirtyRows;
+        }
+    }
+
+    /**
+     * Encodes patched values against an existing dictionary, keeping a row's code when its value is unchanged
+     * and appending new values without rehashing the existing ones.
+     */
+    private static final class DictionaryAppender {
+        private final StringDictionary base;
+        private final List<String> added = new ArrayList<>();
+        private final Map<String, Integer> addedCodes = new HashMap<>();
+
+        DictionaryAppender(StringDictionary base) {
+            this.base = base;
+        }
+
+        int encode(String value, int currentCode) {
+            if (value == null) {
+                return StringDictionary.NULL_CODE;
+            }
+            if (value.equals(base.get(currentCode))) {
+                return currentCode;
+            }
+            return addedCodes.computeIfAbsent(value, v -> {
+                added.add(v);
+                return base.size() + added.size() - 1;
+            });
+        }
+
+        StringDictionary build() {
+            return base.append(added);
+        }
+    }
+
+    /**
+     * Appends rows one at a time, growing the columns as needed.
+     */
+    public static final class Builder {
+        private int size;
+        private int[] ids;
+        private int[] salaries;
+        private int[] ages;
+        private int[] nameCodes;
+        private int[] imageCodes;
+        private final StringDictionary.Builder names;
+        private final StringDictionary.Builder images;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int expectedSize) {
+            this(new StringDictionary.Builder(), new StringDictionary.Builder(), expectedSize);
+        }
+
+        private Builder(EmployeeColumns base, int expectedSize) {
+            this(new StringDictionary.Builder(base.names), new StringDictionary.Builder(base.images), expectedSize);
+        }
+
+        private Builder(StringDictionary.Builder names, StringDictionary.Builder images, int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            this.ids = new int[capacity];
+            this.salaries = new int[capacity];
+            this.ages = new int[capacity];
+            this.nameCodes = new int[capacity];
+            this.imageCodes = new int[capacity];
+            this.names = names;
+            this.images = images;
+        }
+
+        public Builder add(Employee employee) {
+            int row = nextRow();
+            ids[row] = unboxed(employee.getId());
+            salaries[row] = unboxed(employee.getSalary());
+            ages[row] = unboxed(employee.getAge());
+            nameCodes[row] = names.encode(employee.getName());
+            imageCodes[row] = images.encode(employee.getProfileImage());
+            return this;
+        }
+
+        /**
+         * Appends every row of {@code other}, which may be encoded against different dictionaries.
+         */
+        public Builder addAll(Builder other) {
+            EmployeeColumns columns = other.build();
+            for (int row = 0; row < columns.size; row++) {
+                add(columns.materialize(row));
+            }
+            return this;
+        }
+
+        public EmployeeColumns build() {
+            return new EmployeeColumns(this);
+        }
+
+        // rows copied from the base this builder's dictionaries were seeded from keep their codes
+        private void copyRow(EmployeeColumns base, int sourceRow) {
+            int row = nextRow();
+            ids[row] = base.ids[sourceRow];
+            salaries[row] = base.salaries[sourceRow];
+            ages[row] = base.ages[sourceRow];
+            nameCodes[row] = base.nameCodes[sourceRow];
+            imageCodes[row] = base.imageCodes[sourceRow];
+        }
+
+        private int nextRow() {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                salaries = Arrays.copyOf(salaries, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                nameCodes = Arrays.copyOf(nameCodes, capacity);
+                imageCodes = Arrays.copyOf(imageCodes, capacity);
+            }
+            return size++;
+        }
+    }
+}
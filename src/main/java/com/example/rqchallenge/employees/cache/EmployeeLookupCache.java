@@ -0,0 +1,306 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.config.LookupCacheProperties;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.support.EmployeeMetrics;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of single-employee lookups against the remote API, keyed by id.
+ * <p>
+ * An employee found upstream is answered from the cache for {@code ttl}, and an id the upstream did not find is
+ * answered as not found for the shorter {@code notFoundTtl}. A hit on an entry past {@code refreshAhead} of its
+ * lifetime is still answered from the cache, and also reloads the entry in the background at background priority,
+ * so an id that keeps being read does not expire and stall a caller on the upstream. Failed lookups are not cached.
+ * <p>
+ * Entries are spread over segments, each an access-ordered map that evicts its least recently used entry once it
+ * holds more than its share of {@code maxSize}; lookups of different ids rarely wait on the same lock, and a skewed
+ * read pattern keeps its hot ids resident. Expired entries are dropped when read.
+ * <p>
+ * Writes keep cached results current: a created employee is cached as found, a deleted id as not found, and
+ * snapshot changes published as {@link EmployeeChangeEvent}s update the cached entries they touch. A lookup in
+ * flight when such a write lands does not overwrite it with the older answer, whether it loads on a miss or
+ * refreshes ahead.
+ */
+@Slf4j
+@Component
+public class EmployeeLookupCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final LookupCacheProperties properties;
+    private final Executor refreshExecutor;
+    private final EmployeeMetrics metrics;
+    private final LongSupplier nanoClock;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int segmentCapacity;
+
+    @Autowired
+    public EmployeeLookupCache(LookupCacheProperties properties, @Qualifier("upstreamExecutor") ExecutorService refreshExecutor,
+                               EmployeeMetrics metrics) {
+        this(properties, refreshExecutor, metrics, System::nanoTime);
+    }
+
+    public EmployeeLookupCache(LookupCacheProperties properties, Executor refreshExecutor, EmployeeMetrics metrics,
+                               LongSupplier nanoClock) {
+        this.properties = properties;
+        this.refreshExecutor = refreshExecutor;
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+        this.segmentCapacity = Math.max(1, (properties.getMaxSize() + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Returns a cache that keeps nothing, for services constructed outside the application context.
+     */
+    public static EmployeeLookupCache disabled() {
+        LookupCacheProperties properties = new LookupCacheProperties();
+        properties.setMaxSize(0);
+        return new EmployeeLookupCache(properties, Runnable::run, EmployeeMetrics.noop(), System::nanoTime);
+    }
+
+    /**
+     * Returns the cached result for {@code id}, or calls {@code loader} at interactive priority and caches its result.
+     */
+    public Optional<Employee> get(String id, Function<Priority, Optional<Employee>> loader) {
+        Integer key = keyOf(id);
+        if (key == null || properties.getMaxSize() <= 0) {
+            return loader.apply(Priority.INTERACTIVE);
+        }
+        long now = nanoClock.getAsLong();
+        Entry entry = lookup(key, now);
+        metrics.recordByIdLookup(entry != null);
+        if (entry != null) {
+            if (entry.dueForRefresh(now) && entry.refreshing.compareAndSet(false, true)) {
+                scheduleRefresh(key, entry, loader);
+            }
+            return Optional.ofNullable(entry.employee);
+        }
+        Entry loading = beginLoad(key);
+        Optional<Employee> loaded;
+        try {
+            loaded = loader.apply(Priority.INTERACTIVE);
+        } catch (RuntimeException e) {
+            endLoad(key, loading, null);
+            throw e;
+        }
+        endLoad(key, loading, newEntry(loaded.orElse(null)));
+        return loaded;
+    }
+
+    /**
+     * Caches {@code employee} as found under its id.
+     */
+    public void put(Employee employee) {
+        if (employee != null && employee.getId() != null && properties.getMaxSize() > 0) {
+            store(employee.getId(), employee);
+        }
+    }
+
+    /**
+     * Caches {@code id} as not found.
+     */
+    public void putNotFound(String id) {
+        Integer key = keyOf(id);
+        if (key != null && properties.getMaxSize() > 0) {
+            store(key, null);
+        }
+    }
+
+    /**
+     * Brings entries already cached up to date with a snapshot change; ids not cached are left out, so a large
+     * change does not push out the ids being read.
+     */
+    @EventListener
+    public void onSnapshotChange(EmployeeChangeEvent event) {
+        if (properties.getMaxSize() <= 0) {
+            return;
+        }
+        for (Employee employee : event.getChanges().upserts()) {
+            if (employee.getId() != null) {
+                replaceIfPresent(employee.getId(), employee);
+            }
+        }
+        for (Integer id : event.getChanges().getDeletedIds()) {
+            replaceIfPresent(id, null);
+        }
+    }
+
+    /**
+     * Returns the number of entries held, including expired ones not read since they expired.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Entry lookup(int key, long now) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry entry = segment.get(key);
+            if (entry != null && entry.loading) {
+                return null;
+            }
+            if (entry != null && now - entry.expiresAt >= 0) {
+                segment.remove(key);
+                metrics.recordByIdEviction(true);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    // marks a miss being loaded; a write or snapshot change replacing the mark before the load ends has the newer
+    // answer, so the load only installs its result over its own mark
+    private Entry beginLoad(int key) {
+        Entry loading = Entry.loading();
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Entry current = segment.get(key);
+            if (current == null || current.loading) {
+                segment.put(key, loading);
+            }
+        }
+        return loading;
+    }
+
+    // installs a loaded result, or with a null result drops the mark of a failed load
+    private void endLoad(int key, Entry loading, Entry loaded) {
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            if (loaded == null) {
+                segment.remove(key, loading);
+            } else {
+                segment.replace(key, loading, loaded);
+            }
+        }
+    }
+
+    private void store(int key, Employee employee) {
+        Entry entry = newEntry(employee);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    private void replaceIfPresent(int key, Employee employee) {
+        Entry entry = newEntry(employee);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.replace(key, entry);
+        }
+    }
+
+    private void scheduleRefresh(int key, Entry stale, Function<Priority, Optional<Employee>> loader) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    Entry fresh = newEntry(loader.apply(Priority.BACKGROUND).orElse(null));
+                    Segment segment = segmentFor(key);
+                    // a write since the refresh started has the newer answer
+                    synchronized (segment) {
+                        segment.replace(key, stale, fresh);
+                    }
+                    metrics.recordByIdRefresh();
+                } catch (RuntimeException e) {
+                    log.debug("Background refresh of employee {} failed: {}", key, e.getMessage());
+                    stale.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            stale.refreshing.set(false);
+        }
+    }
+
+    private Entry newEntry(Employee employee) {
+        long now = nanoClock.getAsLong();
+        long lifetime = (employee != null ? properties.getTtl() : properties.getNotFoundTtl()).toNanos();
+        long refreshAfter = properties.getRefreshAhead() >= 1 ? Long.MAX_VALUE : (long) (lifetime * properties.getRefreshAhead());
+        return new Entry(employee, now, lifetime, refreshAfter);
+    }
+
+    private Segment segmentFor(int key) {
+        int h = key * 0x9E3779B9;
+        return segments[h >>> 28];
+    }
+
+    // ids the remote API can answer for are ints; anything else is looked up without caching
+    private static Integer keyOf(String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        // null when the upstream did not find the id
+        final Employee employee;
+        final long loadedAt;
+        final long expiresAt;
+        final long refreshAfter;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        // a miss being loaded, read as a miss
+        final boolean loading;
+
+        Entry(Employee employee, long loadedAt, long lifetime, long refreshAfter) {
+            this(employee, loadedAt, lifetime, refreshAfter, false);
+        }
+
+        private Entry(Employee employee, long loadedAt, long lifetime, long refreshAfter, boolean loading) {
+            this.employee = employee;
+            this.loadedAt = loadedAt;
+            this.expiresAt = loadedAt + lifetime;
+            this.refreshAfter = refreshAfter;
+            this.loading = loading;
+        }
+
+        static Entry loading() {
+            return new Entry(null, 0, 0, Long.MAX_VALUE, true);
+        }
+
+        boolean dueForRefresh(long now) {
+            return refreshAfter != Long.MAX_VALUE && now - loadedAt >= refreshAfter;
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<Integer, Entry> {
+
+        Segment() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+            if (size() <= segmentCapacity) {
+                return false;
+            }
+            metrics.recordByIdEviction(false);
+            return true;
+        }
+    }
+}
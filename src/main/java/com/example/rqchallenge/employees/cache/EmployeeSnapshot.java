@@ -0,0 +1,274 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeQuery;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.function.LongSupplier;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, versioned view of the full employee roster.
+ * Changes never mutate a snapshot; they produce a new one with a higher version.
+ * <p>
+ * Rows are held in {@link EmployeeColumns}; {@link Employee} objects are materialized only for the records a
+ * caller actually reads.
+ */
+public final class EmployeeSnapshot {
+
+    private final long version;
+    private final Instant createdAt;
+    private final EmployeeColumns columns;
+    private final SortedIntIndex salaryIndex;
+    private final SortedIntIndex ageIndex;
+    // built on first search for restored snapshots and the snapshots patched from them
+    private volatile NameSearchIndex nameIndex;
+    // ids in ascending order for cursor paging, built on first use
+    private volatile int[] sortedIds;
+
+    private EmployeeSnapshot(long version, Instant createdAt, EmployeeColumns columns, SortedIntIndex salaryIndex,
+                             SortedIntIndex ageIndex, NameSearchIndex nameIndex) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.columns = columns;
+        this.salaryIndex = salaryIndex;
+        this.ageIndex = ageIndex;
+        this.nameIndex = nameIndex;
+    }
+
+    private EmployeeSnapshot(long version, EmployeeColumns columns) {
+        this(version, Instant.now(), columns, columns.salaryIndex(), columns.ageIndex(), buildNameIndex(columns));
+    }
+
+    /**
+     * Recreates a snapshot from persisted columns, keeping its original version and creation time. The name
+     * index is built on first use, so a restored snapshot can serve lookups as soon as the columns are read.
+     */
+    static EmployeeSnapshot restore(long version, Instant createdAt, EmployeeColumns columns) {
+        return new EmployeeSnapshot(version, createdAt, columns, columns.salaryIndex(), columns.ageIndex(), null);
+    }
+
+    public static EmployeeSnapshot of(long version, List<Employee> employees) {
+        EmployeeColumns.Builder builder = new EmployeeColumns.Builder(employees.size());
+        employees.forEach(builder::add);
+        return new EmployeeSnapshot(version, builder.build());
+    }
+
+    /**
+     * Returns a collector that builds a snapshot from records as they arrive, taking its version from
+     * {@code version} only once the roster is complete.
+     */
+    public static Collector<Employee, ?, EmployeeSnapshot> collector(LongSupplier version) {
+        return Collector.of(
+                EmployeeColumns.Builder::new,
+                EmployeeColumns.Builder::add,
+                EmployeeColumns.Builder::addAll,
+                builder -> new EmployeeSnapshot(version.getAsLong(), builder.build()));
+    }
+
+    /**
+     * Returns a collector that compares an incoming roster with this snapshot and yields only what changed:
+     * new ids, ids whose fields differ, and ids no longer present.
+     */
+    public Collector<Employee, ?, EmployeeChangeSet> changeCollector() {
+        return RosterDiff.against(this);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public EmployeeColumns getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the roster in row order as a read-only list that materializes each record as it is read.
+     */
+    public List<Employee> getEmployees() {
+        return new MaterializingList(columns);
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    public Optional<Employee> findById(int id) {
+        int row = columns.rowOf(id);
+        return row < 0 ? Optional.empty() : Optional.of(columns.materialize(row));
+    }
+
+    /**
+     * Returns the highest salary in the roster, or 0 when no employee has one.
+     */
+    public int highestSalary() {
+        return salaryIndex.isEmpty() ? 0 : salaryIndex.max();
+    }
+
+    /**
+     * Returns the {@code n} highest-earning employees, highest salary first.
+     */
+    public List<Employee> topEarners(int n) {
+        int[] rows = salaryIndex.topRows(n);
+        List<Employee> top = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            top.add(columns.materialize(row));
+        }
+        return top;
+    }
+
+    /**
+     * Returns employees whose name contains {@code searchString}, ignoring case, in ascending id order.
+     */
+    public List<Employee> searchByName(String searchString, int offset, int limit) {
+        int[] ids = nameIndex().search(searchString);
+        int from = Math.min(offset, ids.length);
+        int to = (int) Math.min((long) from + limit, ids.length);
+        List<Employee> matches = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            matches.add(columns.materialize(columns.rowOf(ids[i])));
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the employees matching {@code query}, in its order and page. See {@link SnapshotQuery}.
+     */
+    public List<Employee> query(EmployeeQuery query) {
+        return SnapshotQuery.run(this, query);
+    }
+
+    /**
+     * Returns up to {@code limit} employees with an id greater than {@code afterId}, in ascending id order,
+     * starting from the beginning of the roster when {@code afterId} is null. Records are looked up lazily as the
+     * stream is consumed.
+     */
+    public Stream<Employee> employeesAfter(Integer afterId, int limit) {
+        int[] ids = sortedIds();
+        int from = 0;
+        if (afterId != null) {
+            int position = Arrays.binarySearch(ids, afterId);
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        int to = (int) Math.min((long) from + limit, ids.length);
+        return IntStream.range(from, to).mapToObj(i -> columns.materialize(columns.rowOf(ids[i])));
+    }
+
+    /**
+     * Returns a copy of this snapshot with the given employee added, replacing any record with the same id.
+     */
+    public EmployeeSnapshot withEmployee(long newVersion, Employee employee) {
+        return withChanges(newVersion, Collections.singletonList(employee), Collections.emptySet());
+    }
+
+    /**
+     * Returns a copy of this snapshot without the employee with the given id.
+     */
+    public EmployeeSnapshot withoutEmployee(long newVersion, int id) {
+        return withChanges(newVersion, Collections.emptyList(), Collections.singleton(id));
+    }
+
+    /**
+     * Returns a copy of this snapshot with {@code upserts} added or replacing records with the same id, and
+     * {@code deletedIds} removed. The salary, age and name indexes are patched for the changed rows rather than
+     * rebuilt, so their cost follows the number of changes, not the roster size.
+     */
+    public EmployeeSnapshot withChanges(long newVersion, Collection<Employee> upserts, Collection<Integer> deletedIds) {
+        EmployeeColumns.Patch patch = columns.patch(upserts, deletedIds);
+        EmployeeColumns patched = patch.columns;
+        SortedIntIndex salaries = patch.dirtyRows == null ? patched.salaryIndex()
+                : salaryIndex.withChangedRows(patched.salaryColumn(), patched.size(), EmployeeColumns.ABSENT, patch.dirtyRows);
+        SortedIntIndex ages = patch.dirtyRows == null ? patched.ageIndex()
+                : ageIndex.withChangedRows(patched.ageColumn(), patched.size(), EmployeeColumns.ABSENT, patch.dirtyRows);
+
+        NameSearchIndex names = nameIndex;
+        if (names != null) {
+            Map<Integer, String> renamed = new LinkedHashMap<>();
+            for (Employee employee : upserts) {
+                if (employee.getId() != null) {
+                    renamed.put(employee.getId(), employee.getName());
+                }
+            }
+            names = names.withChanges(renamed, deletedIds);
+        }
+        return new EmployeeSnapshot(newVersion, Instant.now(), patched, salaries, ages, names);
+    }
+
+    SortedIntIndex salaryIndex() {
+        return salaryIndex;
+    }
+
+    SortedIntIndex ageIndex() {
+        return ageIndex;
+    }
+
+    NameSearchIndex nameIndex() {
+        NameSearchIndex index = nameIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = nameIndex;
+                if (index == null) {
+                    index = buildNameIndex(columns);
+                    nameIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private int[] sortedIds() {
+        int[] ids = sortedIds;
+        if (ids == null) {
+            ids = columns.sortedIds();
+            sortedIds = ids;
+        }
+        return ids;
+    }
+
+    private static NameSearchIndex buildNameIndex(EmployeeColumns columns) {
+        int[] ids = new int[columns.size()];
+        String[] names = new String[columns.size()];
+        int count = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            if (columns.isCurrentRowForId(row)) {
+                ids[count] = columns.id(row);
+                names[count++] = columns.name(row);
+            }
+        }
+        return NameSearchIndex.build(Arrays.copyOf(ids, count), Arrays.copyOf(names, count));
+    }
+
+    private static final class MaterializingList extends AbstractList<Employee> implements RandomAccess {
+        private final EmployeeColumns columns;
+
+        MaterializingList(EmployeeColumns columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public Employee get(int index) {
+            return columns.materialize(index);
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+    }
+}
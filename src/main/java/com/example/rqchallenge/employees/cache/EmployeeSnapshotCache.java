@@ -0,0 +1,421 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.exception.RemoteApiException;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.service.impl.EmployeeServiceImpl;
+import com.example.rqchallenge.employees.upstream.ConditionalFetch;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import com.example.rqchallenge.employees.upstream.UpstreamValidators;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link EmployeeSnapshot} and keeps it fresh.
+ * <p>
+ * The first read loads the roster synchronously; after that a scheduled refresh compares the upstream roster
+ * with the current snapshot and swaps in a new snapshot carrying only the differences, while readers keep getting
+ * the previous one. Refreshes run at background priority, so they yield the upstream call budget to interactive
+ * requests, and a failed refresh keeps the last good snapshot. Refreshes send the upstream's validators from the
+ * previous roster response, so an upstream that supports conditional requests can answer 304 without a body.
+ * <p>
+ * Every applied change set, from a refresh or from a write through this service, is published as an
+ * {@link EmployeeChangeEvent}. Change sets are applied one at a time on top of the current snapshot, each under a
+ * single new version, and a fully loaded or adopted snapshot only replaces a missing one, so no write is lost to a
+ * concurrent one.
+ * <p>
+ * Provisional employees, accepted locally but not yet created upstream, are kept in every snapshot until they are
+ * reconciled or discarded: a refresh does not delete them for being absent upstream, and a full load adds them
+ * back.
+ * <p>
+ * With {@link SnapshotReplication}, an instance that does not refresh from upstream never calls the remote API for
+ * the roster while the refreshing instance can be reached: its first read and its refreshes take that instance's
+ * snapshot and apply the differences, under versions of its own. Creates and deletes written through such an
+ * instance are not reverted by replicas taken before the refreshing instance has seen them: they are kept until a
+ * replica agrees with them, or for {@link SnapshotReplication#localWriteTimeout()}.
+ * <p>
+ * With a {@link SnapshotFileStore}, every fully loaded snapshot is also written to disk, and the last one is
+ * restored at startup so reads are served immediately while a background refresh catches up.
+ */
+@Slf4j
+@Component
+@Conditional(OnSnapshotCacheCondition.class)
+public class EmployeeSnapshotCache {
+
+    private final EmployeeServiceImpl remote;
+    private final Optional<SnapshotFileStore> store;
+    private final ApplicationEventPublisher events;
+    private final Optional<SnapshotReplication> replication;
+    private final AtomicReference<EmployeeSnapshot> current = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong versions = new AtomicLong();
+    // validators of the upstream roster response the current snapshot was built or refreshed from
+    private final AtomicReference<UpstreamValidators> upstreamValidators = new AtomicReference<>(UpstreamValidators.NONE);
+    private final Object initialLoadLock = new Object();
+    // serializes change sets, so each builds on the one before and publishes its event in version order
+    private final Object writeLock = new Object();
+    private final AtomicBoolean firstReadServed = new AtomicBoolean();
+    private volatile boolean restored;
+    // when the current snapshot was last loaded from, or found up to date with, the upstream roster
+    private volatile long syncedAtMillis;
+    // employees accepted locally and not yet created upstream, by provisional id
+    private final Map<Integer, Employee> provisional = new ConcurrentHashMap<>();
+    // ids created and deleted upstream through this instance while it replicates, with System.nanoTime() of the write
+    private final Map<Integer, Long> localCreates = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> localDeletes = new ConcurrentHashMap<>();
+
+    public EmployeeSnapshotCache(EmployeeServiceImpl remote) {
+        this(remote, Optional.empty(), event -> { });
+    }
+
+    public EmployeeSnapshotCache(EmployeeServiceImpl remote, Optional<SnapshotFileStore> store,
+                                 ApplicationEventPublisher events) {
+        this(remote, store, events, Optional.empty());
+    }
+
+    @Autowired
+    public EmployeeSnapshotCache(EmployeeServiceImpl remote, Optional<SnapshotFileStore> store,
+                                 ApplicationEventPublisher events, Optional<SnapshotReplication> replication) {
+        this.remote = remote;
+        this.store = store;
+        this.events = events;
+        this.replication = replication;
+    }
+
+    /**
+     * Loads the persisted snapshot, if any, before the application starts serving requests.
+     */
+    @PostConstruct
+    public void restore() {
+        store.ifPresent(fileStore -> {
+            long start = System.nanoTime();
+            fileStore.load().ifPresent(snapshot -> {
+                versions.accumulateAndGet(snapshot.getVersion(), Math::max);
+                if (current.compareAndSet(null, snapshot)) {
+                    syncedAtMillis = snapshot.getCreatedAt().toEpochMilli();
+                }
+                restored = true;
+                log.info("Restored employee snapshot version {} with {} employees from {} in {} ms",
+                        snapshot.getVersion(), snapshot.size(), fileStore.getPath(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            });
+        });
+    }
+
+    /**
+     * Starts a background refresh right after startup when reads are being served from a restored snapshot,
+     * instead of waiting for the first scheduled refresh.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshRestoredSnapshot() {
+        if (restored) {
+            CompletableFuture.runAsync(this::refresh);
+        }
+    }
+
+    /**
+     * Returns the current snapshot, loading it from the remote API if none has been loaded yet.
+     */
+    public EmployeeSnapshot get() {
+        EmployeeSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            synchronized (initialLoadLock) {
+                snapshot = current.get();
+                if (snapshot == null) {
+                    snapshot = firstLoad();
+                }
+            }
+        }
+        if (!firstReadServed.get() && firstReadServed.compareAndSet(false, true)) {
+            log.info("First employee read served {} ms after JVM start ({} start)",
+                    System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime(),
+                    restored ? "warm" : "cold");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the current snapshot without triggering a load.
+     */
+    public EmployeeSnapshot peek() {
+        return current.get();
+    }
+
+    /**
+     * Returns when the current snapshot was last loaded from, or found up to date with, the upstream roster, in
+     * epoch milliseconds.
+     */
+    public long getSyncedAtMillis() {
+        return syncedAtMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${employees.cache.refresh-interval-ms:60000}",
+            initialDelayString = "${employees.cache.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            EmployeeSnapshot base = current.get();
+            if (replicated()) {
+                replication.get().fetchReplica().ifPresent(this::install);
+            } else if (base == null) {
+                load(Priority.BACKGROUND);
+            } else {
+                sync(base);
+            }
+        } catch (RemoteApiException e) {
+            log.warn("Employee snapshot refresh failed, keeping version {}: {}", versionOf(current.get()), e.getMessage());
+        } finally {
+            refreshing.set(false);
+        }
+    }
+
+    public void applyCreated(Employee employee) {
+        if (employee == null || employee.getId() == null) {
+            return;
+        }
+        rememberLocalWrites(Collections.singletonList(employee), Collections.emptyList());
+        apply(new EmployeeChangeSet(Collections.singletonList(employee), Collections.emptyList(), Collections.emptyList()));
+    }
+
+    public void applyDeleted(int id) {
+        rememberLocalWrites(Collections.emptyList(), Collections.singletonList(id));
+        apply(new EmployeeChangeSet(Collections.emptyList(), Collections.emptyList(), Collections.singletonList(id)));
+    }
+
+    /**
+     * Applies a batch of upstream writes as one new snapshot version.
+     */
+    public void applyChanges(Collection<Employee> created, Collection<Integer> deletedIds) {
+        rememberLocalWrites(created, deletedIds);
+        apply(new EmployeeChangeSet(created, Collections.emptyList(), deletedIds));
+    }
+
+    /**
+     * Adds employees that are not known upstream yet, each under a provisional id no upstream employee uses, and
+     * keeps them in later snapshots until {@link #reconcileProvisional} or {@link #discardProvisional}.
+     */
+    public void applyProvisional(Collection<Employee> employees) {
+        for (Employee employee : employees) {
+            provisional.put(employee.getId(), employee);
+        }
+        apply(new EmployeeChangeSet(employees, Collections.emptyList(), Collections.emptyList()));
+    }
+
+    /**
+     * Replaces provisional employees with their upstream records, keyed by provisional id, as one new snapshot
+     * version.
+     */
+    public void reconcileProvisional(Map<Integer, Employee> created) {
+        provisional.keySet().removeAll(created.keySet());
+        List<Employee> upserts = new ArrayList<>(created.size());
+        for (Employee employee : created.values()) {
+            if (employee != null && employee.getId() != null) {
+                upserts.add(employee);
+            }
+        }
+        rememberLocalWrites(upserts, Collections.emptyList());
+        apply(new EmployeeChangeSet(upserts, Collections.emptyList(), created.keySet()));
+    }
+
+    /**
+     * Removes provisional employees that will never be created upstream.
+     */
+    public void discardProvisional(Collection<Integer> provisionalIds) {
+        provisional.keySet().removeAll(provisionalIds);
+        apply(new EmployeeChangeSet(Collections.emptyList(), Collections.emptyList(), provisionalIds));
+    }
+
+    /**
+     * Diffs the upstream roster against {@code base} and applies only the differences. An unchanged roster
+     * keeps the current snapshot and version.
+     */
+    private void sync(EmployeeSnapshot base) {
+        ConditionalFetch<EmployeeChangeSet> fetch =
+                remote.collectAllEmployees(Priority.BACKGROUND, base.changeCollector(), upstreamValidators.get());
+        upstreamValidators.set(fetch.getValidators());
+        syncedAtMillis = System.currentTimeMillis();
+        if (!fetch.isModified()) {
+            log.debug("Upstream roster not modified since employee snapshot version {}", base.getVersion());
+            return;
+        }
+        EmployeeChangeSet changes = keepProvisional(fetch.getBody());
+        if (changes.isEmpty()) {
+            log.debug("Employee snapshot version {} is up to date", base.getVersion());
+            return;
+        }
+        EmployeeSnapshot snapshot = apply(changes);
+        log.debug("Refreshed employee snapshot to version {}: {}", versionOf(snapshot), changes);
+        if (snapshot != null) {
+            store.ifPresent(fileStore -> CompletableFuture.runAsync(() -> persist(fileStore, snapshot)));
+        }
+    }
+
+    // provisional employees are absent upstream by definition, so the diff reports them deleted
+    private EmployeeChangeSet keepProvisional(EmployeeChangeSet changes) {
+        if (provisional.isEmpty()) {
+            return changes;
+        }
+        List<Integer> deletedIds = new ArrayList<>(changes.getDeletedIds());
+        if (!deletedIds.removeAll(provisional.keySet())) {
+            return changes;
+        }
+        return new EmployeeChangeSet(changes.getCreated(), changes.getUpdated(), deletedIds);
+    }
+
+    private void rememberLocalWrites(Collection<Employee> created, Collection<Integer> deletedIds) {
+        if (!replicated()) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Employee employee : created) {
+            localDeletes.remove(employee.getId());
+            localCreates.put(employee.getId(), now);
+        }
+        for (Integer id : deletedIds) {
+            localCreates.remove(id);
+            localDeletes.put(id, now);
+        }
+    }
+
+    // a replica taken before the refreshing instance has refreshed from upstream lacks the writes taken here since,
+    // so the diff would undo them; they are left out of it until a replica agrees with them or they time out
+    private EmployeeChangeSet keepLocalWrites(EmployeeChangeSet changes, EmployeeSnapshot replica) {
+        if (localCreates.isEmpty() && localDeletes.isEmpty()) {
+            return changes;
+        }
+        long expiredBefore = System.nanoTime() - replication.get().localWriteTimeout().toNanos();
+        localCreates.entrySet().removeIf(write -> write.getValue() - expiredBefore < 0
+                || replica.findById(write.getKey()).isPresent());
+        localDeletes.entrySet().removeIf(write -> write.getValue() - expiredBefore < 0
+                || !replica.findById(write.getKey()).isPresent());
+        if (localCreates.isEmpty() && localDeletes.isEmpty()) {
+            return changes;
+        }
+        List<Employee> created = new ArrayList<>(changes.getCreated());
+        List<Employee> updated = new ArrayList<>(changes.getUpdated());
+        List<Integer> deletedIds = new ArrayList<>(changes.getDeletedIds());
+        created.removeIf(employee -> localDeletes.containsKey(employee.getId()));
+        updated.removeIf(employee -> localDeletes.containsKey(employee.getId()));
+        deletedIds.removeIf(localCreates::containsKey);
+        return new EmployeeChangeSet(created, updated, deletedIds);
+    }
+
+    private EmployeeSnapshot apply(EmployeeChangeSet changes) {
+        if (changes.isEmpty()) {
+            return current.get();
+        }
+        synchronized (writeLock) {
+            EmployeeSnapshot previous = current.get();
+            if (previous == null) {
+                return null;
+            }
+            EmployeeSnapshot snapshot = previous.withChanges(versions.incrementAndGet(), changes.upserts(), changes.getDeletedIds());
+            current.set(snapshot);
+            events.publishEvent(new EmployeeChangeEvent(previous.getVersion(), snapshot.getVersion(), changes));
+            return snapshot;
+        }
+    }
+
+    // a snapshot installed meanwhile, by a concurrent first read or refresh, may already carry writes applied since,
+    // so it is kept and the candidate dropped
+    private boolean installFirst(EmployeeSnapshot snapshot) {
+        if (current.compareAndSet(null, snapshot)) {
+            return true;
+        }
+        log.debug("Dropped employee snapshot version {}: version {} was installed meanwhile",
+                snapshot.getVersion(), versionOf(current.get()));
+        return false;
+    }
+
+    // a replica when one can be had, so instances starting together do not all load the roster upstream
+    private EmployeeSnapshot firstLoad() {
+        if (replicated()) {
+            Optional<EmployeeSnapshot> replica = replication.get().fetchReplica();
+            if (replica.isPresent()) {
+                return install(replica.get());
+            }
+        }
+        return load(Priority.INTERACTIVE);
+    }
+
+    private boolean replicated() {
+        return replication.isPresent() && !replication.get().refreshesFromUpstream();
+    }
+
+    /**
+     * Brings the snapshot up to date with {@code replica}, taken from another instance: the first one is adopted
+     * under a local version, and later ones are diffed and applied like an upstream refresh.
+     */
+    private EmployeeSnapshot install(EmployeeSnapshot replica) {
+        syncedAtMillis = System.currentTimeMillis();
+        EmployeeSnapshot base = current.get();
+        if (base != null) {
+            EmployeeChangeSet changes = keepLocalWrites(
+                    keepProvisional(replica.getEmployees().stream().collect(base.changeCollector())), replica);
+            EmployeeSnapshot snapshot = apply(changes);
+            log.debug("Replicated employee snapshot version {} as version {}: {}", replica.getVersion(), versionOf(snapshot), changes);
+            return snapshot;
+        }
+        EmployeeSnapshot adopted = EmployeeSnapshot.restore(versions.incrementAndGet(), replica.getCreatedAt(), replica.getColumns());
+        EmployeeSnapshot snapshot = provisional.isEmpty() ? adopted
+                : adopted.withChanges(versions.incrementAndGet(), new ArrayList<>(provisional.values()), Collections.emptyList());
+        if (!installFirst(snapshot)) {
+            return current.get();
+        }
+        log.debug("Adopted replicated employee snapshot version {} with {} employees as version {}",
+                replica.getVersion(), snapshot.size(), snapshot.getVersion());
+        store.ifPresent(fileStore -> CompletableFuture.runAsync(() -> persist(fileStore, snapshot)));
+        return snapshot;
+    }
+
+    private EmployeeSnapshot load(Priority priority) {
+        ConditionalFetch<EmployeeSnapshot> fetch =
+                remote.collectAllEmployees(priority, EmployeeSnapshot.collector(versions::incrementAndGet), UpstreamValidators.NONE);
+        EmployeeSnapshot loaded = fetch.getBody();
+        EmployeeSnapshot snapshot = provisional.isEmpty() ? loaded
+                : loaded.withChanges(versions.incrementAndGet(), new ArrayList<>(provisional.values()), Collections.emptyList());
+        if (!installFirst(snapshot)) {
+            return current.get();
+        }
+        upstreamValidators.set(fetch.getValidators());
+        syncedAtMillis = System.currentTimeMillis();
+        log.debug("Loaded employee snapshot version {} with {} employees", snapshot.getVersion(), snapshot.size());
+        store.ifPresent(fileStore -> CompletableFuture.runAsync(() -> persist(fileStore, snapshot)));
+        return snapshot;
+    }
+
+    private static void persist(SnapshotFileStore fileStore, EmployeeSnapshot snapshot) {
+        try {
+            fileStore.save(snapshot);
+        } catch (IOException e) {
+            log.warn("Could not persist employee snapshot version {} to {}: {}", snapshot.getVersion(), fileStore.getPath(), e.toString());
+        }
+    }
+
+    private static long versionOf(EmployeeSnapshot snapshot) {
+        return snapshot == null ? 0 : snapshot.getVersion();
+    }
+}
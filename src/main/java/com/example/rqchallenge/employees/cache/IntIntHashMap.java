@@ -0,0 +1,142 @@
+package com.example.rqchallenge.employees.cache;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int keys to int values, backed by two primitive arrays.
+ * <p>
+ * Used for id to row lookups, where a {@code HashMap<Integer, ...>} would cost a node and a boxed key per row.
+ * {@link Integer#MIN_VALUE} is reserved as the empty-slot marker and cannot be used as a key.
+ */
+public final class IntIntHashMap {
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private IntIntHashMap(IntIntHashMap other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        size = other.size;
+    }
+
+    /**
+     * Returns an independent copy of this map.
+     */
+    public IntIntHashMap copy() {
+        return new IntIntHashMap(this);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, replacing any previous value.
+     */
+    public void put(int key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Reserved key: " + key);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Returns the value for {@code key}, or {@code missing} when it is absent.
+     */
+    public int get(int key, int missing) {
+        if (key == EMPTY) {
+            return missing;
+        }
+        int slot = slot(key);
+        return keys[slot] == EMPTY ? missing : values[slot];
+    }
+
+    /**
+     * Removes {@code key} if present. Later entries of the probe run are shifted back into the freed slot, so
+     * lookups never need tombstones.
+     */
+    public void remove(int key) {
+        if (key == EMPTY) {
+            return;
+        }
+        int hole = slot(key);
+        if (keys[hole] == EMPTY) {
+            return;
+        }
+        size--;
+        int mask = keys.length - 1;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+    }
+
+    /**
+     * Returns the keys in ascending order.
+     */
+    public int[] sortedKeys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int key : keys) {
+            if (key != EMPTY) {
+                result[n++] = key;
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.rqchallenge.employees.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Case-folded substring index over employee names.
+ * <p>
+ * Names are lower-cased once when indexed. Every trigram of a folded name maps to a sorted posting list of
+ * employee ids; a query intersects the posting lists of its own trigrams, shortest first, and verifies the
+ * surviving candidates against the folded names. Queries shorter than a trigram scan the folded names.
+ * <p>
+ * Instances are immutable. {@link #withChanges} derives a new index touching only the posting lists of the
+ * affected names, so small changes do not re-fold or re-tokenize the whole roster.
+ */
+public final class NameSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int[] NO_IDS = new int[0];
+
+    private final int[] ids;
+    private final String[] folded;
+    private final Map<Long, int[]> postings;
+
+    private NameSearchIndex(int[] ids, String[] folded, Map<Long, int[]> postings) {
+        this.ids = ids;
+        this.folded = folded;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds an index from parallel arrays of employee ids and names. Ids must be unique.
+     */
+    public static NameSearchIndex build(int[] employeeIds, String[] names) {
+        long[] order = new long[employeeIds.length];
+        for (int i = 0; i < employeeIds.length; i++) {
+            order[i] = ((long) employeeIds[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int[] ids = new int[order.length];
+        String[] folded = new String[order.length];
+        Map<Long, IntList> lists = new HashMap<>();
+        for (int i = 0; i < order.length; i++) {
+            int source = (int) order[i];
+            ids[i] = employeeIds[source];
+            folded[i] = fold(names[source]);
+            for (long gram : grams(folded[i])) {
+                lists.computeIfAbsent(gram, g -> new IntList()).add(ids[i]);
+            }
+        }
+
+        Map<Long, int[]> postings = new HashMap<>(lists.size() * 2);
+        lists.forEach((gram, list) -> postings.put(gram, list.toArray()));
+        return new NameSearchIndex(ids, folded, postings);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the ids of employees whose name contains {@code query}, ignoring case, in ascending id order.
+     */
+    public int[] search(String query) {
+        String needle = fold(query);
+        if (needle.length() < GRAM) {
+            return scan(needle);
+        }
+
+        Set<Long> queryGrams = grams(needle);
+        int[][] lists = new int[queryGrams.size()][];
+        int n = 0;
+        for (long gram : queryGrams) {
+            int[] list = postings.get(gram);
+            if (list == null) {
+                return NO_IDS;
+            }
+            lists[n++] = list;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int id : candidates) {
+            int position = Arrays.binarySearch(ids, id);
+            if (folded[position].contains(needle)) {
+                matches[count++] = id;
+            }
+        }
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Returns a copy of this index with the given employee added, replacing any previous name for its id.
+     */
+    public NameSearchIndex with(int id, String name) {
+        return withChanges(Collections.singletonMap(id, name), Collections.emptySet());
+    }
+
+    /**
+     * Returns a copy of this index without the employee with the given id.
+     */
+    public NameSearchIndex without(int id) {
+        return Arrays.binarySearch(ids, id) < 0 ? this : withChanges(Collections.emptyMap(), Collections.singleton(id));
+    }
+
+    /**
+     * Returns a copy of this index with {@code upserts} (id to name) added or replaced and {@code deletedIds} removed.
+     * Only the posting lists of the affected names are rewritten, each once per call however many of the changed
+     * names share it.
+     */
+    public NameSearchIndex withChanges(Map<Integer, String> upserts, Collection<Integer> deletedIds) {
+        Set<Integer> dropped = new HashSet<>(deletedIds);
+        dropped.addAll(upserts.keySet());
+        Map<Long, IntList> removals = new HashMap<>();
+        Map<Long, IntList> additions = new HashMap<>();
+
+        int[] keptIds = new int[ids.length];
+        String[] keptFolded = new String[ids.length];
+        int kept = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (!dropped.contains(ids[i])) {
+                keptIds[kept] = ids[i];
+                keptFolded[kept++] = folded[i];
+                continue;
+            }
+            for (long gram : grams(folded[i])) {
+                removals.computeIfAbsent(gram, g -> new IntList()).add(ids[i]);
+            }
+        }
+
+        int[] addedIds = upserts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] newIds = new int[kept + addedIds.length];
+        String[] newFolded = new String[newIds.length];
+        int k = 0;
+        int a = 0;
+        for (int n = 0; n < newIds.length; n++) {
+            if (a == addedIds.length || (k < kept && keptIds[k] < addedIds[a])) {
+                newIds[n] = keptIds[k];
+                newFolded[n] = keptFolded[k++];
+            } else {
+                int id = addedIds[a++];
+                newIds[n] = id;
+                newFolded[n] = fold(upserts.get(id));
+                for (long gram : grams(newFolded[n])) {
+                    additions.computeIfAbsent(gram, g -> new IntList()).add(id);
+                }
+            }
+        }
+
+        Map<Long, int[]> newPostings = new HashMap<>(postings);
+        Set<Long> touched = new HashSet<>(removals.keySet());
+        touched.addAll(additions.keySet());
+        for (long gram : touched) {
+            IntList removed = removals.get(gram);
+            IntList added = additions.get(gram);
+            int[] list = rewrite(postings.getOrDefault(gram, NO_IDS),
+                    removed == null ? NO_IDS : removed.toSortedArray(),
+                    added == null ? NO_IDS : added.toSortedArray());
+            if (list.length == 0) {
+                newPostings.remove(gram);
+            } else {
+                newPostings.put(gram, list);
+            }
+        }
+        return new NameSearchIndex(newIds, newFolded, newPostings);
+    }
+
+    private int[] scan(String needle) {
+        int[] matches = new int[ids.length];
+        int count = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (folded[i].contains(needle)) {
+                matches[count++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private static String fold(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> grams(String folded) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= folded.length(); i++) {
+            grams.add(((long) folded.charAt(i) << 32) | ((long) folded.charAt(i + 1) << 16) | folded.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int count = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // one merge pass over a sorted posting list, dropping the ids in removed and adding those in added
+    private static int[] rewrite(int[] list, int[] removed, int[] added) {
+        int[] result = new int[list.length + added.length];
+        int count = 0;
+        int r = 0;
+        int a = 0;
+        for (int id : list) {
+            while (r < removed.length && removed[r] < id) {
+                r++;
+            }
+            if (r < removed.length && removed[r] == id) {
+                continue;
+            }
+            for (; a < added.length && added[a] <= id; a++) {
+                if (added[a] < id && (count == 0 || result[count - 1] != added[a])) {
+                    result[count++] = added[a];
+                }
+            }
+            result[count++] = id;
+        }
+        for (; a < added.length; a++) {
+            if (count == 0 || result[count - 1] != added[a]) {
+                result[count++] = added[a];
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+
+        int[] toSortedArray() {
+            int[] sorted = toArray();
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.rqchallenge.employees.cache;
+
+import org.springframework.boot.autoconfigure.condition.AllNestedConditions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+/**
+ * Matches when the snapshot cache is enabled and the blocking stack serves requests. The reactive stack calls the
+ * remote API directly, so it must not spend the upstream call budget on loading and refreshing a snapshot nobody
+ * reads.
+ */
+public class OnSnapshotCacheCondition extends AllNestedConditions {
+
+    OnSnapshotCacheCondition() {
+        super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @ConditionalOnProperty(prefix = "employees.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class CacheEnabled {
+    }
+
+    @ConditionalOnProperty(name = "employees.stack", havingValue = "blocking", matchIfMissing = true)
+    static class BlockingStack {
+    }
+}
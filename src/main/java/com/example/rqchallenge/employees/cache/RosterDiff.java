@@ -0,0 +1,74 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.model.Employee;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * Accumulates an incoming roster against a base snapshot and reduces it to the changes between the two.
+ * <p>
+ * Each record is matched to the base by id and compared by {@link EmployeeColumns#contentHash} first, falling
+ * back to a field comparison only when the hashes agree. Unchanged records are not kept, so memory follows the
+ * number of changes plus one bit per base row. Records without an id cannot be matched and are ignored; when
+ * an id repeats, the last record wins.
+ */
+final class RosterDiff {
+
+    private final EmployeeColumns base;
+    private final BitSet seenRows;
+    private final Map<Integer, Employee> changed = new LinkedHashMap<>();
+
+    private RosterDiff(EmployeeColumns base) {
+        this.base = base;
+        this.seenRows = new BitSet(base.size());
+    }
+
+    static Collector<Employee, ?, EmployeeChangeSet> against(EmployeeSnapshot snapshot) {
+        EmployeeColumns base = snapshot.getColumns();
+        return Collector.of(() -> new RosterDiff(base), RosterDiff::add, RosterDiff::merge, RosterDiff::finish);
+    }
+
+    private void add(Employee employee) {
+        Integer id = employee.getId();
+        if (id == null) {
+            return;
+        }
+        int row = base.rowOf(id);
+        if (row < 0) {
+            changed.put(id, employee);
+            return;
+        }
+        seenRows.set(row);
+        if (base.contentHash(row) == EmployeeColumns.contentHash(employee) && base.sameContent(row, employee)) {
+            changed.remove(id);
+        } else {
+            changed.put(id, employee);
+        }
+    }
+
+    private RosterDiff merge(RosterDiff other) {
+        seenRows.or(other.seenRows);
+        other.changed.forEach((id, employee) -> changed.put(id, employee));
+        return this;
+    }
+
+    private EmployeeChangeSet finish() {
+        List<Employee> created = new ArrayList<>();
+        List<Employee> updated = new ArrayList<>();
+        for (Employee employee : changed.values()) {
+            (base.rowOf(employee.getId()) < 0 ? created : updated).add(employee);
+        }
+        List<Integer> deletedIds = new ArrayList<>();
+        for (int row = seenRows.nextClearBit(0); row < base.size(); row = seenRows.nextClearBit(row + 1)) {
+            if (base.isCurrentRowForId(row)) {
+                deletedIds.add(base.id(row));
+            }
+        }
+        return new EmployeeChangeSet(created, updated, deletedIds);
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.rqchallenge.employees.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Persists the last good snapshot to a local file so a restarted instance can serve reads before the remote
+ * API has been called.
+ * <p>
+ * The file is big-endian binary: a header (magic, format version, snapshot version, creation time, row count),
+ * the five int columns back to back, the name and image dictionaries as length-prefixed UTF-8, and a CRC32 of
+ * everything before it. It is written to a temporary file and atomically moved into place, so readers only
+ * ever see a complete file. On load the file is memory-mapped, checked, and its columns bulk-copied to the heap.
+ * The same encoding, through {@link #write} and {@link #read}, carries snapshots between cluster nodes.
+ * <p>
+ * Persistence is off by default. Enabling it requires {@code employees.cache.persistence.directory}, where the
+ * file is kept as {@value #FILE_NAME}, so a snapshot never lands wherever the process happened to be started.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "employees.cache.persistence", name = "enabled", havingValue = "true")
+public class SnapshotFileStore {
+
+    private static final int MAGIC = 0x454D5053; // "EMPS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 4;
+    private static final int TRAILER_BYTES = 8;
+    static final String FILE_NAME = "employee-snapshot.bin";
+
+    private final Path path;
+    private long savedVersion = -1;
+
+    @Autowired
+    public SnapshotFileStore(@Value("${employees.cache.persistence.directory:}") String directory) {
+        this(Paths.get(requireDirectory(directory)).resolve(FILE_NAME));
+    }
+
+    public SnapshotFileStore(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private static String requireDirectory(String directory) {
+        if (directory == null || directory.trim().isEmpty()) {
+            throw new IllegalStateException("employees.cache.persistence.directory must be set when "
+                    + "employees.cache.persistence.enabled is true");
+        }
+        return directory.trim();
+    }
+
+    /**
+     * Writes {@code snapshot} to the file, unless a snapshot with a higher version has already been written.
+     */
+    public synchronized void save(EmployeeSnapshot snapshot) throws IOException {
+        if (snapshot.getVersion() < savedVersion) {
+            return;
+        }
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileOutputStream file = new FileOutputStream(temp.toFile())) {
+                write(snapshot, new BufferedOutputStream(file, 1 << 16));
+                file.getFD().sync();
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            savedVersion = snapshot.getVersion();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns the persisted snapshot, or empty when there is no file or it is truncated, corrupt or written in
+     * another format version.
+     */
+    public Optional<EmployeeSnapshot> load() {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                log.warn("Ignoring snapshot file {} with unexpected size {}", path, size);
+                return Optional.empty();
+            }
+            return Optional.of(read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size)));
+        } catch (InvalidSnapshotException e) {
+            log.warn("Ignoring snapshot file {}: {}", path, e.getMessage());
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read snapshot file {}: {}", path, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes {@code snapshot} to {@code out} in the file format, checksum included, and flushes it.
+     */
+    public static void write(EmployeeSnapshot snapshot, OutputStream out) throws IOException {
+        CRC32 crc = new CRC32();
+        DataOutputStream data = new DataOutputStream(new CheckedOutputStream(out, crc));
+        writeSnapshot(data, snapshot);
+        data.flush();
+        data.writeLong(crc.getValue());
+        data.flush();
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write} from the remaining bytes of {@code buffer}.
+     *
+     * @throws InvalidSnapshotException if the bytes are truncated, corrupt or in another format version
+     */
+    public static EmployeeSnapshot read(ByteBuffer buffer) throws InvalidSnapshotException {
+        int size = buffer.remaining();
+        if (size < HEADER_BYTES + TRAILER_BYTES) {
+            throw new InvalidSnapshotException("unexpected size " + size);
+        }
+        ByteBuffer bytes = buffer.slice();
+        CRC32 crc = new CRC32();
+        crc.update(bytes.duplicate().limit(size - TRAILER_BYTES));
+        if (crc.getValue() != bytes.getLong(size - TRAILER_BYTES)) {
+            throw new InvalidSnapshotException("bad checksum");
+        }
+        if (bytes.getInt() != MAGIC || bytes.getInt() != FORMAT_VERSION) {
+            throw new InvalidSnapshotException("unknown format");
+        }
+        try {
+            return readSnapshot(bytes);
+        } catch (RuntimeException e) {
+            throw new InvalidSnapshotException(e.toString());
+        }
+    }
+
+    private static void writeSnapshot(DataOutputStream out, EmployeeSnapshot snapshot) throws IOException {
+        EmployeeColumns columns = snapshot.getColumns();
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(snapshot.getVersion());
+        out.writeLong(snapshot.getCreatedAt().toEpochMilli());
+        out.writeInt(columns.size());
+        writeInts(out, columns.idColumn());
+        writeInts(out, columns.salaryColumn());
+        writeInts(out, columns.ageColumn());
+        writeInts(out, columns.nameCodeColumn());
+        writeInts(out, columns.imageCodeColumn());
+        writeDictionary(out, columns.nameDictionary());
+        writeDictionary(out, columns.imageDictionary());
+    }
+
+    private static EmployeeSnapshot readSnapshot(ByteBuffer buffer) {
+        long version = buffer.getLong();
+        Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+        int rows = buffer.getInt();
+        int[] ids = readInts(buffer, rows);
+        int[] salaries = readInts(buffer, rows);
+        int[] ages = readInts(buffer, rows);
+        int[] nameCodes = readInts(buffer, rows);
+        int[] imageCodes = readInts(buffer, rows);
+        StringDictionary names = readDictionary(buffer);
+        StringDictionary images = readDictionary(buffer);
+        EmployeeColumns columns = EmployeeColumns.restore(ids, salaries, ages, nameCodes, imageCodes, names, images);
+        return EmployeeSnapshot.restore(version, createdAt, columns);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static void writeDictionary(DataOutputStream out, StringDictionary dictionary) throws IOException {
+        out.writeInt(dictionary.size());
+        for (int code = 0; code < dictionary.size(); code++) {
+            byte[] bytes = dictionary.get(code).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static StringDictionary readDictionary(ByteBuffer buffer) {
+        String[] values = new String[buffer.getInt()];
+        for (int code = 0; code < values.length; code++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            values[code] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return StringDictionary.of(values);
+    }
+
+    /**
+     * Bytes that do not hold a snapshot in the current format.
+     */
+    public static final class InvalidSnapshotException extends IOException {
+        InvalidSnapshotException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.exception.InvalidRequestException;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeQuery;
+import com.example.rqchallenge.employees.model.EmployeeQuery.SortField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Runs an {@link EmployeeQuery} against a snapshot.
+ * <p>
+ * Salary and age ranges are bounded on the snapshot's sorted indexes by binary search. The query is driven from
+ * the narrowest bounded range, and each of its rows is checked against the other predicates by reading the
+ * columns, which intersects the index results without walking the wider ones: a range query costs O(log n + k)
+ * for k rows in the narrowest range. A query bounded only by a name prefix is driven from the name index, and
+ * an unbounded one scans the rows.
+ * <p>
+ * Matches are ordered on primitive keys, and only the requested page is materialized. Employees without the
+ * sorted value come first in ascending order and last in descending order.
+ */
+public final class SnapshotQuery {
+
+    private SnapshotQuery() {
+    }
+
+    public static List<Employee> run(EmployeeSnapshot snapshot, EmployeeQuery query) {
+        if (query.getOffset() < 0 || query.getLimit() < 0) {
+            throw new InvalidRequestException("offset and limit must not be negative");
+        }
+        EmployeeColumns columns = snapshot.getColumns();
+        Range salaries = Range.of(snapshot.salaryIndex(), query.getMinSalary(), query.getMaxSalary());
+        Range ages = Range.of(snapshot.ageIndex(), query.getMinAge(), query.getMaxAge());
+        String prefix = query.getNamePrefix() == null || query.getNamePrefix().isEmpty() ? null : query.getNamePrefix();
+
+        int[] candidates = candidateRows(snapshot, salaries, ages, prefix);
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int row : candidates) {
+            if (columns.isCurrentRowForId(row)
+                    && salaries.contains(columns.salary(row))
+                    && ages.contains(columns.age(row))
+                    && (prefix == null || hasPrefix(columns.name(row), prefix))) {
+                matches[count++] = row;
+            }
+        }
+
+        int from = Math.min(query.getOffset(), count);
+        int to = (int) Math.min((long) from + query.getLimit(), count);
+        List<Employee> page = new ArrayList<>(to - from);
+        if (query.getSortBy() == SortField.NAME) {
+            Integer[] rows = sortByName(columns, matches, count, query.isDescending());
+            for (int i = from; i < to; i++) {
+                page.add(columns.materialize(rows[i]));
+            }
+        } else {
+            long[] keys = sortKeys(columns, matches, count, query.getSortBy(), query.isDescending());
+            for (int i = from; i < to; i++) {
+                page.add(columns.materialize(columns.rowOf(idOf(keys[i]))));
+            }
+        }
+        return page;
+    }
+
+    private static int[] candidateRows(EmployeeSnapshot snapshot, Range salaries, Range ages, String prefix) {
+        Range narrowest = !salaries.bounded ? ages
+                : !ages.bounded || salaries.size() <= ages.size() ? salaries : ages;
+        if (narrowest.bounded) {
+            int[] rows = new int[narrowest.size()];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = narrowest.index.rowAt(narrowest.from + i);
+            }
+            return rows;
+        }
+        EmployeeColumns columns = snapshot.getColumns();
+        if (prefix != null) {
+            // the name index matches substrings, a superset of the prefix matches that run() narrows down
+            int[] ids = snapshot.nameIndex().search(prefix);
+            int[] rows = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                rows[i] = columns.rowOf(ids[i]);
+            }
+            return rows;
+        }
+        return IntStream.range(0, columns.size()).toArray();
+    }
+
+    // sort value in the high half, id in the low half so equal values fall back to ascending id
+    private static long[] sortKeys(EmployeeColumns columns, int[] rows, int count, SortField field, boolean descending) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            int value = field == SortField.SALARY ? columns.salary(row)
+                    : field == SortField.AGE ? columns.age(row)
+                    : columns.id(row);
+            if (descending) {
+                value = ~value;
+            }
+            keys[i] = ((long) value << 32) | ((columns.id(row) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static int idOf(long key) {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+
+    private static Integer[] sortByName(EmployeeColumns columns, int[] rows, int count, boolean descending) {
+        Comparator<Integer> byName = Comparator.comparing(columns::name, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+        if (descending) {
+            byName = byName.reversed();
+        }
+        Integer[] sorted = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = rows[i];
+        }
+        Arrays.sort(sorted, byName.thenComparingInt(columns::id));
+        return sorted;
+    }
+
+    private static boolean hasPrefix(String name, String prefix) {
+        return name != null && name.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * An inclusive value range and the ranks of an index it covers; unbounded when neither end is given.
+     */
+    private static final class Range {
+        private static final Range UNBOUNDED = new Range(null, false, Integer.MIN_VALUE, Integer.MAX_VALUE, 0, 0);
+
+        final SortedIntIndex index;
+        final boolean bounded;
+        final int min;
+        final int max;
+        final int from;
+        final int to;
+
+        private Range(SortedIntIndex index, boolean bounded, int min, int max, int from, int to) {
+            this.index = index;
+            this.bounded = bounded;
+            this.min = min;
+            this.max = max;
+            this.from = from;
+            this.to = to;
+        }
+
+        static Range of(SortedIntIndex index, Integer min, Integer max) {
+            if (min == null && max == null) {
+                return UNBOUNDED;
+            }
+            int low = min == null ? Integer.MIN_VALUE : min;
+            int high = max == null ? Integer.MAX_VALUE : max;
+            int from = index.lowerBound(low);
+            int to = low > high ? from : index.upperBound(high);
+            return new Range(index, true, low, high, from, to);
+        }
+
+        int size() {
+            return to - from;
+        }
+
+        boolean contains(int value) {
+            return !bounded || (value != EmployeeColumns.ABSENT && value >= min && value <= max);
+        }
+    }
+}
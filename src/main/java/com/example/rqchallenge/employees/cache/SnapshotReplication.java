@@ -0,0 +1,28 @@
+package com.example.rqchallenge.employees.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Lets instances share one upstream roster: the instance that refreshes calls the remote API, and the others take
+ * their snapshot from it.
+ */
+public interface SnapshotReplication {
+
+    /**
+     * Returns whether this instance should load and refresh the snapshot from the remote API itself.
+     */
+    boolean refreshesFromUpstream();
+
+    /**
+     * Returns the snapshot of the instance that refreshes from upstream if it has changed since the last one
+     * returned, or empty when it has not or cannot be reached.
+     */
+    Optional<EmployeeSnapshot> fetchReplica();
+
+    /**
+     * Returns how long a write taken by this instance while it replicates is kept over replicas that do not show it
+     * yet, which they will not until the refreshing instance next refreshes from upstream.
+     */
+    Duration localWriteTimeout();
+}
@@ -0,0 +1,161 @@
+package com.example.rqchallenge.employees.cache;
+
+import java.util.Arrays;
+
+/**
+ * Primitive sorted index over one int column of a snapshot.
+ * <p>
+ * Values are kept in ascending order next to the row each value came from, so the maximum is the last
+ * element and the top N rows are a slice read from the end. Equal values are ordered so that reading from
+ * the end yields the lower row first, matching a stable descending sort. The rows holding values within a
+ * range are the ranks between {@link #lowerBound} and {@link #upperBound}, found by binary search.
+ */
+public final class SortedIntIndex {
+
+    private static final SortedIntIndex EMPTY = new SortedIntIndex(new int[0], new int[0]);
+
+    private final int[] values;
+    private final int[] rows;
+
+    private SortedIntIndex(int[] values, int[] rows) {
+        this.values = values;
+        this.rows = rows;
+    }
+
+    /**
+     * Builds an index over the first {@code length} rows of {@code column}, skipping rows holding {@code absent}.
+     */
+    public static SortedIntIndex build(int[] column, int length, int absent) {
+        long[] keys = new long[length];
+        int count = 0;
+        for (int row = 0; row < length; row++) {
+            if (column[row] != absent) {
+                keys[count++] = key(column[row], row);
+            }
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(keys, 0, count);
+        int[] values = new int[count];
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = (int) (keys[i] >> 32);
+            rows[i] = Integer.MAX_VALUE - (int) keys[i];
+        }
+        return new SortedIntIndex(values, rows);
+    }
+
+    /**
+     * Returns this index updated for a column in which only {@code dirtyRows} (ascending) changed and which now
+     * has {@code length} rows. Entries of clean rows are kept in place and entries for the dirty rows are sorted
+     * and merged in, so the cost is one pass over the index plus sorting the dirty rows.
+     */
+    public SortedIntIndex withChangedRows(int[] column, int length, int absent, int[] dirtyRows) {
+        long[] added = new long[dirtyRows.length];
+        int addedCount = 0;
+        for (int row : dirtyRows) {
+            if (column[row] != absent) {
+                added[addedCount++] = key(column[row], row);
+            }
+        }
+        Arrays.sort(added, 0, addedCount);
+
+        int[] newValues = new int[values.length + addedCount];
+        int[] newRows = new int[newValues.length];
+        int count = 0;
+        int a = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (rows[i] >= length || Arrays.binarySearch(dirtyRows, rows[i]) >= 0) {
+                continue;
+            }
+            long key = key(values[i], rows[i]);
+            for (; a < addedCount && added[a] < key; a++, count++) {
+                newValues[count] = (int) (added[a] >> 32);
+                newRows[count] = Integer.MAX_VALUE - (int) added[a];
+            }
+            newValues[count] = values[i];
+            newRows[count++] = rows[i];
+        }
+        for (; a < addedCount; a++, count++) {
+            newValues[count] = (int) (added[a] >> 32);
+            newRows[count] = Integer.MAX_VALUE - (int) added[a];
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        return count == newValues.length ? new SortedIntIndex(newValues, newRows)
+                : new SortedIntIndex(Arrays.copyOf(newValues, count), Arrays.copyOf(newRows, count));
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public int max() {
+        return values[values.length - 1];
+    }
+
+    public int min() {
+        return values[0];
+    }
+
+    /**
+     * Returns the value at {@code rank} in ascending order, 0 being the minimum.
+     */
+    public int valueAt(int rank) {
+        return values[rank];
+    }
+
+    /**
+     * Returns the row the value at {@code rank} came from.
+     */
+    public int rowAt(int rank) {
+        return rows[rank];
+    }
+
+    /**
+     * Returns the rank of the first value not less than {@code value}, or {@link #size()} when there is none.
+     */
+    public int lowerBound(int value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the rank of the first value greater than {@code value}, or {@link #size()} when there is none.
+     */
+    public int upperBound(int value) {
+        return value == Integer.MAX_VALUE ? values.length : lowerBound(value + 1);
+    }
+
+    /**
+     * Returns the rows holding the {@code n} highest values, highest first.
+     */
+    public int[] topRows(int n) {
+        int count = Math.min(n, rows.length);
+        int[] top = new int[count];
+        for (int i = 0; i < count; i++) {
+            top[i] = rows[rows.length - 1 - i];
+        }
+        return top;
+    }
+
+    // ascending by value, then descending by row
+    private static long key(int value, int row) {
+        return ((long) value << 32) | (Integer.MAX_VALUE - row);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.rqchallenge.employees.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable dictionary of distinct strings addressed by int code, so a column of repeated values stores one
+ * int per row and each distinct value once. Code {@code -1} stands for null.
+ */
+public final class StringDictionary {
+
+    public static final int NULL_CODE = -1;
+
+    private final String[] values;
+
+    private StringDictionary(String[] values) {
+        this.values = values;
+    }
+
+    static StringDictionary of(String[] values) {
+        return new StringDictionary(values);
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public String get(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    /**
+     * Returns a dictionary holding these values followed by {@code added}, coded from {@link #size()} upwards.
+     * Existing values are copied but not rehashed, and {@code added} is not checked against them.
+     */
+    StringDictionary append(List<String> added) {
+        if (added.isEmpty()) {
+            return this;
+        }
+        String[] combined = Arrays.copyOf(values, values.length + added.size());
+        for (int i = 0; i < added.size(); i++) {
+            combined[values.length + i] = added.get(i);
+        }
+        return new StringDictionary(combined);
+    }
+
+    /**
+     * Accumulates distinct values. A builder seeded from an existing dictionary keeps its codes, so columns
+     * encoded against the old dictionary stay valid against the new one.
+     */
+    public static final class Builder {
+        private String[] values;
+        private int size;
+        private final Map<String, Integer> codes;
+
+        public Builder() {
+            values = new String[16];
+            codes = new HashMap<>();
+        }
+
+        public Builder(StringDictionary base) {
+            values = Arrays.copyOf(base.values, Math.max(16, base.values.length + base.values.length / 4));
+            size = base.values.length;
+            codes = new HashMap<>(size * 2);
+            for (int code = 0; code < size; code++) {
+                codes.put(values[code], code);
+            }
+        }
+
+        public int encode(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            codes.put(value, size);
+            return size++;
+        }
+
+        public StringDictionary build() {
+            return new StringDictionary(Arrays.copyOf(values, size));
+        }
+    }
+}
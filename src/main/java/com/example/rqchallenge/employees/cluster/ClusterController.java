@@ -0,0 +1,87 @@
+package com.example.rqchallenge.employees.cluster;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.cache.SnapshotFileStore;
+import com.example.rqchallenge.employees.model.ClusterStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Endpoints cluster members call on each other: a status request that doubles as heartbeat, and the member's
+ * snapshot in the {@link SnapshotFileStore} encoding.
+ */
+@RestController
+@RequestMapping("/cluster")
+@ConditionalOnProperty(prefix = "employees.cluster", name = "enabled", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterMembership membership;
+    private final EmployeeSnapshotCache cache;
+    // the snapshot version last encoded, shared by every member that asks for it
+    private final AtomicReference<EncodedSnapshot> encoded = new AtomicReference<>();
+
+    public ClusterController(ClusterMembership membership, EmployeeSnapshotCache cache) {
+        this.membership = membership;
+        this.cache = cache;
+    }
+
+    @GetMapping("/status")
+    public ClusterStatus status() {
+        EmployeeSnapshot snapshot = cache.peek();
+        return new ClusterStatus(membership.getSelf(), membership.getLeader(), snapshot == null ? null : snapshot.getVersion());
+    }
+
+    /**
+     * Returns this member's snapshot, loading it first if this member leads and has none yet. The ETag names the
+     * snapshot version, so a member already holding it gets 304 Not Modified. A member that does not lead and has
+     * no snapshot answers 503.
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> snapshot(WebRequest request) throws IOException {
+        EmployeeSnapshot snapshot = membership.refreshesFromUpstream() ? cache.get() : cache.peek();
+        if (snapshot == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        // the creation time tells apart equal versions of members that share no history
+        String etag = "\"" + snapshot.getVersion() + "-" + Long.toString(snapshot.getCreatedAt().toEpochMilli(), 36) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(encode(snapshot));
+    }
+
+    private byte[] encode(EmployeeSnapshot snapshot) throws IOException {
+        EncodedSnapshot last = encoded.get();
+        if (last != null && last.version == snapshot.getVersion()) {
+            return last.bytes;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + snapshot.size() * 32);
+        SnapshotFileStore.write(snapshot, out);
+        byte[] bytes = out.toByteArray();
+        encoded.set(new EncodedSnapshot(snapshot.getVersion(), bytes));
+        return bytes;
+    }
+
+    private static final class EncodedSnapshot {
+        final long version;
+        final byte[] bytes;
+
+        EncodedSnapshot(long version, byte[] bytes) {
+            this.version = version;
+            this.bytes = bytes;
+        }
+    }
+}
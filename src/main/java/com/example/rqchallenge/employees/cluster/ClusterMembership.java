@@ -0,0 +1,148 @@
+package com.example.rqchallenge.employees.cluster;
+
+import com.example.rqchallenge.config.ClusterProperties;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cache.SnapshotReplication;
+import com.example.rqchallenge.employees.upstream.ConditionalFetch;
+import com.example.rqchallenge.employees.upstream.UpstreamValidators;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks which cluster members are up and which one refreshes the roster from upstream.
+ * <p>
+ * Every member sends each other member a heartbeat, a status request, at a fixed interval. A member that has not
+ * answered for {@code failureTimeout} is taken as down. The leader is the member with the lowest base URL among
+ * itself and the members up, so every member that sees the same members up picks the same leader without a vote,
+ * and when the leader stops answering the next one takes over within {@code failureTimeout}. Members count as up
+ * until they have had {@code failureTimeout} to answer, so an instance joining a running cluster does not claim the
+ * lead for itself first.
+ * <p>
+ * Members that see the cluster differently for a while, such as across a partition, may each lead their side. That
+ * costs upstream calls, not correctness: each side still takes its roster from upstream through its own leader.
+ * <p>
+ * Only the leader refreshes from upstream. The others take the leader's snapshot through {@link #fetchReplica},
+ * conditionally on the validators of the last one they took, so an unchanged snapshot is not sent again. Writes a
+ * follower takes reach the leader's snapshot only with its next upstream refresh; until then the follower keeps
+ * them over the replicas it takes, for at most {@code localWriteTimeout}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "employees.cluster", name = "enabled", havingValue = "true")
+public class ClusterMembership implements SnapshotReplication {
+
+    private final ClusterProperties properties;
+    private final PeerClient peers;
+    private final LongSupplier nanoClock;
+    private final String self;
+    private final List<String> others;
+    // when each other member last answered a heartbeat
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+    private volatile String leader;
+    // the member the last replica came from, and the validators it came with; guarded by this
+    private String replicaSource;
+    private UpstreamValidators replicaValidators = UpstreamValidators.NONE;
+
+    @Autowired
+    public ClusterMembership(ClusterProperties properties) {
+        this(properties, new PeerClient(properties.getRequestTimeout()), System::nanoTime);
+    }
+
+    public ClusterMembership(ClusterProperties properties, PeerClient peers, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.peers = peers;
+        this.nanoClock = nanoClock;
+        this.self = normalize(properties.getSelfUrl());
+        this.others = properties.getMembers().stream()
+                .map(ClusterMembership::normalize)
+                .filter(member -> !member.equals(self))
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        long now = nanoClock.getAsLong();
+        others.forEach(member -> lastSeen.put(member, now));
+        this.leader = elect(now);
+        log.info("Cluster member {} of {} starting with {} as leader", self, others.size() + 1, leader);
+    }
+
+    @Scheduled(fixedDelayString = "${employees.cluster.heartbeat-interval-ms:1000}")
+    public void heartbeat() {
+        for (String member : others) {
+            try {
+                peers.status(member);
+                lastSeen.put(member, nanoClock.getAsLong());
+            } catch (RestClientException e) {
+                log.debug("Cluster member {} did not answer: {}", member, e.getMessage());
+            }
+        }
+        String elected = elect(nanoClock.getAsLong());
+        if (!elected.equals(leader)) {
+            log.info("Cluster leader changed from {} to {}", leader, elected.equals(self) ? elected + " (this member)" : elected);
+            leader = elected;
+        }
+    }
+
+    @Override
+    public boolean refreshesFromUpstream() {
+        return leader.equals(self);
+    }
+
+    @Override
+    public synchronized Optional<EmployeeSnapshot> fetchReplica() {
+        String source = leader;
+        if (source.equals(self)) {
+            return Optional.empty();
+        }
+        UpstreamValidators known = source.equals(replicaSource) ? replicaValidators : UpstreamValidators.NONE;
+        try {
+            ConditionalFetch<EmployeeSnapshot> fetch = peers.snapshot(source, known);
+            replicaSource = source;
+            replicaValidators = fetch.getValidators();
+            return fetch.isModified() ? Optional.of(fetch.getBody()) : Optional.empty();
+        } catch (RestClientException e) {
+            log.warn("Could not replicate the employee snapshot from {}: {}", source, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Duration localWriteTimeout() {
+        return properties.getLocalWriteTimeout();
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public String getLeader() {
+        return leader;
+    }
+
+    private String elect(long now) {
+        long timeout = properties.getFailureTimeout().toNanos();
+        String elected = self;
+        for (String member : others) {
+            if (now - lastSeen.get(member) < timeout && member.compareTo(elected) < 0) {
+                elected = member;
+            }
+        }
+        return elected;
+    }
+
+    private static String normalize(String url) {
+        String trimmed = url.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+}
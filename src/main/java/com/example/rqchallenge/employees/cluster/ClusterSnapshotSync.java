@@ -0,0 +1,32 @@
+package com.example.rqchallenge.employees.cluster;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps members that do not lead close behind the leader: they check for a new leader snapshot every
+ * {@code employees.cluster.sync-interval-ms}, which costs no upstream calls and only a 304 when nothing changed.
+ * The leader keeps refreshing from upstream on the snapshot cache's own schedule.
+ */
+@Component
+@ConditionalOnProperty(prefix = "employees.cluster", name = "enabled", havingValue = "true")
+public class ClusterSnapshotSync {
+
+    private final ClusterMembership membership;
+    private final EmployeeSnapshotCache cache;
+
+    public ClusterSnapshotSync(ClusterMembership membership, EmployeeSnapshotCache cache) {
+        this.membership = membership;
+        this.cache = cache;
+    }
+
+    @Scheduled(fixedDelayString = "${employees.cluster.sync-interval-ms:5000}",
+            initialDelayString = "${employees.cluster.sync-interval-ms:5000}")
+    public void sync() {
+        if (!membership.refreshesFromUpstream()) {
+            cache.refresh();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rqchallenge.employees.cluster;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cache.SnapshotFileStore;
+import com.example.rqchallenge.employees.model.ClusterStatus;
+import com.example.rqchallenge.employees.upstream.ConditionalFetch;
+import com.example.rqchallenge.employees.upstream.UpstreamValidators;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Calls the {@link ClusterController} endpoints of other members over HTTP. Members run on one box or one network,
+ * so calls use plain short-lived connections with tight timeouts rather than the upstream connection pool.
+ */
+public class PeerClient {
+
+    private final RestTemplate restTemplate;
+
+    public PeerClient(Duration timeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) timeout.toMillis());
+        requestFactory.setReadTimeout((int) timeout.toMillis());
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Returns how {@code member} sees the cluster.
+     *
+     * @throws RestClientException if the member cannot be reached or fails
+     */
+    public ClusterStatus status(String member) {
+        return restTemplate.getForObject(member + "/cluster/status", ClusterStatus.class);
+    }
+
+    /**
+     * Fetches the snapshot of {@code member}, or learns that it still matches {@code validators}.
+     *
+     * @throws RestClientException if the member cannot be reached, has no snapshot, or sends an invalid one
+     */
+    public ConditionalFetch<EmployeeSnapshot> snapshot(String member, UpstreamValidators validators) {
+        return restTemplate.execute(member + "/cluster/snapshot", HttpMethod.GET,
+                request -> {
+                    request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_OCTET_STREAM));
+                    validators.applyTo(request.getHeaders());
+                },
+                response -> {
+                    UpstreamValidators next = UpstreamValidators.from(response.getHeaders());
+                    if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                        return ConditionalFetch.<EmployeeSnapshot>notModified(next.or(validators));
+                    }
+                    byte[] bytes = StreamUtils.copyToByteArray(response.getBody());
+                    return ConditionalFetch.modified(SnapshotFileStore.read(ByteBuffer.wrap(bytes)), next);
+                });
+    }
+}
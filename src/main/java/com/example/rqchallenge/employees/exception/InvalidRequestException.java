@@ -0,0 +1,12 @@
+package com.example.rqchallenge.employees.exception;
+
+/**
+ * A request argument the caller got wrong, such as a negative page size; answered with 400.
+ * <p>
+ * Other {@link IllegalArgumentException}s are bugs in this service, not in the request, and are not turned into 400s.
+ */
+public class InvalidRequestException extends IllegalArgumentException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
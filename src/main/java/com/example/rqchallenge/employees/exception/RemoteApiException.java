@@ -4,4 +4,8 @@ public class RemoteApiException extends RuntimeException {
     public RemoteApiException(String message) {
         super(message);
     }
+
+    public RemoteApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
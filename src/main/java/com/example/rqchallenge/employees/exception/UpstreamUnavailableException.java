@@ -0,0 +1,21 @@
+package com.example.rqchallenge.employees.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown without calling the remote API when the circuit breaker is open or the call budget is exhausted, and
+ * instead of a retry when the remote API asks to be called again later than the scheduler would back off.
+ */
+public class UpstreamUnavailableException extends RemoteApiException {
+
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
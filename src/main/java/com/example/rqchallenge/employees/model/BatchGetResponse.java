@@ -0,0 +1,23 @@
+package com.example.rqchallenge.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a batch lookup: the employees that were found, in request order, plus the ids that were not
+ * found and the ids whose lookup failed with the reason.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetResponse {
+    List<Employee> employees = new ArrayList<>();
+    List<String> notFound = new ArrayList<>();
+    Map<String, String> errors = new LinkedHashMap<>();
+}
@@ -0,0 +1,35 @@
+package com.example.rqchallenge.employees.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk create or delete, at the same {@code index} as the item in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    int index;
+    String id;
+    boolean success;
+    Employee employee;
+    String name;
+    String error;
+
+    public static BulkItemResult created(int index, Employee employee) {
+        String id = employee == null || employee.getId() == null ? null : String.valueOf(employee.getId());
+        return new BulkItemResult(index, id, true, employee, null, null);
+    }
+
+    public static BulkItemResult deleted(int index, String id, String name) {
+        return new BulkItemResult(index, id, true, null, name, null);
+    }
+
+    public static BulkItemResult failed(int index, String id, String error) {
+        return new BulkItemResult(index, id, false, null, null, error);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.rqchallenge.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * How one cluster member sees the cluster: itself, the member it takes as leader, and the version of its
+ * snapshot, which is local to each member. {@code snapshotVersion} is null before its first snapshot.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterStatus {
+    String member;
+    String leader;
+    Long snapshotVersion;
+}
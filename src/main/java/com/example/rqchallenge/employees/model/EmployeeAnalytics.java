@@ -0,0 +1,24 @@
+package com.example.rqchallenge.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregate view of the roster for dashboards: salary statistics and histogram, and an age breakdown,
+ * computed from the snapshot with the given version. Only the span between the first and last non-empty
+ * bucket is listed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeAnalytics {
+    long version;
+    int employeeCount;
+    SalaryStats salary = new SalaryStats();
+    List<HistogramBucket> salaryHistogram = new ArrayList<>();
+    List<HistogramBucket> ageBuckets = new ArrayList<>();
+}
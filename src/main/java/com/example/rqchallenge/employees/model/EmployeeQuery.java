@@ -0,0 +1,32 @@
+package com.example.rqchallenge.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters, order and page for a roster query. Ranges are inclusive and either end may be left open with null;
+ * an employee without the value a range tests never matches it. {@code namePrefix} matches ignoring case.
+ * Results are ordered by {@code sortBy}, ties by ascending id, and sliced by {@code offset} and {@code limit}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeQuery {
+    Integer minSalary;
+    Integer maxSalary;
+    Integer minAge;
+    Integer maxAge;
+    String namePrefix;
+    SortField sortBy = SortField.ID;
+    boolean descending;
+    int offset;
+    int limit = Integer.MAX_VALUE;
+
+    public enum SortField {
+        ID,
+        NAME,
+        SALARY,
+        AGE
+    }
+}
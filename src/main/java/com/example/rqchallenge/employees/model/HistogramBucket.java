@@ -0,0 +1,17 @@
+package com.example.rqchallenge.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of employees whose value falls in the half-open range {@code [from, to)}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramBucket {
+    long from;
+    long to;
+    long count;
+}
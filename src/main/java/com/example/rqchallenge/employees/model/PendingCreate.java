@@ -0,0 +1,30 @@
+package com.example.rqchallenge.employees.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Status of a create accepted for asynchronous processing. {@code employee} carries the provisional id while the
+ * create is queued and the upstream id once it is created; {@code error} says why a failed create was given up.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PendingCreate {
+    String trackingId;
+    Status status;
+    Employee employee;
+    String error;
+    Instant acceptedAt;
+
+    public enum Status {
+        QUEUED,
+        CREATED,
+        FAILED
+    }
+}
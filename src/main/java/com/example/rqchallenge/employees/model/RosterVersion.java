@@ -0,0 +1,28 @@
+package com.example.rqchallenge.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Identifies the data reads are served from: the snapshot version, and when that version was produced.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterVersion {
+    long version;
+    Instant lastModified;
+
+    /**
+     * Returns a strong ETag for a representation built from this version. The creation time tells apart equal
+     * version numbers from snapshots that share no history, e.g. across restarts; {@code variant}, when not null,
+     * tells apart representations of the same version, such as content codings or single employees.
+     */
+    public String etag(String variant) {
+        return "\"" + version + "-" + Long.toString(lastModified.toEpochMilli(), 36)
+                + (variant == null ? "" : "-" + variant) + "\"";
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.rqchallenge.employees.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Salary statistics over the employees that have a salary. Percentiles use the nearest-rank method and are
+ * keyed {@code p10}, {@code p25} and so on; all fields but {@code count} are null for an empty roster.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalaryStats {
+    int count;
+    Integer min;
+    Integer max;
+    Double mean;
+    Double median;
+    Map<String, Integer> percentiles = new LinkedHashMap<>();
+}
@@ -1,24 +1,69 @@
 package com.example.rqchallenge.employees.service;
 
+import com.example.rqchallenge.employees.model.BatchGetResponse;
+import com.example.rqchallenge.employees.model.BulkItemResult;
 import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeAnalytics;
+import com.example.rqchallenge.employees.model.EmployeeQuery;
+import com.example.rqchallenge.employees.model.RosterVersion;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface IEmployeeService {
     List<Employee> getAllEmployees() throws IOException;
 
     List<Employee> searchEmployeesByName(String searchString);
 
+    List<Employee> searchEmployeesByName(String searchString, int offset, int limit);
+
     Optional<Employee> getEmployeeById(String id);
 
+    /**
+     * Returns the employees matching every filter of {@code query}, in its order and page.
+     */
+    List<Employee> queryEmployees(EmployeeQuery query);
+
+    /**
+     * Returns up to {@code limit} employees with an id greater than {@code afterId} (or from the start when it is
+     * null), in ascending id order. The last id returned is the cursor for the next page.
+     */
+    Stream<Employee> streamEmployees(Integer afterId, int limit);
+
+    BatchGetResponse getEmployeesByIds(List<String> ids);
+
     int getHighestSalary();
 
     List<String> getTopTenHighestEarningEmployeeNames();
 
+    List<String> getTopEarningEmployeeNames(int count);
+
+    /**
+     * Returns salary and age aggregates for the whole roster, with salary histogram buckets
+     * {@code salaryBucketWidth} wide.
+     */
+    EmployeeAnalytics getAnalytics(int salaryBucketWidth);
+
+    /**
+     * Returns the version of the data reads are currently served from, or empty when reads are not versioned.
+     * Read it before the data it describes, so a response never carries a newer version than its body.
+     */
+    Optional<RosterVersion> getRosterVersion();
+
+    /**
+     * Returns the version of the data reads are served from when it holds exactly {@code employee}, or empty when the
+     * record came from anywhere else, so a by-id response is only validated against data that actually produced it.
+     */
+    Optional<RosterVersion> getRosterVersionOf(Employee employee);
+
     Employee createEmployee(Map<String, Object> employeeInput);
 
     String deleteEmployeeById(String id);
+
+    List<BulkItemResult> createEmployees(List<Map<String, Object>> employeeInputs);
+
+    List<BulkItemResult> deleteEmployeesByIds(List<String> ids);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.example.rqchallenge.employees.service;
+
+import com.example.rqchallenge.employees.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface IReactiveEmployeeService {
+    Flux<Employee> getAllEmployees();
+
+    Flux<Employee> searchEmployeesByName(String searchString, int offset, int limit);
+
+    Mono<Employee> getEmployeeById(String id);
+
+    Mono<Integer> getHighestSalary();
+
+    Flux<String> getTopEarningEmployeeNames(int count);
+
+    Mono<Employee> createEmployee(Map<String, Object> employeeInput);
+
+    Mono<String> deleteEmployeeById(String id);
+}
@@ -0,0 +1,253 @@
+package com.example.rqchallenge.employees.service.impl;
+
+import com.example.rqchallenge.employees.cache.EmployeeAnalyticsCalculator;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.cache.OnSnapshotCacheCondition;
+import com.example.rqchallenge.employees.exception.InvalidRequestException;
+import com.example.rqchallenge.employees.model.BatchGetResponse;
+import com.example.rqchallenge.employees.model.BulkItemResult;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeAnalytics;
+import com.example.rqchallenge.employees.model.EmployeeQuery;
+import com.example.rqchallenge.employees.model.RosterVersion;
+import com.example.rqchallenge.employees.service.IEmployeeService;
+import com.example.rqchallenge.employees.support.EmployeeMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Serves reads from the cached {@link EmployeeSnapshot} and forwards writes to the remote API,
+ * patching the snapshot with their results.
+ */
+@Primary
+@Service
+@Conditional(OnSnapshotCacheCondition.class)
+public class CachedEmployeeService implements IEmployeeService {
+
+    private final EmployeeServiceImpl remote;
+    private final EmployeeSnapshotCache cache;
+    private final EmployeeMetrics metrics;
+    // analytics for the most recent snapshot version and bucket width asked for
+    private final AtomicReference<AnalyticsMemo> analytics = new AtomicReference<>();
+
+    public CachedEmployeeService(EmployeeServiceImpl remote, EmployeeSnapshotCache cache) {
+        this(remote, cache, EmployeeMetrics.noop());
+    }
+
+    @Autowired
+    public CachedEmployeeService(EmployeeServiceImpl remote, EmployeeSnapshotCache cache, EmployeeMetrics metrics) {
+        this.remote = remote;
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return cache.get().getEmployees();
+    }
+
+    @Override
+    public List<Employee> searchEmployeesByName(String searchString) {
+        return searchEmployeesByName(searchString, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Employee> searchEmployeesByName(String searchString, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new InvalidRequestException("offset and limit must not be negative");
+        }
+        return cache.get().searchByName(searchString, offset, limit);
+    }
+
+    @Override
+    public List<Employee> queryEmployees(EmployeeQuery query) {
+        return cache.get().query(query);
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeById(String id) {
+        Optional<Employee> cached = parseId(id).flatMap(cache.get()::findById);
+        metrics.recordSnapshotLookup(cached.isPresent());
+        if (cached.isPresent()) {
+            return cached;
+        }
+        // an id the snapshot does not hold may have been created since; while the remote API is shedding calls
+        // that is unknown, so the UpstreamUnavailableException goes to the caller rather than a not found
+        return remote.getEmployeeById(id);
+    }
+
+    @Override
+    public Stream<Employee> streamEmployees(Integer afterId, int limit) {
+        if (limit < 0) {
+            throw new InvalidRequestException("limit must not be negative");
+        }
+        return cache.get().employeesAfter(afterId, limit);
+    }
+
+    @Override
+    public BatchGetResponse getEmployeesByIds(List<String> ids) {
+        EmployeeSnapshot snapshot = cache.get();
+        Map<String, Employee> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            Optional<Employee> cached = parseId(id).flatMap(snapshot::findById);
+            metrics.recordSnapshotLookup(cached.isPresent());
+            if (cached.isPresent()) {
+                found.put(id, cached.get());
+            } else {
+                misses.add(id);
+            }
+        }
+
+        BatchGetResponse response = misses.isEmpty() ? new BatchGetResponse() : remote.getEmployeesByIds(misses);
+        for (Employee employee : response.getEmployees()) {
+            found.put(String.valueOf(employee.getId()), employee);
+        }
+        List<Employee> employees = new ArrayList<>(found.size());
+        for (String id : new LinkedHashSet<>(ids)) {
+            Employee employee = found.get(parseId(id).map(String::valueOf).orElse(id));
+            if (employee == null) {
+                employee = found.get(id);
+            }
+            if (employee != null) {
+                employees.add(employee);
+            }
+        }
+        response.setEmployees(employees);
+        return response;
+    }
+
+    @Override
+    public int getHighestSalary() {
+        return cache.get().highestSalary();
+    }
+
+    @Override
+    public List<String> getTopTenHighestEarningEmployeeNames() {
+        return getTopEarningEmployeeNames(10);
+    }
+
+    @Override
+    public List<String> getTopEarningEmployeeNames(int count) {
+        if (count < 0) {
+            throw new InvalidRequestException("count must not be negative: " + count);
+        }
+        return cache.get().topEarners(count).stream()
+                .map(Employee::getName)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public EmployeeAnalytics getAnalytics(int salaryBucketWidth) {
+        if (salaryBucketWidth <= 0) {
+            throw new InvalidRequestException("salary bucket width must be positive: " + salaryBucketWidth);
+        }
+        EmployeeSnapshot snapshot = cache.get();
+        AnalyticsMemo memo = analytics.get();
+        if (memo != null && memo.version == snapshot.getVersion() && memo.salaryBucketWidth == salaryBucketWidth) {
+            return memo.result;
+        }
+        EmployeeAnalytics result = EmployeeAnalyticsCalculator.compute(snapshot, salaryBucketWidth);
+        analytics.set(new AnalyticsMemo(snapshot.getVersion(), salaryBucketWidth, result));
+        return result;
+    }
+
+    @Override
+    public Optional<RosterVersion> getRosterVersion() {
+        EmployeeSnapshot snapshot = cache.get();
+        return Optional.of(new RosterVersion(snapshot.getVersion(), snapshot.getCreatedAt()));
+    }
+
+    @Override
+    public Optional<RosterVersion> getRosterVersionOf(Employee employee) {
+        // a record that missed the snapshot came from the remote API or the lookup cache, and one that changed since
+        // it was read no longer matches; neither may carry this snapshot's validators
+        EmployeeSnapshot snapshot = cache.get();
+        if (employee.getId() == null || !snapshot.findById(employee.getId()).filter(employee::equals).isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(new RosterVersion(snapshot.getVersion(), snapshot.getCreatedAt()));
+    }
+
+    @Override
+    public Employee createEmployee(Map<String, Object> employeeInput) {
+        Employee created = remote.createEmployee(employeeInput);
+        cache.applyCreated(created);
+        return created;
+    }
+
+    @Override
+    public String deleteEmployeeById(String id) {
+        EmployeeSnapshot snapshot = cache.peek();
+        Optional<Employee> cached = snapshot == null ? Optional.empty() : parseId(id).flatMap(snapshot::findById);
+        String name = cached.isPresent()
+                ? remote.deleteKnownEmployee(id, cached.get().getName())
+                : remote.deleteEmployeeById(id);
+        parseId(id).ifPresent(cache::applyDeleted);
+        return name;
+    }
+
+    @Override
+    public List<BulkItemResult> createEmployees(List<Map<String, Object>> employeeInputs) {
+        List<BulkItemResult> results = remote.createEmployees(employeeInputs);
+        List<Employee> created = results.stream()
+                .filter(BulkItemResult::isSuccess)
+                .map(BulkItemResult::getEmployee)
+                .filter(employee -> employee != null && employee.getId() != null)
+                .collect(Collectors.toList());
+        cache.applyChanges(created, Collections.emptyList());
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> deleteEmployeesByIds(List<String> ids) {
+        EmployeeSnapshot snapshot = cache.get();
+        Map<String, String> knownNames = new HashMap<>();
+        for (String id : ids) {
+            parseId(id).flatMap(snapshot::findById).ifPresent(employee -> knownNames.put(id, employee.getName()));
+        }
+
+        List<BulkItemResult> results = remote.deleteEmployeesByIds(ids, knownNames);
+        List<Integer> deleted = results.stream()
+                .filter(BulkItemResult::isSuccess)
+                .map(result -> parseId(result.getId()))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+        cache.applyChanges(Collections.emptyList(), deleted);
+        return results;
+    }
+
+    private static Optional<Integer> parseId(String id) {
+        try {
+            return Optional.of(Integer.parseInt(id));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static final class AnalyticsMemo {
+        final long version;
+        final int salaryBucketWidth;
+        final EmployeeAnalytics result;
+
+        AnalyticsMemo(long version, int salaryBucketWidth, EmployeeAnalytics result) {
+            this.version = version;
+            this.salaryBucketWidth = salaryBucketWidth;
+            this.result = result;
+        }
+    }
+}
@@ -1,47 +1,167 @@
 package com.example.rqchallenge.employees.service.impl;
 
+import com.example.rqchallenge.config.UpstreamProperties;
+import com.example.rqchallenge.employees.cache.EmployeeAnalyticsCalculator;
+import com.example.rqchallenge.employees.cache.EmployeeLookupCache;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.exception.InvalidRequestException;
 import com.example.rqchallenge.employees.exception.RemoteApiException;
 import com.example.rqchallenge.employees.model.ApiResponse;
+import com.example.rqchallenge.employees.model.BatchGetResponse;
+import com.example.rqchallenge.employees.model.BulkItemResult;
 import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeAnalytics;
+import com.example.rqchallenge.employees.model.EmployeeQuery;
+import com.example.rqchallenge.employees.model.RosterVersion;
 import com.example.rqchallenge.employees.service.IEmployeeService;
+import com.example.rqchallenge.employees.support.BoundedFanOut;
+import com.example.rqchallenge.employees.support.EmployeeMetrics;
+import com.example.rqchallenge.employees.support.SingleFlight;
+import com.example.rqchallenge.employees.upstream.ConditionalFetch;
+import com.example.rqchallenge.employees.upstream.RosterJsonReader;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Operation;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import com.example.rqchallenge.employees.upstream.UpstreamValidators;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeeServiceImpl implements IEmployeeService {
 
-    private static final String baseUrl = "https://dummy.restapiexample.com/api/v1";
+    private static final String ALL_EMPLOYEES = "all";
     private final RestTemplate restTemplate;
+    private final UpstreamProperties properties;
+    private final ExecutorService upstreamExecutor;
+    private final UpstreamCallScheduler scheduler;
+    private final EmployeeMetrics metrics;
+    private final EmployeeLookupCache lookups;
+    // concurrent identical reads share one upstream request and its parsed result
+    private final SingleFlight<String, List<Employee>> allEmployeesFlight = new SingleFlight<>();
+    private final SingleFlight<String, Optional<Employee>> employeeByIdFlight = new SingleFlight<>();
+
+    public EmployeeServiceImpl(RestTemplate restTemplate,
+                               UpstreamProperties properties,
+                               ExecutorService upstreamExecutor,
+                               UpstreamCallScheduler scheduler) {
+        this(restTemplate, properties, upstreamExecutor, scheduler, EmployeeMetrics.noop());
+    }
+
+    public EmployeeServiceImpl(RestTemplate restTemplate,
+                               UpstreamProperties properties,
+                               ExecutorService upstreamExecutor,
+                               UpstreamCallScheduler scheduler,
+                               EmployeeMetrics metrics) {
+        this(restTemplate, properties, upstreamExecutor, scheduler, metrics, EmployeeLookupCache.disabled());
+    }
 
     @Autowired
-    public EmployeeServiceImpl(RestTemplate restTemplate) {
+    public EmployeeServiceImpl(RestTemplate restTemplate,
+                               UpstreamProperties properties,
+                               @Qualifier("upstreamExecutor") ExecutorService upstreamExecutor,
+                               UpstreamCallScheduler scheduler,
+                               EmployeeMetrics metrics,
+                               EmployeeLookupCache lookups) {
         this.restTemplate = restTemplate;
+        this.properties = properties;
+        this.upstreamExecutor = upstreamExecutor;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.lookups = lookups;
     }
 
     @Override
     public List<Employee> getAllEmployees() {
+        return getAllEmployees(Priority.INTERACTIVE);
+    }
+
+    /**
+     * Fetches the full roster, drawing on the upstream call budget at the given priority.
+     */
+    public List<Employee> getAllEmployees(Priority priority) {
+        return allEmployeesFlight.execute(ALL_EMPLOYEES, () -> fetchAllEmployees(priority));
+    }
+
+    private List<Employee> fetchAllEmployees(Priority priority) {
         try {
-            ResponseEntity<ApiResponse<List<Employee>>> response = restTemplate.exchange(
-                    baseUrl + "/employees",
+            ResponseEntity<ApiResponse<List<Employee>>> response = scheduler.call(Operation.LIST, priority, () -> restTemplate.exchange(
+                    properties.getBaseUrl() + "/employees",
                     HttpMethod.GET,
                     null,
-                    new ParameterizedTypeReference<>() {
+                    new ParameterizedTypeReference<ApiResponse<List<Employee>>>() {
                     }
-            );
+            ));
+            recordResponseBytes(Operation.LIST, response);
             return response.getBody().getData();
+        } catch (RemoteApiException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RemoteApiException("Failed to retrieve employees from the remote API." + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams the full roster into {@code collector} without buffering the response body or materializing
+     * an intermediate list. Each attempt, including retries, starts from a fresh container.
+     */
+    public <A, R> R collectAllEmployees(Priority priority, Collector<Employee, A, R> collector) {
+        return collectAllEmployees(priority, collector, UpstreamValidators.NONE).getBody();
+    }
+
+    /**
+     * Like {@link #collectAllEmployees(Priority, Collector)}, but sends {@code validators} from an earlier
+     * response as conditional headers. When the upstream answers 304 Not Modified, the body is not read and
+     * the result is not modified; the validators to send next time are returned either way.
+     */
+    public <A, R> ConditionalFetch<R> collectAllEmployees(Priority priority, Collector<Employee, A, R> collector,
+                                                          UpstreamValidators validators) {
+        try {
+            return scheduler.call(Operation.LIST, priority, () -> restTemplate.execute(
+                    properties.getBaseUrl() + "/employees",
+                    HttpMethod.GET,
+                    request -> {
+                        request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+                        validators.applyTo(request.getHeaders());
+                    },
+                    response -> {
+                        UpstreamValidators next = UpstreamValidators.from(response.getHeaders());
+                        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                            return ConditionalFetch.<R>notModified(next.or(validators));
+                        }
+                        CountingInputStream body = new CountingInputStream(response.getBody());
+                        R result = RosterJsonReader.read(body, collector);
+                        metrics.recordResponseBytes(Operation.LIST, body.count);
+                        return ConditionalFetch.modified(result, next);
+                    }
+            ));
+        } catch (RemoteApiException e) {
+            throw e;
         } catch (Exception e) {
             throw new RemoteApiException("Failed to retrieve employees from the remote API." + e.getMessage());
         }
@@ -49,33 +169,88 @@ public class EmployeeServiceImpl implements IEmployeeService {
 
     @Override
     public List<Employee> searchEmployeesByName(String searchString) {
+        return searchEmployeesByName(searchString, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Employee> searchEmployeesByName(String searchString, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new InvalidRequestException("offset and limit must not be negative");
+        }
         try {
             List<Employee> allEmployees = getAllEmployees();
+            String needle = searchString.toLowerCase();
             return allEmployees.stream()
-                    .filter(e -> e.getName().toLowerCase().contains(searchString.toLowerCase()))
+                    .filter(e -> e.getName().toLowerCase().contains(needle))
+                    .skip(offset)
+                    .limit(limit)
                     .collect(Collectors.toList());
         } catch (Exception e) {
             throw new RemoteApiException("Failed to search employees by name from the remote API: " + e.getMessage());
         }
     }
 
+    @Override
+    public List<Employee> queryEmployees(EmployeeQuery query) {
+        return EmployeeSnapshot.of(0, getAllEmployees()).query(query);
+    }
+
     @Override
     public Optional<Employee> getEmployeeById(String id) {
+        return lookups.get(id, priority -> employeeByIdFlight.execute(id, () -> fetchEmployeeById(id, priority)));
+    }
+
+    private Optional<Employee> fetchEmployeeById(String id, Priority priority) {
         try {
-            ResponseEntity<ApiResponse<Employee>> response = restTemplate.exchange(
-                    baseUrl + "/employee/" + id,
+            ResponseEntity<ApiResponse<Employee>> response = scheduler.call(Operation.GET, priority, () -> restTemplate.exchange(
+                    properties.getBaseUrl() + "/employee/" + id,
                     HttpMethod.GET,
                     null,
-                    new ParameterizedTypeReference<>() {
+                    new ParameterizedTypeReference<ApiResponse<Employee>>() {
                     }
-            );
+            ));
+            recordResponseBytes(Operation.GET, response);
             return Optional.ofNullable(response.getBody().getData());
         } catch (HttpClientErrorException e) {
             if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
                 return Optional.empty();
             }
             throw new RemoteApiException("Failed to retrieve employee by ID from the remote API: " + e.getMessage());
+        } catch (HttpStatusCodeException | ResourceAccessException e) {
+            throw new RemoteApiException("Failed to retrieve employee by ID from the remote API: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Stream<Employee> streamEmployees(Integer afterId, int limit) {
+        if (limit < 0) {
+            throw new InvalidRequestException("limit must not be negative");
+        }
+        return getAllEmployees().stream()
+                .filter(e -> e.getId() != null && (afterId == null || e.getId() > afterId))
+                .sorted(Comparator.comparingInt(Employee::getId))
+                .limit(limit);
+    }
+
+    @Override
+    public BatchGetResponse getEmployeesByIds(List<String> ids) {
+        List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<BoundedFanOut.Outcome<Optional<Employee>>> outcomes = BoundedFanOut.map(
+                distinctIds, properties.getBatchParallelism(), upstreamExecutor, this::getEmployeeById);
+
+        BatchGetResponse response = new BatchGetResponse();
+        for (int i = 0; i < distinctIds.size(); i++) {
+            String id = distinctIds.get(i);
+            BoundedFanOut.Outcome<Optional<Employee>> outcome = outcomes.get(i);
+            if (!outcome.isSuccess()) {
+                response.getErrors().put(id, outcome.getError().getMessage());
+            } else if (outcome.getValue().isPresent()) {
+                response.getEmployees().add(outcome.getValue().get());
+            } else {
+                response.getNotFound().add(id);
+            }
         }
+        return response;
     }
 
     @Override
@@ -90,50 +265,172 @@ public class EmployeeServiceImpl implements IEmployeeService {
 
     @Override
     public List<String> getTopTenHighestEarningEmployeeNames() {
+        return getTopEarningEmployeeNames(10);
+    }
+
+    @Override
+    public List<String> getTopEarningEmployeeNames(int count) {
+        if (count < 0) {
+            throw new InvalidRequestException("count must not be negative: " + count);
+        }
         try {
             List<Employee> allEmployees = getAllEmployees();
             return allEmployees.stream()
                     .sorted(Comparator.comparingInt(Employee::getSalary).reversed())
-                    .limit(10)
+                    .limit(count)
                     .map(Employee::getName)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            throw new RemoteApiException("Failed to retrieve the top ten highest-earning employee names from the remote API: " + e.getMessage());
+            throw new RemoteApiException("Failed to retrieve the top highest-earning employee names from the remote API: " + e.getMessage());
         }
     }
 
+    @Override
+    public EmployeeAnalytics getAnalytics(int salaryBucketWidth) {
+        if (salaryBucketWidth <= 0) {
+            throw new InvalidRequestException("salary bucket width must be positive: " + salaryBucketWidth);
+        }
+        return EmployeeAnalyticsCalculator.compute(EmployeeSnapshot.of(0, getAllEmployees()), salaryBucketWidth);
+    }
+
+    @Override
+    public Optional<RosterVersion> getRosterVersion() {
+        // every read goes to the remote API, so there is no version to validate against
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<RosterVersion> getRosterVersionOf(Employee employee) {
+        return Optional.empty();
+    }
+
     @Override
     public Employee createEmployee(Map<String, Object> employeeInput) {
+        return createEmployee(employeeInput, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Creates an employee, drawing on the upstream call budget at {@code priority}.
+     */
+    public Employee createEmployee(Map<String, Object> employeeInput, Priority priority) {
         try {
-            ResponseEntity<ApiResponse<Employee>> response = restTemplate.exchange(
-                    baseUrl + "/create",
+            ResponseEntity<ApiResponse<Employee>> response = scheduler.call(Operation.CREATE, priority, () -> restTemplate.exchange(
+                    properties.getBaseUrl() + "/create",
                     HttpMethod.POST,
                     new HttpEntity<>(employeeInput),
-                    new ParameterizedTypeReference<>() {
+                    new ParameterizedTypeReference<ApiResponse<Employee>>() {
                     }
-            );
-            return response.getBody().getData();
-        } catch (HttpClientErrorException e) {
-            throw new RemoteApiException("Failed to create employee on the remote API: " + e.getMessage());
+            ));
+            recordResponseBytes(Operation.CREATE, response);
+            Employee created = response.getBody().getData();
+            lookups.put(created);
+            return created;
+        } catch (HttpStatusCodeException | ResourceAccessException e) {
+            throw new RemoteApiException("Failed to create employee on the remote API: " + e.getMessage(), e);
         }
     }
 
     //this is difficult because to return the name requires two steps. and the remote api won't allow two calls in a row.
     @Override
     public String deleteEmployeeById(String id) {
+        // Retrieve the employee to get the name before deletion
+        Optional<Employee> employeeOpt = getEmployeeById(id);
+        if (!employeeOpt.isPresent()) {
+            throw new RemoteApiException("Employee not found for ID: " + id);
+        }
+        return deleteKnownEmployee(id, employeeOpt.get().getName());
+    }
+
+    /**
+     * Deletes an employee whose name the caller already knows, skipping the lookup {@link #deleteEmployeeById} needs.
+     */
+    public String deleteKnownEmployee(String id, String employeeName) {
         try {
-            // Retrieve the employee to get the name before deletion
-            Optional<Employee> employeeOpt = getEmployeeById(id);
-            if (!employeeOpt.isPresent()) {
-                throw new RemoteApiException("Employee not found for ID: " + id);
-            }
-            String employeeName = employeeOpt.get().getName();
-            // Perform the delete operation
-            restTemplate.delete(baseUrl + "/delete/" + id);
+            scheduler.run(Operation.DELETE, Priority.INTERACTIVE, () -> restTemplate.delete(properties.getBaseUrl() + "/delete/" + id));
+            lookups.putNotFound(id);
             return employeeName;
-        } catch (HttpClientErrorException e) {
+        } catch (HttpStatusCodeException | ResourceAccessException e) {
             throw new RemoteApiException("Failed to delete employee with ID " + id + " from the remote API: "+e.getMessage());
         }
     }
-}
 
+    @Override
+    public List<BulkItemResult> createEmployees(List<Map<String, Object>> employeeInputs) {
+        List<BoundedFanOut.Outcome<Employee>> outcomes = BoundedFanOut.map(
+                employeeInputs, properties.getWriteConcurrency(), upstreamExecutor, this::createEmployee);
+
+        List<BulkItemResult> results = new ArrayList<>(outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            BoundedFanOut.Outcome<Employee> outcome = outcomes.get(i);
+            results.add(outcome.isSuccess()
+                    ? BulkItemResult.created(i, outcome.getValue())
+                    : BulkItemResult.failed(i, null, outcome.getError().getMessage()));
+        }
+        return results;
+    }
+
+    @Override
+    public List<BulkItemResult> deleteEmployeesByIds(List<String> ids) {
+        return deleteEmployeesByIds(ids, Collections.emptyMap());
+    }
+
+    /**
+     * Deletes the given ids with at most {@code writeConcurrency} deletes in flight.
+     * Ids present in {@code knownNames} are deleted directly; the rest are looked up first to resolve their name.
+     */
+    public List<BulkItemResult> deleteEmployeesByIds(List<String> ids, Map<String, String> knownNames) {
+        List<BoundedFanOut.Outcome<String>> outcomes = BoundedFanOut.map(
+                ids, properties.getWriteConcurrency(), upstreamExecutor,
+                id -> knownNames.containsKey(id) ? deleteKnownEmployee(id, knownNames.get(id)) : deleteEmployeeById(id));
+
+        List<BulkItemResult> results = new ArrayList<>(outcomes.size());
+        for (int i = 0; i < outcomes.size(); i++) {
+            BoundedFanOut.Outcome<String> outcome = outcomes.get(i);
+            results.add(outcome.isSuccess()
+                    ? BulkItemResult.deleted(i, ids.get(i), outcome.getValue())
+                    : BulkItemResult.failed(i, ids.get(i), outcome.getError().getMessage()));
+        }
+        return results;
+    }
+
+    // message converters hide the body stream, so these responses are measured by Content-Length when it is sent
+    private void recordResponseBytes(Operation operation, ResponseEntity<?> response) {
+        long length = response.getHeaders().getContentLength();
+        if (length >= 0) {
+            metrics.recordResponseBytes(operation, length);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.rqchallenge.employees.service.impl;
+
+import com.example.rqchallenge.employees.exception.InvalidRequestException;
+import com.example.rqchallenge.employees.exception.RemoteApiException;
+import com.example.rqchallenge.employees.model.ApiResponse;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.service.IReactiveEmployeeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeServiceImpl}, calling the remote API through {@link WebClient}.
+ * <p>
+ * Every call goes straight to the remote API: this stack has no snapshot cache, and it does not go through
+ * {@link com.example.rqchallenge.employees.upstream.UpstreamCallScheduler}, so there is no rate limiting, retry
+ * or circuit breaker in front of the upstream.
+ */
+@Service
+@ConditionalOnProperty(name = "employees.stack", havingValue = "reactive")
+public class ReactiveEmployeeServiceImpl implements IReactiveEmployeeService {
+
+    private static final ParameterizedTypeReference<ApiResponse<List<Employee>>> EMPLOYEE_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final ParameterizedTypeReference<ApiResponse<Employee>> EMPLOYEE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient employeeWebClient;
+
+    @Autowired
+    public ReactiveEmployeeServiceImpl(WebClient employeeWebClient) {
+        this.employeeWebClient = employeeWebClient;
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        return employeeWebClient.get()
+                .uri("/employees")
+                .retrieve()
+                .bodyToMono(EMPLOYEE_LIST)
+                .flatMapIterable(ApiResponse::getData)
+                .onErrorMap(e -> !(e instanceof RemoteApiException),
+                        e -> new RemoteApiException("Failed to retrieve employees from the remote API." + e.getMessage()));
+    }
+
+    @Override
+    public Flux<Employee> searchEmployeesByName(String searchString, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            return Flux.error(new InvalidRequestException("offset and limit must not be negative"));
+        }
+        String needle = searchString.toLowerCase();
+        return getAllEmployees()
+                .filter(e -> e.getName() != null && e.getName().toLowerCase().contains(needle))
+                .skip(offset)
+                .take(limit);
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(String id) {
+        return employeeWebClient.get()
+                .uri("/employee/{id}", id)
+                .exchangeToMono(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_FOUND) {
+                        return Mono.empty();
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createException().flatMap(Mono::error);
+                    }
+                    return response.bodyToMono(EMPLOYEE).mapNotNull(ApiResponse::getData);
+                })
+                .onErrorMap(e -> !(e instanceof RemoteApiException),
+                        e -> new RemoteApiException("Failed to retrieve employee by ID from the remote API: " + e.getMessage()));
+    }
+
+    @Override
+    public Mono<Integer> getHighestSalary() {
+        return getAllEmployees()
+                .map(Employee::getSalary)
+                .filter(Objects::nonNull)
+                .reduce(Math::max)
+                .defaultIfEmpty(0);
+    }
+
+    @Override
+    public Flux<String> getTopEarningEmployeeNames(int count) {
+        if (count < 0) {
+            return Flux.error(new InvalidRequestException("count must not be negative: " + count));
+        }
+        return getAllEmployees()
+                .filter(e -> e.getSalary() != null)
+                .sort(Comparator.comparingInt(Employee::getSalary).reversed())
+                .take(count)
+                .map(Employee::getName);
+    }
+
+    @Override
+    public Mono<Employee> createEmployee(Map<String, Object> employeeInput) {
+        return employeeWebClient.post()
+                .uri("/create")
+                .bodyValue(employeeInput)
+                .retrieve()
+                .bodyToMono(EMPLOYEE)
+                .mapNotNull(ApiResponse::getData)
+                .onErrorMap(e -> !(e instanceof RemoteApiException),
+                        e -> new RemoteApiException("Failed to create employee on the remote API: " + e.getMessage()));
+    }
+
+    @Override
+    public Mono<String> deleteEmployeeById(String id) {
+        return getEmployeeById(id)
+                .switchIfEmpty(Mono.error(() -> new RemoteApiException("Employee not found for ID: " + id)))
+                .flatMap(employee -> employeeWebClient.delete()
+                        .uri("/delete/{id}", id)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .thenReturn(employee.getName()))
+                .onErrorMap(e -> !(e instanceof RemoteApiException),
+                        e -> new RemoteApiException("Failed to delete employee with ID " + id + " from the remote API: " + e.getMessage()));
+    }
+}
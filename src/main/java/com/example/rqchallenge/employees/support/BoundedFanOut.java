@@ -0,0 +1,82 @@
+package com.example.rqchallenge.employees.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Applies a blocking call to every item with at most {@code parallelism} calls running at once.
+ * <p>
+ * Failures are captured per item instead of failing the whole batch, so callers can report partial results.
+ */
+public final class BoundedFanOut {
+
+    private BoundedFanOut() {
+    }
+
+    public static <T, R> List<Outcome<R>> map(List<T> items, int parallelism, Executor executor, Function<T, R> call) {
+        @SuppressWarnings("unchecked")
+        Outcome<R>[] outcomes = new Outcome[items.size()];
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < outcomes.length; i = next.getAndIncrement()) {
+                try {
+                    outcomes[i] = Outcome.success(call.apply(items.get(i)));
+                } catch (RuntimeException e) {
+                    outcomes[i] = Outcome.failure(e);
+                }
+            }
+        };
+
+        int workers = Math.max(1, Math.min(parallelism, items.size()));
+        CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+        for (int w = 0; w < workers; w++) {
+            running[w] = CompletableFuture.runAsync(worker, executor);
+        }
+        try {
+            CompletableFuture.allOf(running).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+
+        List<Outcome<R>> results = new ArrayList<>(outcomes.length);
+        for (Outcome<R> outcome : outcomes) {
+            results.add(outcome);
+        }
+        return results;
+    }
+
+    public static final class Outcome<R> {
+        private final R value;
+        private final RuntimeException error;
+
+        private Outcome(R value, RuntimeException error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        static <R> Outcome<R> success(R value) {
+            return new Outcome<>(value, null);
+        }
+
+        static <R> Outcome<R> failure(RuntimeException error) {
+            return new Outcome<>(null, error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public R getValue() {
+            return value;
+        }
+
+        public RuntimeException getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.rqchallenge.employees.support;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link CachedPayloadList} bodies as JSON bytes from {@link SerializedPayloadCache}, gzipped when the
+ * response has been given {@code Content-Encoding: gzip}. Spring Boot registers it ahead of the Jackson converter,
+ * which would otherwise serialize the list element by element.
+ */
+@Component
+public class CachedPayloadHttpMessageConverter extends AbstractHttpMessageConverter<CachedPayloadList<?>> {
+
+    private final SerializedPayloadCache payloads;
+
+    public CachedPayloadHttpMessageConverter(SerializedPayloadCache payloads) {
+        super(MediaType.APPLICATION_JSON);
+        this.payloads = payloads;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return CachedPayloadList.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected CachedPayloadList<?> readInternal(Class<? extends CachedPayloadList<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Cached payloads cannot be read", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(CachedPayloadList<?> body, HttpOutputMessage outputMessage) throws IOException {
+        boolean gzip = "gzip".equalsIgnoreCase(outputMessage.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        byte[] bytes = bytes(body, gzip);
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+
+    private byte[] bytes(CachedPayloadList<?> body, boolean gzip) {
+        if (!body.getVersion().isPresent()) {
+            return payloads.serialize(body.elements());
+        }
+        SerializedPayloadCache.Payload payload = payloads.get(body.getName(), body.getVersion().get().getVersion(),
+                body::elements);
+        return gzip ? payload.gzip() : payload.json();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.rqchallenge.employees.support;
+
+import com.example.rqchallenge.employees.model.RosterVersion;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A list response body that {@link CachedPayloadHttpMessageConverter} writes from the JSON cached in
+ * {@link SerializedPayloadCache} for its version, instead of serializing it per request.
+ * <p>
+ * The elements are only built when that version's payload is not cached yet or when the list is read as a list,
+ * so a response served from cached bytes never builds them. A list without a version is serialized afresh.
+ */
+public final class CachedPayloadList<E> extends AbstractList<E> {
+
+    private final String name;
+    private final RosterVersion version;
+    private final Supplier<? extends List<E>> source;
+    private List<E> elements;
+
+    private CachedPayloadList(String name, RosterVersion version, Supplier<? extends List<E>> source) {
+        this.name = name;
+        this.version = version;
+        this.source = source;
+    }
+
+    /**
+     * Returns a list cached under {@code name} for {@code version}, built by {@code source} when needed.
+     */
+    public static <E> CachedPayloadList<E> of(String name, Optional<RosterVersion> version,
+                                              Supplier<? extends List<E>> source) {
+        return new CachedPayloadList<>(name, version.orElse(null), source);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Optional<RosterVersion> getVersion() {
+        return Optional.ofNullable(version);
+    }
+
+    /**
+     * Returns the elements, building them on first use.
+     */
+    public synchronized List<E> elements() {
+        if (elements == null) {
+            elements = source.get();
+        }
+        return elements;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements().get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements().size();
+    }
+}
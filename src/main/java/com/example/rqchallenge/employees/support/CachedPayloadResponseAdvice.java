@@ -0,0 +1,63 @@
+package com.example.rqchallenge.employees.support;
+
+import com.example.rqchallenge.employees.model.RosterVersion;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Optional;
+
+/**
+ * Prepares {@link CachedPayloadList} responses for {@link CachedPayloadHttpMessageConverter}. A versioned list
+ * gets a strong ETag and Last-Modified from its snapshot version, and a request whose {@code If-None-Match} or
+ * {@code If-Modified-Since} still matches is answered with 304 Not Modified before the list is built or
+ * serialized. Otherwise the response is gzipped when the client accepts it.
+ */
+@ControllerAdvice
+public class CachedPayloadResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return CachedPayloadHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        response.getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        Optional<RosterVersion> version = ((CachedPayloadList<?>) body).getVersion();
+        if (!version.isPresent()) {
+            return body;
+        }
+        boolean gzip = acceptsGzip(request.getHeaders());
+        ServletWebRequest webRequest = new ServletWebRequest(((ServletServerHttpRequest) request).getServletRequest(),
+                ((ServletServerHttpResponse) response).getServletResponse());
+        if (webRequest.checkNotModified(version.get().etag(gzip ? "gzip" : null),
+                version.get().getLastModified().toEpochMilli())) {
+            return null;
+        }
+        if (gzip) {
+            response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return body;
+    }
+
+    private static boolean acceptsGzip(HttpHeaders headers) {
+        for (String coding : String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)).split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
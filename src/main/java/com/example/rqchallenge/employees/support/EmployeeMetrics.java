@@ -0,0 +1,232 @@
+package com.example.rqchallenge.employees.support;
+
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Operation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the employee service's own hot paths: upstream calls, upstream retries and rejections, bytes read
+ * from upstream responses, and cache lookups.
+ * <p>
+ * Every meter is registered up front, one per tag combination, and held in arrays indexed by operation and status.
+ * Recording is an array lookup plus a lock-free update of each bound meter. Request latency per endpoint is recorded
+ * by Spring Boot as {@code http.server.requests}; histograms for both are enabled in {@code application.properties}.
+ * <p>
+ * The meters are registered in a composite of this instance's own, and the application's registry is added to it
+ * when Spring Boot binds this {@link MeterBinder}. Components recording here therefore do not depend on the
+ * {@link MeterRegistry}, which Spring Boot only finishes creating after every binder is built.
+ * <ul>
+ *     <li>{@code employees.upstream.requests}: timer per upstream HTTP attempt, tagged {@code operation} and
+ *     {@code status} ({@code 2xx}, {@code 304}, {@code 404}, {@code 429}, {@code 4xx}, {@code 5xx},
+ *     {@code io_error} or {@code error})</li>
+ *     <li>{@code employees.upstream.retries}, {@code employees.upstream.throttled}: attempts retried, and attempts
+ *     answered 429, per operation</li>
+ *     <li>{@code employees.upstream.rejected}: calls failed fast without reaching the upstream, per operation and
+ *     {@code reason} ({@code circuit_open} or {@code budget_exhausted})</li>
+ *     <li>{@code employees.upstream.response.bytes}: response bytes deserialized, per operation</li>
+ *     <li>{@code employees.cache.lookups}: lookups per {@code cache} ({@code snapshot} for employees by id,
+ *     {@code by_id} for upstream lookups by id, {@code payload} for serialized responses) and {@code result}
+ *     ({@code hit} or {@code miss})</li>
+ *     <li>{@code employees.cache.evictions}: entries dropped from the {@code by_id} cache, per {@code cause}
+ *     ({@code size} or {@code expired})</li>
+ *     <li>{@code employees.cache.refreshes}: {@code by_id} entries reloaded in the background before they expired</li>
+ * </ul>
+ */
+@Component
+public class EmployeeMetrics implements MeterBinder {
+
+    static final String[] STATUSES = {"2xx", "304", "404", "429", "4xx", "5xx", "io_error", "error"};
+    private static final int STATUS_IO_ERROR = 6;
+    private static final int STATUS_ERROR = 7;
+
+    private final CompositeMeterRegistry meters = new CompositeMeterRegistry();
+    private final Timer[][] upstreamRequests;
+    private final Counter[] retries;
+    private final Counter[] throttled;
+    private final Counter[] circuitOpen;
+    private final Counter[] budgetExhausted;
+    private final DistributionSummary[] responseBytes;
+    private final Counter snapshotHits;
+    private final Counter snapshotMisses;
+    private final Counter payloadHits;
+    private final Counter payloadMisses;
+    private final Counter byIdHits;
+    private final Counter byIdMisses;
+    private final Counter byIdSizeEvictions;
+    private final Counter byIdExpiries;
+    private final Counter byIdRefreshes;
+
+    @Autowired
+    public EmployeeMetrics() {
+        Operation[] operations = Operation.values();
+        upstreamRequests = new Timer[operations.length][STATUSES.length];
+        retries = new Counter[operations.length];
+        throttled = new Counter[operations.length];
+        circuitOpen = new Counter[operations.length];
+        budgetExhausted = new Counter[operations.length];
+        responseBytes = new DistributionSummary[operations.length];
+        for (Operation operation : operations) {
+            int o = operation.ordinal();
+            String tag = operation.name().toLowerCase(Locale.ROOT);
+            for (int s = 0; s < STATUSES.length; s++) {
+                upstreamRequests[o][s] = Timer.builder("employees.upstream.requests")
+                        .description("Upstream HTTP attempts, including retries")
+                        .tags("operation", tag, "status", STATUSES[s])
+                        .register(meters);
+            }
+            retries[o] = Counter.builder("employees.upstream.retries")
+                    .description("Upstream attempts that failed and were retried")
+                    .tag("operation", tag)
+                    .register(meters);
+            throttled[o] = Counter.builder("employees.upstream.throttled")
+                    .description("Upstream attempts answered 429 Too Many Requests")
+                    .tag("operation", tag)
+                    .register(meters);
+            circuitOpen[o] = rejected(meters, tag, "circuit_open");
+            budgetExhausted[o] = rejected(meters, tag, "budget_exhausted");
+            responseBytes[o] = DistributionSummary.builder("employees.upstream.response.bytes")
+                    .description("Upstream response bytes deserialized")
+                    .baseUnit("bytes")
+                    .tag("operation", tag)
+                    .register(meters);
+        }
+        snapshotHits = lookups(meters, "snapshot", "hit");
+        snapshotMisses = lookups(meters, "snapshot", "miss");
+        payloadHits = lookups(meters, "payload", "hit");
+        payloadMisses = lookups(meters, "payload", "miss");
+        byIdHits = lookups(meters, "by_id", "hit");
+        byIdMisses = lookups(meters, "by_id", "miss");
+        byIdSizeEvictions = evictions(meters, "by_id", "size");
+        byIdExpiries = evictions(meters, "by_id", "expired");
+        byIdRefreshes = Counter.builder("employees.cache.refreshes")
+                .description("Cache entries reloaded in the background before they expired")
+                .tag("cache", "by_id")
+                .register(meters);
+    }
+
+    /**
+     * Creates metrics recording into {@code registry}, for components constructed outside the application context.
+     */
+    public EmployeeMetrics(MeterRegistry registry) {
+        this();
+        bindTo(registry);
+    }
+
+    /**
+     * Returns metrics that record nothing, for components constructed outside the application context.
+     */
+    public static EmployeeMetrics noop() {
+        return new EmployeeMetrics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meters.add(registry);
+    }
+
+    /**
+     * Records one upstream attempt that got an HTTP response with {@code status}.
+     */
+    public void recordUpstreamResponse(Operation operation, int status, long durationNanos) {
+        upstreamRequests[operation.ordinal()][statusIndex(status)].record(durationNanos, TimeUnit.NANOSECONDS);
+        if (status == 429) {
+            throttled[operation.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Records one upstream attempt that failed without an HTTP response, on I/O if {@code io} and otherwise on
+     * any other error.
+     */
+    public void recordUpstreamFailure(Operation operation, boolean io, long durationNanos) {
+        upstreamRequests[operation.ordinal()][io ? STATUS_IO_ERROR : STATUS_ERROR].record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRetry(Operation operation) {
+        retries[operation.ordinal()].increment();
+    }
+
+    /**
+     * Records a call failed fast, because the circuit breaker was open if {@code circuitOpen} and otherwise because
+     * the call budget was exhausted.
+     */
+    public void recordRejected(Operation operation, boolean circuitOpen) {
+        (circuitOpen ? this.circuitOpen : budgetExhausted)[operation.ordinal()].increment();
+    }
+
+    public void recordResponseBytes(Operation operation, long bytes) {
+        responseBytes[operation.ordinal()].record(bytes);
+    }
+
+    public void recordSnapshotLookup(boolean hit) {
+        (hit ? snapshotHits : snapshotMisses).increment();
+    }
+
+    public void recordPayloadLookup(boolean hit) {
+        (hit ? payloadHits : payloadMisses).increment();
+    }
+
+    public void recordByIdLookup(boolean hit) {
+        (hit ? byIdHits : byIdMisses).increment();
+    }
+
+    /**
+     * Records an entry dropped from the by-id cache, on expiry if {@code expired} and otherwise to stay within size.
+     */
+    public void recordByIdEviction(boolean expired) {
+        (expired ? byIdExpiries : byIdSizeEvictions).increment();
+    }
+
+    public void recordByIdRefresh() {
+        byIdRefreshes.increment();
+    }
+
+    static int statusIndex(int status) {
+        switch (status) {
+            case 304:
+                return 1;
+            case 404:
+                return 2;
+            case 429:
+                return 3;
+            default:
+                if (status >= 200 && status < 300) {
+                    return 0;
+                }
+                if (status >= 400 && status < 500) {
+                    return 4;
+                }
+                return status >= 500 && status < 600 ? 5 : STATUS_ERROR;
+        }
+    }
+
+    private static Counter rejected(MeterRegistry registry, String operation, String reason) {
+        return Counter.builder("employees.upstream.rejected")
+                .description("Upstream calls failed fast without being sent")
+                .tags("operation", operation, "reason", reason)
+                .register(registry);
+    }
+
+    private static Counter lookups(MeterRegistry registry, String cache, String result) {
+        return Counter.builder("employees.cache.lookups")
+                .description("Cache lookups by cache and result")
+                .tags("cache", cache, "result", result)
+                .register(registry);
+    }
+
+    private static Counter evictions(MeterRegistry registry, String cache, String cause) {
+        return Counter.builder("employees.cache.evictions")
+                .description("Cache entries evicted by cache and cause")
+                .tags("cache", cache, "cause", cause)
+                .register(registry);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.rqchallenge.employees.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the serialized JSON of named response payloads for the data version they were built from, so repeated
+ * reads of an unchanged version write cached bytes instead of serializing again.
+ * <p>
+ * Each name holds one version at a time; a payload for a newer version replaces it. Concurrent requests for a
+ * version that is not cached yet share one serialization. The gzip variant of a payload is compressed on first
+ * use and kept with it.
+ */
+@Component
+public class SerializedPayloadCache {
+
+    private final ObjectMapper objectMapper;
+    private final EmployeeMetrics metrics;
+    private final ConcurrentMap<String, Payload> payloads = new ConcurrentHashMap<>();
+    private final SingleFlight<String, Payload> serializations = new SingleFlight<>();
+
+    public SerializedPayloadCache(ObjectMapper objectMapper) {
+        this(objectMapper, EmployeeMetrics.noop());
+    }
+
+    @Autowired
+    public SerializedPayloadCache(ObjectMapper objectMapper, EmployeeMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the payload called {@code name} for {@code version}, serializing {@code value} only when that version
+     * is not cached yet.
+     */
+    public Payload get(String name, long version, Supplier<?> value) {
+        Payload cached = payloads.get(name);
+        if (cached != null && cached.version == version) {
+            metrics.recordPayloadLookup(true);
+            return cached;
+        }
+        metrics.recordPayloadLookup(false);
+        return serializations.execute(name + '@' + version, () -> {
+            Payload payload = new Payload(version, serialize(value.get()));
+            payloads.merge(name, payload, (old, fresh) -> old.version > fresh.version ? old : fresh);
+            return payload;
+        });
+    }
+
+    /**
+     * Serializes {@code value} to JSON bytes without caching them.
+     */
+    public byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Serialized JSON for one version of a payload, with its gzip variant built on demand.
+     */
+    public static final class Payload {
+        private final long version;
+        private final byte[] json;
+        private volatile byte[] gzip;
+
+        Payload(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        public byte[] gzip() {
+            byte[] compressed = gzip;
+            if (compressed == null) {
+                compressed = compress(json);
+                gzip = compressed;
+            }
+            return compressed;
+        }
+
+        private static byte[] compress(byte[] bytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out, 1 << 16)) {
+                gzip.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.rqchallenge.employees.upstream;
+
+/**
+ * Outcome of a conditional upstream request: either a freshly read body, or a 304 Not Modified meaning the
+ * caller's copy is still current. Carries the validators to send on the next request either way.
+ */
+public final class ConditionalFetch<T> {
+
+    private final boolean modified;
+    private final T body;
+    private final UpstreamValidators validators;
+
+    private ConditionalFetch(boolean modified, T body, UpstreamValidators validators) {
+        this.modified = modified;
+        this.body = body;
+        this.validators = validators;
+    }
+
+    public static <T> ConditionalFetch<T> modified(T body, UpstreamValidators validators) {
+        return new ConditionalFetch<>(true, body, validators);
+    }
+
+    public static <T> ConditionalFetch<T> notModified(UpstreamValidators validators) {
+        return new ConditionalFetch<>(false, null, validators);
+    }
+
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * Returns the body read from the upstream, or null when it was not modified.
+     */
+    public T getBody() {
+        return body;
+    }
+
+    public UpstreamValidators getValidators() {
+        return validators;
+    }
+}
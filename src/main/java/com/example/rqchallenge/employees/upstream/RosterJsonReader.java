@@ -0,0 +1,116 @@
+package com.example.rqchallenge.employees.upstream;
+
+import com.example.rqchallenge.employees.model.Employee;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Streaming reader for the remote API's {@code {"status": ..., "data": [...]}} roster envelope.
+ * <p>
+ * The {@code data} array is read token by token and each record is handed to a {@link Collector} as soon
+ * as it is complete, so neither the response body nor an intermediate list of the whole roster is held in
+ * memory. Numeric fields sent as strings are coerced; unknown fields are skipped.
+ * <p>
+ * A body without a {@code data} array, or whose array holds anything but employee objects, is rejected rather
+ * than read as a shorter roster, which a refresh would take as employees deleted.
+ */
+public final class RosterJsonReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private RosterJsonReader() {
+    }
+
+    public static <A, R> R read(InputStream body, Collector<Employee, A, R> collector) throws IOException {
+        A container = collector.supplier().get();
+        BiConsumer<A, Employee> accumulator = collector.accumulator();
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object at the start of the roster");
+            }
+            boolean data = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field)) {
+                    if (value != JsonToken.START_ARRAY) {
+                        throw new JsonParseException(parser, "Expected the roster's data to be an array, got " + value);
+                    }
+                    readEmployees(parser, container, accumulator);
+                    data = true;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!data) {
+                throw new JsonParseException(parser, "The roster has no data array");
+            }
+        }
+        return collector.finisher().apply(container);
+    }
+
+    private static <A> void readEmployees(JsonParser parser, A container, BiConsumer<A, Employee> accumulator)
+            throws IOException {
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an employee object in the roster, got " + token);
+            }
+            accumulator.accept(container, readEmployee(parser));
+        }
+    }
+
+    private static Employee readEmployee(JsonParser parser) throws IOException {
+        Employee employee = new Employee();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "id":
+                    employee.setId(intValue(parser));
+                    break;
+                case "employee_name":
+                    employee.setName(parser.getValueAsString());
+                    break;
+                case "employee_salary":
+                    employee.setSalary(intValue(parser));
+                    break;
+                case "employee_age":
+                    employee.setAge(intValue(parser));
+                    break;
+                case "profile_image":
+                    employee.setProfileImage(parser.getValueAsString());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return employee;
+    }
+
+    private static Integer intValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            try {
+                return text.isEmpty() ? null : Integer.valueOf(text);
+            } catch (NumberFormatException e) {
+                throw new JsonParseException(parser, "Not an integer: " + text);
+            }
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return (int) parser.getDoubleValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
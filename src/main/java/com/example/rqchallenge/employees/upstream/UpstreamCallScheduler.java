@@ -0,0 +1,307 @@
+package com.example.rqchallenge.employees.upstream;
+
+import com.example.rqchallenge.config.UpstreamProperties;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.support.EmployeeMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Gatekeeper for every call to the remote employee API.
+ * <p>
+ * Calls draw from a token bucket sized to the upstream quota. Background work such as snapshot refreshes may
+ * only use the part of the bucket above {@code backgroundReserve}, so interactive reads keep their budget.
+ * Calls failing with 429, 5xx or an I/O error are retried with jittered exponential backoff, honouring
+ * {@code Retry-After} as the shortest wait, as long as sending them again is safe: a create, which the upstream cannot deduplicate, is
+ * only retried on 429 or when the connection was never made, since after a 5xx or a read timeout the upstream may
+ * already have created the employee. Repeated failures open a circuit breaker; while it is open, calls fail fast
+ * with {@link UpstreamUnavailableException} until a single trial call succeeds. A {@code Retry-After} longer than
+ * {@code maxBackoff} is not waited out: the call fails with {@link UpstreamUnavailableException} carrying it.
+ * <p>
+ * Every attempt's latency and status, every retry and every call failed fast are recorded in
+ * {@link EmployeeMetrics} under the call's {@link Operation}.
+ */
+@Slf4j
+@Component
+public class UpstreamCallScheduler {
+
+    public enum Priority {
+        INTERACTIVE,
+        BACKGROUND
+    }
+
+    /**
+     * What a call does upstream, for metrics and to decide whether a failed call may be sent again.
+     */
+    public enum Operation {
+        LIST(true),
+        GET(true),
+        CREATE(false),
+        DELETE(true);
+
+        private final boolean idempotent;
+
+        Operation(boolean idempotent) {
+            this.idempotent = idempotent;
+        }
+
+        public boolean isIdempotent() {
+            return idempotent;
+        }
+    }
+
+    private enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final UpstreamProperties properties;
+    private final EmployeeMetrics metrics;
+    private final double tokensPerNano;
+    private final double backgroundFloor;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    private CircuitState circuitState = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+
+    public UpstreamCallScheduler(UpstreamProperties properties) {
+        this(properties, EmployeeMetrics.noop());
+    }
+
+    @Autowired
+    public UpstreamCallScheduler(UpstreamProperties properties, EmployeeMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.tokensPerNano = properties.getRequestsPerSecond() / (double) TimeUnit.SECONDS.toNanos(1);
+        this.backgroundFloor = properties.getBurst() * properties.getBackgroundReserve();
+        this.tokens = properties.getBurst();
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    public <T> T call(Operation operation, Priority priority, Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            boolean trial = beforeCall(operation);
+            try {
+                acquire(operation, priority);
+            } catch (RuntimeException e) {
+                if (trial) {
+                    abandonTrial();
+                }
+                throw e;
+            }
+            long start = System.nanoTime();
+            try {
+                T result = call.get();
+                metrics.recordUpstreamResponse(operation, statusOf(result), System.nanoTime() - start);
+                onResponse();
+                return result;
+            } catch (RuntimeException e) {
+                recordFailure(operation, e, System.nanoTime() - start);
+                if (!isUpstreamFailure(e)) {
+                    onResponse();
+                    throw e;
+                }
+                onFailure();
+                if (attempt >= properties.getMaxAttempts() || !isSafeToRetry(operation, e)) {
+                    throw e;
+                }
+                long retryAfterNanos = retryAfterNanos(e);
+                if (retryAfterNanos > properties.getMaxBackoff().toNanos()) {
+                    // the upstream will not take the call again within our backoff, so let the caller wait instead
+                    throw new UpstreamUnavailableException("The remote API asked to retry after "
+                            + TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos) + " s", Duration.ofNanos(retryAfterNanos));
+                }
+                metrics.recordRetry(operation);
+                long backoffNanos = backoffNanos(attempt, retryAfterNanos);
+                log.debug("Upstream call failed ({}), retrying in {} ms", e.getMessage(), TimeUnit.NANOSECONDS.toMillis(backoffNanos));
+                sleep(backoffNanos);
+            }
+        }
+    }
+
+    public void run(Operation operation, Priority priority, Runnable call) {
+        call(operation, priority, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public synchronized boolean isCircuitOpen() {
+        return circuitState == CircuitState.OPEN && System.nanoTime() < openUntilNanos;
+    }
+
+    // returns whether this call is the trial call of a half-open circuit
+    private synchronized boolean beforeCall(Operation operation) {
+        if (circuitState == CircuitState.CLOSED) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (circuitState == CircuitState.OPEN && now >= openUntilNanos) {
+            circuitState = CircuitState.HALF_OPEN;
+            return true;
+        }
+        Duration retryAfter = Duration.ofNanos(Math.max(0, openUntilNanos - now));
+        metrics.recordRejected(operation, true);
+        throw new UpstreamUnavailableException("The remote API is unavailable; circuit breaker is open", retryAfter);
+    }
+
+    // a trial call that never reached the upstream proved nothing; open the circuit again so a later call can try
+    private synchronized void abandonTrial() {
+        if (circuitState == CircuitState.HALF_OPEN) {
+            circuitState = CircuitState.OPEN;
+            openUntilNanos = System.nanoTime() + properties.getCircuitOpenDuration().toNanos();
+        }
+    }
+
+    private synchronized void onResponse() {
+        if (circuitState != CircuitState.CLOSED) {
+            log.info("Upstream circuit breaker closed");
+        }
+        circuitState = CircuitState.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    private synchronized void onFailure() {
+        consecutiveFailures++;
+        if (circuitState == CircuitState.HALF_OPEN || consecutiveFailures >= properties.getCircuitFailureThreshold()) {
+            if (circuitState != CircuitState.OPEN) {
+                log.warn("Upstream circuit breaker opened after {} consecutive failures", consecutiveFailures);
+            }
+            circuitState = CircuitState.OPEN;
+            openUntilNanos = System.nanoTime() + properties.getCircuitOpenDuration().toNanos();
+        }
+    }
+
+    private void acquire(Operation operation, Priority priority) {
+        double floor = priority == Priority.BACKGROUND ? backgroundFloor : 0;
+        long deadline = System.nanoTime() + properties.getAcquireTimeout().toNanos();
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens - 1 >= floor) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((floor + 1 - tokens) / tokensPerNano);
+            }
+            long remaining = deadline - System.nanoTime();
+            if (waitNanos > remaining) {
+                metrics.recordRejected(operation, false);
+                throw new UpstreamUnavailableException("The remote API call budget is exhausted", Duration.ofNanos(waitNanos));
+            }
+            sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(properties.getBurst(), tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+
+    // Retry-After is a floor: the jittered backoff may wait longer, never shorter
+    private long backoffNanos(int attempt, long retryAfterNanos) {
+        long max = properties.getMaxBackoff().toNanos();
+        long ceiling = Math.min(max, properties.getInitialBackoff().toNanos() << Math.min(attempt - 1, 20));
+        long backoff = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        return Math.max(backoff, retryAfterNanos);
+    }
+
+    private static long retryAfterNanos(RuntimeException e) {
+        if (!(e instanceof HttpStatusCodeException)) {
+            return 0;
+        }
+        HttpHeaders headers = ((HttpStatusCodeException) e).getResponseHeaders();
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        try {
+            return retryAfter == null ? 0 : TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException ignored) {
+            return 0;
+        }
+    }
+
+    private void recordFailure(Operation operation, RuntimeException e, long durationNanos) {
+        if (e instanceof HttpStatusCodeException) {
+            metrics.recordUpstreamResponse(operation, ((HttpStatusCodeException) e).getRawStatusCode(), durationNanos);
+        } else {
+            metrics.recordUpstreamFailure(operation, e instanceof ResourceAccessException, durationNanos);
+        }
+    }
+
+    // calls that return without throwing got a 2xx, or a 304 their response extractor turned into a result
+    private static int statusOf(Object result) {
+        if (result instanceof ResponseEntity) {
+            return ((ResponseEntity<?>) result).getStatusCodeValue();
+        }
+        if (result instanceof ConditionalFetch && !((ConditionalFetch<?>) result).isModified()) {
+            return HttpStatus.NOT_MODIFIED.value();
+        }
+        return HttpStatus.OK.value();
+    }
+
+    // failures that count against the circuit breaker and that a retry may get past
+    private static boolean isUpstreamFailure(RuntimeException e) {
+        if (e instanceof ResourceAccessException) {
+            return true;
+        }
+        if (e instanceof HttpStatusCodeException) {
+            HttpStatus status = ((HttpStatusCodeException) e).getStatusCode();
+            return status == HttpStatus.TOO_MANY_REQUESTS || status.is5xxServerError();
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether a call of {@code operation} that failed with {@code e} can be sent again without risking the
+     * operation being applied twice upstream: always for idempotent operations, and otherwise only when the upstream
+     * turned the request away with 429 or the request never left this service.
+     */
+    public static boolean isSafeToRetry(Operation operation, Throwable e) {
+        if (operation.isIdempotent()) {
+            return true;
+        }
+        if (e instanceof HttpStatusCodeException) {
+            return ((HttpStatusCodeException) e).getRawStatusCode() == HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return e instanceof ResourceAccessException && neverSent(e);
+    }
+
+    // connection refused, connect timeout, no pooled connection or unknown host: the request was never written
+    private static boolean neverSent(Throwable e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException
+                    || cause instanceof NoRouteToHostException || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long nanos) {
+        LockSupport.parkNanos(nanos);
+        if (Thread.currentThread().isInterrupted()) {
+            throw new UpstreamUnavailableException("Interrupted while waiting to call the remote API", Duration.ZERO);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.rqchallenge.employees.upstream;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * The {@code ETag} and {@code Last-Modified} values an upstream response carried, sent back as
+ * {@code If-None-Match} and {@code If-Modified-Since} on the next request for the same resource so the upstream
+ * can answer 304 Not Modified. Either value may be missing when the upstream does not support it.
+ */
+public final class UpstreamValidators {
+
+    public static final UpstreamValidators NONE = new UpstreamValidators(null, null);
+
+    private final String etag;
+    private final String lastModified;
+
+    public UpstreamValidators(String etag, String lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    public static UpstreamValidators from(HttpHeaders headers) {
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        return etag == null && lastModified == null ? NONE : new UpstreamValidators(etag, lastModified);
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public boolean isEmpty() {
+        return etag == null && lastModified == null;
+    }
+
+    /**
+     * Returns these validators, taking any value missing here from {@code fallback}. A 304 response need not
+     * repeat every validator of the response it confirms.
+     */
+    public UpstreamValidators or(UpstreamValidators fallback) {
+        return new UpstreamValidators(etag != null ? etag : fallback.etag,
+                lastModified != null ? lastModified : fallback.lastModified);
+    }
+
+    /**
+     * Adds the conditional request headers for these validators to {@code headers}.
+     */
+    public void applyTo(HttpHeaders headers) {
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        if (lastModified != null) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+}
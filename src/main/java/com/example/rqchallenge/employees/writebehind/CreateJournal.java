@@ -0,0 +1,138 @@
+package com.example.rqchallenge.employees.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable, append-only log of creates accepted for write-behind and of their outcomes.
+ * <p>
+ * Each record is one line of JSON. An append is forced to disk before it returns, so a create acknowledged after
+ * its record was appended survives a crash; several records appended together share one write and one force. On
+ * {@link #open} the journal is read back and a torn last line left by an interrupted append is cut off before
+ * anything else is appended. {@link #rewrite} replaces the journal with only the records still needed, through a
+ * temporary file moved into place; if the move fails, the journal stays as it was and open for appending.
+ */
+@Slf4j
+public class CreateJournal implements Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path path;
+    private FileChannel channel;
+    private int records;
+
+    public CreateJournal(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Reads every complete record and opens the journal for appending after the last one.
+     */
+    public synchronized List<JournalRecord> open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        List<JournalRecord> read = new ArrayList<>();
+        long end = 0;
+        if (Files.isRegularFile(path)) {
+            byte[] bytes = Files.readAllBytes(path);
+            int start = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+                try {
+                    read.add(MAPPER.readValue(bytes, start, i - start, JournalRecord.class));
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable record at byte {} of {}: {}", start, path, e.getMessage());
+                }
+                start = i + 1;
+            }
+            end = start;
+            if (end < bytes.length) {
+                log.warn("Discarding an incomplete record of {} bytes at the end of {}", bytes.length - end, path);
+            }
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(end);
+        channel.position(end);
+        records = read.size();
+        return read;
+    }
+
+    /**
+     * Appends {@code batch} and forces it to disk.
+     */
+    public synchronized void append(List<JournalRecord> batch) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(encode(batch));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        records += batch.size();
+    }
+
+    /**
+     * Replaces the journal with {@code live}.
+     */
+    public synchronized void rewrite(List<JournalRecord> live) throws IOException {
+        Path temp = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(encode(live));
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(false);
+            }
+            // not every platform can replace a file held open; reopened whether or not the move succeeds, so later
+            // appends go to whichever journal is in place
+            channel.close();
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                records = live.size();
+            } finally {
+                channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Returns the number of records in the journal.
+     */
+    public synchronized int size() {
+        return records;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private static byte[] encode(List<JournalRecord> batch) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * batch.size());
+        for (JournalRecord record : batch) {
+            out.write(MAPPER.writeValueAsBytes(record));
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+}
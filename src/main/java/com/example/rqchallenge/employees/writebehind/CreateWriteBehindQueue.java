@@ -0,0 +1,309 @@
+package com.example.rqchallenge.employees.writebehind;
+
+import com.example.rqchallenge.config.WriteBehindProperties;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.PendingCreate;
+import com.example.rqchallenge.employees.service.impl.EmployeeServiceImpl;
+import com.example.rqchallenge.employees.support.BoundedFanOut;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Operation;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind for employee creates.
+ * <p>
+ * {@link #submit} adds the new employee to the snapshot under a provisional negative id, so reads, searches and
+ * queries see it at once, appends the create to the {@link CreateJournal}, and returns without calling the remote
+ * API. A scheduled drain sends queued creates upstream in batches, oldest first, at background priority: they
+ * yield the call budget to interactive requests, and a create turned away because the budget is exhausted or the
+ * circuit is open stays queued for the next drain. The outcomes of a batch are journaled with one forced write and
+ * applied to the snapshot as one version that replaces provisional ids with the ids the upstream assigned. A create
+ * that keeps failing is given up after {@code maxAttempts} drains and removed from the snapshot. A create that
+ * failed after it may have reached the upstream, on a 5xx or a read timeout, is given up at once rather than sent
+ * again, so it cannot be created twice; if the upstream did create it, the next snapshot refresh brings it back.
+ * <p>
+ * Queued creates are recovered from the journal at startup. Delivery is at least once: a crash after the upstream
+ * accepted a create but before its outcome was journaled sends it again, as the remote API offers no idempotency
+ * key to deduplicate it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "employees.write-behind", name = "enabled", havingValue = "true")
+public class CreateWriteBehindQueue {
+
+    private final EmployeeServiceImpl remote;
+    private final EmployeeSnapshotCache cache;
+    private final CreateJournal journal;
+    private final WriteBehindProperties properties;
+    private final ExecutorService upstreamExecutor;
+    private final AtomicInteger provisionalIds = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // creates not yet finished in acceptance order, and finished ones kept for status lookups; both guarded by this
+    private final Map<String, Queued> queued = new LinkedHashMap<>();
+    private final Map<String, PendingCreate> finished;
+
+    @Autowired
+    public CreateWriteBehindQueue(EmployeeServiceImpl remote, EmployeeSnapshotCache cache, WriteBehindProperties properties,
+                                  @Qualifier("upstreamExecutor") ExecutorService upstreamExecutor) {
+        this(remote, cache, new CreateJournal(Paths.get(requireJournalPath(properties))), properties, upstreamExecutor);
+    }
+
+    public CreateWriteBehindQueue(EmployeeServiceImpl remote, EmployeeSnapshotCache cache, CreateJournal journal,
+                                  WriteBehindProperties properties, ExecutorService upstreamExecutor) {
+        this.remote = remote;
+        this.cache = cache;
+        this.journal = journal;
+        this.properties = properties;
+        this.upstreamExecutor = upstreamExecutor;
+        int retained = properties.getRetainedStatuses();
+        this.finished = new LinkedHashMap<String, PendingCreate>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PendingCreate> eldest) {
+                return size() > retained;
+            }
+        };
+    }
+
+    private static String requireJournalPath(WriteBehindProperties properties) {
+        String path = properties.getJournalPath();
+        if (path == null || path.trim().isEmpty()) {
+            throw new IllegalStateException("employees.write-behind.journal-path must be set when "
+                    + "employees.write-behind.enabled is true");
+        }
+        return path.trim();
+    }
+
+    /**
+     * Reads the journal back, queuing again every create without an outcome and adding it to the snapshot.
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        List<JournalRecord> records = journal.open();
+        List<Employee> recovered = new ArrayList<>();
+        synchronized (this) {
+            for (JournalRecord record : records) {
+                provisionalIds.accumulateAndGet(record.getProvisionalId(), Math::min);
+                if (record.getType() == JournalRecord.Type.ACCEPTED) {
+                    queued.put(record.getTrackingId(), new Queued(record));
+                } else {
+                    Queued accepted = queued.remove(record.getTrackingId());
+                    finished.put(record.getTrackingId(), finishedStatus(record, accepted));
+                }
+            }
+            queued.values().forEach(entry -> recovered.add(entry.employee));
+        }
+        if (!recovered.isEmpty()) {
+            cache.applyProvisional(recovered);
+            log.info("Recovered {} queued employee creates from {}", recovered.size(), journal.getPath());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * Accepts a create for asynchronous processing once it is journaled, and returns its status.
+     */
+    public PendingCreate submit(Map<String, Object> employeeInput) {
+        JournalRecord record = JournalRecord.accepted(UUID.randomUUID().toString(), provisionalIds.decrementAndGet(), employeeInput);
+        Queued entry = new Queued(record);
+        // visible before it is durable, but only acknowledged after
+        cache.applyProvisional(Collections.singletonList(entry.employee));
+        try {
+            synchronized (this) {
+                journal.append(Collections.singletonList(record));
+                queued.put(record.getTrackingId(), entry);
+            }
+        } catch (IOException e) {
+            cache.discardProvisional(Collections.singletonList(record.getProvisionalId()));
+            throw new UncheckedIOException("Could not journal the employee create", e);
+        }
+        return entry.status();
+    }
+
+    /**
+     * Returns the status of the create accepted under {@code trackingId}, if it is queued or recently finished.
+     */
+    public synchronized Optional<PendingCreate> status(String trackingId) {
+        Queued entry = queued.get(trackingId);
+        return entry != null ? Optional.of(entry.status()) : Optional.ofNullable(finished.get(trackingId));
+    }
+
+    public synchronized int queuedCount() {
+        return queued.size();
+    }
+
+    /**
+     * Sends the oldest queued creates upstream, up to {@code batchSize}, and applies their outcomes.
+     */
+    @Scheduled(fixedDelayString = "${employees.write-behind.drain-interval-ms:1000}",
+            initialDelayString = "${employees.write-behind.drain-interval-ms:1000}")
+    public void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Queued> batch = new ArrayList<>();
+            synchronized (this) {
+                for (Queued entry : queued.values()) {
+                    if (batch.size() == properties.getBatchSize()) {
+                        break;
+                    }
+                    batch.add(entry);
+                }
+            }
+            if (!batch.isEmpty()) {
+                send(batch);
+            }
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void send(List<Queued> batch) {
+        List<BoundedFanOut.Outcome<Employee>> outcomes = BoundedFanOut.map(batch, properties.getConcurrency(), upstreamExecutor,
+                entry -> remote.createEmployee(entry.record.getInput(), Priority.BACKGROUND));
+
+        List<JournalRecord> results = new ArrayList<>();
+        Map<Integer, Employee> created = new LinkedHashMap<>();
+        List<Integer> givenUp = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Queued entry = batch.get(i);
+            BoundedFanOut.Outcome<Employee> outcome = outcomes.get(i);
+            if (outcome.isSuccess()) {
+                results.add(JournalRecord.created(entry.record.getTrackingId(), entry.record.getProvisionalId(), outcome.getValue()));
+                created.put(entry.record.getProvisionalId(), outcome.getValue());
+            } else if (outcome.getError() instanceof UpstreamUnavailableException) {
+                // turned away before reaching the upstream; not an attempt
+                log.debug("Employee create {} deferred: {}", entry.record.getTrackingId(), outcome.getError().getMessage());
+            } else if (mayHaveBeenApplied(outcome.getError())) {
+                log.warn("Giving up employee create {}, which may have reached the upstream: {}", entry.record.getTrackingId(),
+                        outcome.getError().getMessage());
+                results.add(JournalRecord.failed(entry.record.getTrackingId(), entry.record.getProvisionalId(),
+                        "Outcome unknown, not sent again: " + outcome.getError().getMessage()));
+                givenUp.add(entry.record.getProvisionalId());
+            } else if (++entry.attempts >= properties.getMaxAttempts()) {
+                log.warn("Giving up employee create {} after {} attempts: {}", entry.record.getTrackingId(), entry.attempts,
+                        outcome.getError().getMessage());
+                results.add(JournalRecord.failed(entry.record.getTrackingId(), entry.record.getProvisionalId(), outcome.getError().getMessage()));
+                givenUp.add(entry.record.getProvisionalId());
+            } else {
+                log.debug("Employee create {} failed, will retry: {}", entry.record.getTrackingId(), outcome.getError().getMessage());
+            }
+        }
+        if (results.isEmpty()) {
+            return;
+        }
+
+        try {
+            journal.append(results);
+        } catch (IOException e) {
+            // the upstream has these outcomes already; after a restart before the next compaction they are sent again
+            log.error("Could not journal {} employee create outcomes to {}: {}", results.size(), journal.getPath(), e.toString());
+        }
+        if (!created.isEmpty()) {
+            cache.reconcileProvisional(created);
+        }
+        if (!givenUp.isEmpty()) {
+            cache.discardProvisional(givenUp);
+        }
+        synchronized (this) {
+            for (JournalRecord result : results) {
+                finished.put(result.getTrackingId(), finishedStatus(result, queued.remove(result.getTrackingId())));
+            }
+            compactIfNeeded();
+        }
+    }
+
+    // called holding this, so no create is journaled between reading the queue and replacing the journal
+    private void compactIfNeeded() {
+        if (journal.size() < properties.getCompactAfter()) {
+            return;
+        }
+        List<JournalRecord> live = new ArrayList<>(queued.size());
+        queued.values().forEach(entry -> live.add(entry.record));
+        try {
+            journal.rewrite(live);
+        } catch (IOException e) {
+            log.warn("Could not compact the employee create journal {}: {}", journal.getPath(), e.toString());
+        }
+    }
+
+    // the remote client wraps the HTTP failure; a failure it does not explain is treated as a rejection
+    private static boolean mayHaveBeenApplied(RuntimeException error) {
+        Throwable cause = error.getCause();
+        return cause != null && !UpstreamCallScheduler.isSafeToRetry(Operation.CREATE, cause);
+    }
+
+    private static PendingCreate finishedStatus(JournalRecord outcome, Queued accepted) {
+        Instant acceptedAt = Instant.ofEpochMilli(accepted == null ? outcome.getAt() : accepted.record.getAt());
+        return outcome.getType() == JournalRecord.Type.CREATED
+                ? new PendingCreate(outcome.getTrackingId(), PendingCreate.Status.CREATED, outcome.getEmployee(), null, acceptedAt)
+                : new PendingCreate(outcome.getTrackingId(), PendingCreate.Status.FAILED, null, outcome.getError(), acceptedAt);
+    }
+
+    /**
+     * Builds the record a create will show as until the upstream has assigned its id, with the fields of
+     * {@code employeeInput} the remote API reads.
+     */
+    static Employee provisionalEmployee(int provisionalId, Map<String, Object> employeeInput) {
+        Object name = employeeInput.get("name");
+        return new Employee(provisionalId, name == null ? null : name.toString(),
+                intValue(employeeInput.get("salary")), intValue(employeeInput.get("age")), "");
+    }
+
+    private static Integer intValue(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        try {
+            return value == null ? null : Integer.valueOf(value.toString().trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Queued {
+        final JournalRecord record;
+        final Employee employee;
+        // failed upstream attempts since this create was queued or recovered
+        int attempts;
+
+        Queued(JournalRecord record) {
+            this.record = record;
+            this.employee = provisionalEmployee(record.getProvisionalId(), record.getInput());
+        }
+
+        PendingCreate status() {
+            return new PendingCreate(record.getTrackingId(), PendingCreate.Status.QUEUED, employee, null,
+                    Instant.ofEpochMilli(record.getAt()));
+        }
+    }
+}
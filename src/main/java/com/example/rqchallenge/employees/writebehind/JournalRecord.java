@@ -0,0 +1,44 @@
+package com.example.rqchallenge.employees.writebehind;
+
+import com.example.rqchallenge.employees.model.Employee;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One {@link CreateJournal} record: a create accepted with its input and provisional id, or the outcome of one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JournalRecord {
+    Type type;
+    String trackingId;
+    int provisionalId;
+    long at;
+    Map<String, Object> input;
+    Employee employee;
+    String error;
+
+    public enum Type {
+        ACCEPTED,
+        CREATED,
+        FAILED
+    }
+
+    public static JournalRecord accepted(String trackingId, int provisionalId, Map<String, Object> input) {
+        return new JournalRecord(Type.ACCEPTED, trackingId, provisionalId, System.currentTimeMillis(), input, null, null);
+    }
+
+    public static JournalRecord created(String trackingId, int provisionalId, Employee employee) {
+        return new JournalRecord(Type.CREATED, trackingId, provisionalId, System.currentTimeMillis(), null, employee, null);
+    }
+
+    public static JournalRecord failed(String trackingId, int provisionalId, String error) {
+        return new JournalRecord(Type.FAILED, trackingId, provisionalId, System.currentTimeMillis(), null, null, error);
+    }
+}
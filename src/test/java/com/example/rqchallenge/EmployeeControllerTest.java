@@ -1,6 +1,11 @@
 package com.example.rqchallenge;
 
+import com.example.rqchallenge.employees.exception.InvalidRequestException;
+import com.example.rqchallenge.employees.model.BatchGetResponse;
 import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeAnalytics;
+import com.example.rqchallenge.employees.model.EmployeeQuery;
+import com.example.rqchallenge.employees.model.RosterVersion;
 import com.example.rqchallenge.employees.service.IEmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,15 +14,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -64,6 +80,80 @@ public class EmployeeControllerTest {
         verify(employeeService, times(1)).getAllEmployees();
     }
 
+    @Test
+    void testStreamEmployeesAsNdjson() throws Exception {
+        when(employeeService.streamEmployees(null, Integer.MAX_VALUE)).thenReturn(Stream.of(employee1, employee2));
+
+        MvcResult result = mockMvc.perform(get("/employees").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(employee1) + "\n"
+                        + objectMapper.writeValueAsString(employee2) + "\n"));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @Test
+    void testStreamEmployeesWithCursorByFormatParam() throws Exception {
+        when(employeeService.streamEmployees(1, 1)).thenReturn(Stream.of(employee2));
+
+        MvcResult result = mockMvc.perform(get("/employees").param("format", "ndjson").param("after", "1").param("limit", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(employee2) + "\n"));
+    }
+
+    @Test
+    void testGetEmployeesByNameSearch() throws Exception {
+        when(employeeService.searchEmployeesByName("smith", 0, 1000)).thenReturn(Arrays.asList(employee1));
+
+        mockMvc.perform(get("/employees/search/smith"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].employee_name", is(employee1.getName())));
+
+        verify(employeeService, times(1)).searchEmployeesByName("smith", 0, 1000);
+    }
+
+    @Test
+    void testGetEmployeesByNameSearch_Paginated() throws Exception {
+        when(employeeService.searchEmployeesByName("s", 10, 5)).thenReturn(Arrays.asList(employee2));
+
+        mockMvc.perform(get("/employees/search/s").param("offset", "10").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(employeeService, times(1)).searchEmployeesByName("s", 10, 5);
+    }
+
+    @Test
+    void testQueryEmployees() throws Exception {
+        EmployeeQuery query = new EmployeeQuery(100000, 300000, 30, null, "jo", EmployeeQuery.SortField.SALARY, true, 0, 1000);
+        when(employeeService.queryEmployees(query)).thenReturn(Arrays.asList(employee1));
+
+        mockMvc.perform(get("/employees/query").param("minSalary", "100000").param("maxSalary", "300000")
+                        .param("minAge", "30").param("namePrefix", "jo").param("sort", "-salary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].employee_name", is(employee1.getName())));
+
+        verify(employeeService, times(1)).queryEmployees(query);
+    }
+
+    @Test
+    void testQueryEmployees_UnknownSortField() throws Exception {
+        mockMvc.perform(get("/employees/query").param("sort", "height"))
+                .andExpect(status().isBadRequest());
+
+        verify(employeeService, never()).queryEmployees(any());
+    }
+
     @Test
     void testGetEmployeeById() throws Exception {
         when(employeeService.getEmployeeById("1")).thenReturn(Optional.of(employee1));
@@ -78,6 +168,105 @@ public class EmployeeControllerTest {
         verify(employeeService, times(1)).getEmployeeById("1");
     }
 
+    @Test
+    void testGetAllEmployeesCarriesSnapshotValidators() throws Exception {
+        when(employeeService.getRosterVersion()).thenReturn(Optional.of(new RosterVersion(7, Instant.ofEpochMilli(1_700_000_000_000L))));
+        when(employeeService.getAllEmployees()).thenReturn(Arrays.asList(employee1, employee2));
+
+        mockMvc.perform(get("/employees"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7-" + Long.toString(1_700_000_000_000L, 36) + "\""))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Tue, 14 Nov 2023 22:13:20 GMT"))
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    void testGetAllEmployeesNotModifiedSkipsRead() throws Exception {
+        when(employeeService.getRosterVersion()).thenReturn(Optional.of(new RosterVersion(7, Instant.ofEpochMilli(1_700_000_000_000L))));
+        String etag = "\"7-" + Long.toString(1_700_000_000_000L, 36) + "\"";
+
+        mockMvc.perform(get("/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    @Test
+    void testGetAllEmployeesServesCachedGzipBytes() throws Exception {
+        when(employeeService.getRosterVersion()).thenReturn(Optional.of(new RosterVersion(9, Instant.ofEpochMilli(1_700_000_000_000L))));
+        when(employeeService.getAllEmployees()).thenReturn(Arrays.asList(employee1, employee2));
+
+        byte[] first = mockMvc.perform(get("/employees").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"9-" + Long.toString(1_700_000_000_000L, 36) + "-gzip\""))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] second = mockMvc.perform(get("/employees").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertArrayEquals(first, second);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first))) {
+            List<Employee> employees = Arrays.asList(objectMapper.readValue(in, Employee[].class));
+            assertEquals(Arrays.asList(employee1, employee2), employees);
+        }
+        mockMvc.perform(get("/employees"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$[1].employee_name", is(employee2.getName())));
+
+        verify(employeeService, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void testGetEmployeeByIdIsServedAgainAfterVersionChanges() throws Exception {
+        when(employeeService.getRosterVersionOf(employee1)).thenReturn(Optional.of(new RosterVersion(8, Instant.ofEpochMilli(1_700_000_000_000L))));
+        when(employeeService.getEmployeeById("1")).thenReturn(Optional.of(employee1));
+
+        mockMvc.perform(get("/employees/1").header(HttpHeaders.IF_NONE_MATCH, "\"7-" + Long.toString(1_700_000_000_000L, 36) + "-id1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"8-" + Long.toString(1_700_000_000_000L, 36) + "-id1\""))
+                .andExpect(jsonPath("$.id", is(employee1.getId())));
+
+        mockMvc.perform(get("/employees/1").header(HttpHeaders.IF_NONE_MATCH, "\"8-" + Long.toString(1_700_000_000_000L, 36) + "-id1\""))
+                .andExpect(status().isNotModified());
+
+        verify(employeeService, times(2)).getEmployeeById("1");
+    }
+
+    @Test
+    void testGetEmployeeByIdIgnoresTheRosterETag() throws Exception {
+        when(employeeService.getRosterVersionOf(employee1)).thenReturn(Optional.of(new RosterVersion(8, Instant.ofEpochMilli(1_700_000_000_000L))));
+        when(employeeService.getEmployeeById("1")).thenReturn(Optional.of(employee1));
+
+        mockMvc.perform(get("/employees/1").header(HttpHeaders.IF_NONE_MATCH, "\"8-" + Long.toString(1_700_000_000_000L, 36) + "\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(employee1.getId())));
+    }
+
+    @Test
+    void testGetEmployeeByIdNotServedFromSnapshotCarriesNoValidators() throws Exception {
+        when(employeeService.getRosterVersion()).thenReturn(Optional.of(new RosterVersion(8, Instant.ofEpochMilli(1_700_000_000_000L))));
+        when(employeeService.getRosterVersionOf(employee1)).thenReturn(Optional.empty());
+        when(employeeService.getEmployeeById("1")).thenReturn(Optional.of(employee1));
+
+        mockMvc.perform(get("/employees/1").header(HttpHeaders.IF_NONE_MATCH, "\"8-" + Long.toString(1_700_000_000_000L, 36) + "-id1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(jsonPath("$.id", is(employee1.getId())));
+    }
+
+    @Test
+    void testGetUnknownEmployeeByIdIsNotFoundEvenWhenValidatorsMatch() throws Exception {
+        when(employeeService.getRosterVersion()).thenReturn(Optional.of(new RosterVersion(8, Instant.ofEpochMilli(1_700_000_000_000L))));
+        when(employeeService.getEmployeeById("9")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/employees/9").header(HttpHeaders.IF_NONE_MATCH, "\"8-" + Long.toString(1_700_000_000_000L, 36) + "-id9\""))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testGetEmployeeById_NotFound() throws Exception {
         when(employeeService.getEmployeeById("1")).thenReturn(Optional.empty());
@@ -88,6 +277,24 @@ public class EmployeeControllerTest {
         verify(employeeService, times(1)).getEmployeeById("1");
     }
 
+    @Test
+    void testGetEmployeesByIds() throws Exception {
+        Map<String, String> errors = new LinkedHashMap<>();
+        errors.put("3", "Remote API Error");
+        BatchGetResponse batch = new BatchGetResponse(Arrays.asList(employee1, employee2), Collections.singletonList("4"), errors);
+
+        when(employeeService.getEmployeesByIds(Arrays.asList("1", "2", "3", "4"))).thenReturn(batch);
+
+        mockMvc.perform(post("/employees/batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"1\",\"2\",\"3\",\"4\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees", hasSize(2)))
+                .andExpect(jsonPath("$.employees[1].employee_name", is(employee2.getName())))
+                .andExpect(jsonPath("$.notFound[0]", is("4")))
+                .andExpect(jsonPath("$.errors['3']", is("Remote API Error")));
+    }
+
     @Test
     void testCreateEmployee() throws Exception {
         Employee newEmployee = new Employee(null, "John Smith", 50020, 40, "image3.jpg");
@@ -141,6 +348,49 @@ public class EmployeeControllerTest {
 
         verify(employeeService, times(1)).getTopTenHighestEarningEmployeeNames();
     }
-}
 
+    @Test
+    void testGetTopEarningEmployeeNames() throws Exception {
+        List<String> topEarners = Arrays.asList("Bill Gates", "Will Smith");
+
+        when(employeeService.getTopEarningEmployeeNames(2)).thenReturn(topEarners);
+
+        mockMvc.perform(get("/employees/topEarners").param("n", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0]", is("Bill Gates")));
 
+        verify(employeeService, times(1)).getTopEarningEmployeeNames(2);
+    }
+
+    @Test
+    void testGetAnalyticsUsesConfiguredBucketWidth() throws Exception {
+        EmployeeAnalytics analytics = new EmployeeAnalytics();
+        analytics.setEmployeeCount(2);
+        analytics.getSalary().setMax(1232132);
+        when(employeeService.getAnalytics(50000)).thenReturn(analytics);
+
+        mockMvc.perform(get("/employees/analytics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employeeCount", is(2)))
+                .andExpect(jsonPath("$.salary.max", is(1232132)));
+    }
+
+    @Test
+    void testGetAnalyticsWithBucketWidth() throws Exception {
+        when(employeeService.getAnalytics(10000)).thenReturn(new EmployeeAnalytics());
+
+        mockMvc.perform(get("/employees/analytics").param("salaryBucketWidth", "10000"))
+                .andExpect(status().isOk());
+
+        verify(employeeService, times(1)).getAnalytics(10000);
+    }
+
+    @Test
+    void testGetTopEarningEmployeeNames_NegativeCount() throws Exception {
+        when(employeeService.getTopEarningEmployeeNames(-1)).thenThrow(new InvalidRequestException("count must not be negative: -1"));
+
+        mockMvc.perform(get("/employees/topEarners").param("n", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.rqchallenge.employee.cache;
+
+import com.example.rqchallenge.employees.cache.EmployeeAnalyticsCalculator;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeAnalytics;
+import com.example.rqchallenge.employees.model.HistogramBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeAnalyticsCalculatorTest {
+
+    private final List<Employee> employees = Arrays.asList(
+            new Employee(1, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2, "Garrett Winters", 170750, 63, ""),
+            new Employee(3, "Ashton Cox", 86000, 66, ""),
+            new Employee(4, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5, "Airi Satou", 170750, 33, ""),
+            new Employee(6, "No Salary", null, 40, ""));
+
+    @Test
+    void testSalaryStatistics() {
+        EmployeeAnalytics analytics = EmployeeAnalyticsCalculator.compute(EmployeeSnapshot.of(3, employees), 100_000);
+
+        assertEquals(3, analytics.getVersion());
+        assertEquals(6, analytics.getEmployeeCount());
+        assertEquals(5, analytics.getSalary().getCount());
+        assertEquals(86000, (int) analytics.getSalary().getMin());
+        assertEquals(433060, (int) analytics.getSalary().getMax());
+        assertEquals(236272.0, analytics.getSalary().getMean(), 1e-9);
+        assertEquals(170750.0, analytics.getSalary().getMedian(), 1e-9);
+        assertEquals(86000, (int) analytics.getSalary().getPercentiles().get("p10"));
+        assertEquals(433060, (int) analytics.getSalary().getPercentiles().get("p90"));
+    }
+
+    @Test
+    void testHistogramAndAgeBuckets() {
+        EmployeeAnalytics analytics = EmployeeAnalyticsCalculator.compute(EmployeeSnapshot.of(1, employees), 100_000);
+
+        assertEquals(Arrays.asList(
+                new HistogramBucket(0, 100_000, 1),
+                new HistogramBucket(100_000, 200_000, 2),
+                new HistogramBucket(200_000, 300_000, 0),
+                new HistogramBucket(300_000, 400_000, 1),
+                new HistogramBucket(400_000, 500_000, 1)), analytics.getSalaryHistogram());
+        assertEquals(Arrays.asList(1L, 1L, 1L, 0L, 3L),
+                analytics.getAgeBuckets().stream().map(HistogramBucket::getCount).collect(Collectors.toList()));
+        assertEquals(20, analytics.getAgeBuckets().get(0).getFrom());
+    }
+
+    @Test
+    void testEmptyRoster() {
+        EmployeeAnalytics analytics = EmployeeAnalyticsCalculator.compute(EmployeeSnapshot.of(1, Collections.emptyList()), 1000);
+
+        assertEquals(0, analytics.getSalary().getCount());
+        assertNull(analytics.getSalary().getMedian());
+        assertTrue(analytics.getSalaryHistogram().isEmpty());
+        assertTrue(analytics.getAgeBuckets().isEmpty());
+    }
+
+    @Test
+    void testParallelPassMatchesSequentialTotals() {
+        List<Employee> roster = new ArrayList<>();
+        long salarySum = 0;
+        for (int i = 0; i < 50_000; i++) {
+            int salary = 10_000 + (i * 7919) % 500_000;
+            salarySum += salary;
+            roster.add(new Employee(i, "Employee " + i, salary, 18 + i % 50, ""));
+        }
+
+        EmployeeAnalytics analytics = EmployeeAnalyticsCalculator.compute(EmployeeSnapshot.of(1, roster), 25_000);
+
+        assertEquals(salarySum / 50_000.0, analytics.getSalary().getMean(), 1e-6);
+        assertEquals(50_000, analytics.getSalaryHistogram().stream().mapToLong(HistogramBucket::getCount).sum());
+        assertEquals(50_000, analytics.getAgeBuckets().stream().mapToLong(HistogramBucket::getCount).sum());
+    }
+
+    @Test
+    void testRejectsNonPositiveBucketWidth() {
+        assertThrows(IllegalArgumentException.class,
+                () -> EmployeeAnalyticsCalculator.compute(EmployeeSnapshot.of(1, employees), 0));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.rqchallenge.employee.cache;
+
+import com.example.rqchallenge.employees.cache.EmployeeColumns;
+import com.example.rqchallenge.employees.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeColumnsTest {
+
+    @Test
+    void testMaterializeRoundTripsNulls() {
+        Employee partial = new Employee(3, null, null, 40, null);
+        EmployeeColumns columns = new EmployeeColumns.Builder().add(partial).build();
+
+        assertEquals(partial, columns.materialize(0));
+        assertEquals(EmployeeColumns.ABSENT, columns.salary(0));
+    }
+
+    @Test
+    void testLastRowWinsForRepeatedId() {
+        EmployeeColumns columns = new EmployeeColumns.Builder()
+                .add(new Employee(1, "Tiger Nixon", 320800, 61, ""))
+                .add(new Employee(1, "Tiger Nixon II", 320900, 62, ""))
+                .build();
+
+        assertEquals(1, columns.rowOf(1));
+        assertFalse(columns.isCurrentRowForId(0));
+        assertEquals(-1, columns.rowOf(2));
+        assertArrayEquals(new int[]{1}, columns.sortedIds());
+    }
+
+    @Test
+    void testWithChangesPatchesRowsInPlace() {
+        EmployeeColumns columns = new EmployeeColumns.Builder()
+                .add(new Employee(1, "Tiger Nixon", 320800, 61, "a.png"))
+                .add(new Employee(2, "Jane Smith", 500000, 30, "a.png"))
+                .add(new Employee(3, "Ashton Cox", 86000, 66, "b.png"))
+                .build();
+
+        EmployeeColumns changed = columns.withChanges(
+                Arrays.asList(new Employee(1, "Tiger Nixon", 330000, 61, "b.png"), new Employee(4, "Cedric Kelly", 1, 22, null)),
+                Collections.singleton(2));
+
+        assertEquals(3, changed.size());
+        assertEquals(new Employee(1, "Tiger Nixon", 330000, 61, "b.png"), changed.materialize(0));
+        assertEquals(new Employee(3, "Ashton Cox", 86000, 66, "b.png"), changed.materialize(1));
+        assertEquals(new Employee(4, "Cedric Kelly", 1, 22, null), changed.materialize(2));
+        assertEquals(-1, changed.rowOf(2));
+        assertArrayEquals(new int[]{1, 3, 4}, changed.sortedIds());
+        assertEquals(new Employee(2, "Jane Smith", 500000, 30, "a.png"), columns.materialize(1));
+    }
+
+    @Test
+    void testWithChangesDropsShadowedRowsOfRepeatedIds() {
+        EmployeeColumns columns = new EmployeeColumns.Builder()
+                .add(new Employee(1, "Tiger Nixon", 320800, 61, ""))
+                .add(new Employee(2, "Jane Smith", 500000, 30, ""))
+                .add(new Employee(1, "Tiger Nixon II", 320900, 62, ""))
+                .build();
+
+        EmployeeColumns changed = columns.withChanges(Collections.emptyList(), Collections.singleton(2));
+
+        assertEquals(1, changed.size());
+        assertEquals("Tiger Nixon II", changed.name(changed.rowOf(1)));
+    }
+
+    @Test
+    void testContentHashMatchesMaterializedRow() {
+        Employee employee = new Employee(3, "Ashton Cox", null, 66, null);
+        EmployeeColumns columns = new EmployeeColumns.Builder().add(employee).build();
+
+        assertEquals(EmployeeColumns.contentHash(employee), columns.contentHash(0));
+        assertTrue(columns.sameContent(0, employee));
+        assertFalse(columns.sameContent(0, new Employee(3, "Ashton Cox", 1, 66, null)));
+    }
+
+    @Test
+    void testCollectsLargeRoster() {
+        EmployeeColumns.Builder builder = new EmployeeColumns.Builder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.add(new Employee(i * 7, "Employee " + i, i, 20 + i % 40, "img" + (i % 3) + ".png"));
+        }
+        EmployeeColumns columns = builder.build();
+
+        assertEquals(10_000, columns.size());
+        assertEquals(9_999, columns.rowOf(9_999 * 7));
+        assertEquals("img0.png", columns.profileImage(columns.rowOf(21)));
+        assertEquals(Arrays.asList(0, 7), Arrays.asList(columns.sortedIds()[0], columns.sortedIds()[1]));
+    }
+}
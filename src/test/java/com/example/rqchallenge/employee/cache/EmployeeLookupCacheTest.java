@@ -0,0 +1,206 @@
+package com.example.rqchallenge.employee.cache;
+
+import com.example.rqchallenge.config.LookupCacheProperties;
+import com.example.rqchallenge.employees.cache.CacheMetrics;
+import com.example.rqchallenge.employees.cache.EmployeeChangeEvent;
+import com.example.rqchallenge.employees.cache.EmployeeChangeSet;
+import com.example.rqchallenge.employees.cache.EmployeeLookupCache;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.support.EmployeeMetrics;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeLookupCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final List<Priority> loads = new ArrayList<>();
+    private final Employee employee = new Employee(1, "Tiger Nixon", 320800, 61, "");
+
+    private SimpleMeterRegistry registry;
+    private EmployeeLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        LookupCacheProperties properties = new LookupCacheProperties();
+        properties.setMaxSize(32);
+        properties.setTtl(Duration.ofSeconds(10));
+        properties.setNotFoundTtl(Duration.ofSeconds(2));
+        properties.setRefreshAhead(0.5);
+        registry = new SimpleMeterRegistry();
+        cache = new EmployeeLookupCache(properties, refreshes::add, new EmployeeMetrics(registry), nanos::get);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("cache", cache));
+        new CacheMetrics(beans.getBeanProvider(EmployeeSnapshotCache.class), beans.getBeanProvider(EmployeeLookupCache.class))
+                .bindTo(registry);
+    }
+
+    @Test
+    void testFoundEmployeeIsServedUntilItExpires() {
+        assertEquals(Optional.of(employee), cache.get("1", loader(employee)));
+        advance(Duration.ofSeconds(3));
+        assertEquals(Optional.of(employee), cache.get("1", loader(employee)));
+        assertEquals(1, loads.size());
+
+        advance(Duration.ofSeconds(8));
+        cache.get("1", loader(employee));
+
+        assertEquals(2, loads.size());
+        assertEquals(1.0, lookups("hit"));
+        assertEquals(2.0, lookups("miss"));
+        assertEquals(1.0, evictions("expired"));
+    }
+
+    @Test
+    void testNotFoundIsCachedForShorterTime() {
+        assertFalse(cache.get("404", loader(null)).isPresent());
+        advance(Duration.ofSeconds(1));
+        assertFalse(cache.get("404", loader(null)).isPresent());
+        assertEquals(1, loads.size());
+
+        advance(Duration.ofSeconds(2));
+        assertEquals(Optional.of(employee), cache.get("404", loader(employee)));
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void testHitPastRefreshPointReloadsInBackgroundOnce() {
+        Employee renamed = new Employee(1, "Tiger Nixon Jr", 320800, 61, "");
+        cache.get("1", loader(employee));
+        advance(Duration.ofSeconds(6));
+
+        assertEquals(Optional.of(employee), cache.get("1", loader(renamed)));
+        assertEquals(Optional.of(employee), cache.get("1", loader(renamed)));
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+        advance(Duration.ofSeconds(6));
+
+        assertEquals(Optional.of(renamed), cache.get("1", loader(renamed)));
+        assertEquals(Priority.BACKGROUND, loads.get(1));
+        assertEquals(2, loads.size());
+        assertEquals(1.0, registry.get("employees.cache.refreshes").tag("cache", "by_id").counter().count());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIdsAreEvictedBeyondMaxSize() {
+        cache.get("1", loader(employee));
+        for (int id = 2; id <= 200; id++) {
+            cache.get("1", loader(employee));
+            cache.get(String.valueOf(id), loader(null));
+        }
+
+        assertTrue(cache.size() <= 32);
+        assertTrue(evictions("size") >= 199 - 32);
+        // the id read all along is still resident
+        cache.get("1", loader(employee));
+        assertEquals(200, loads.size());
+        assertEquals((double) cache.size(), registry.get("employees.cache.size").tag("cache", "by_id").gauge().value());
+    }
+
+    @Test
+    void testWritesAndSnapshotChangesUpdateCachedEntries() {
+        Employee renamed = new Employee(1, "Tiger Nixon Jr", 320800, 61, "");
+        cache.get("1", loader(employee));
+        cache.get("2", loader(null));
+
+        cache.put(new Employee(2, "Jane Smith", 500000, 30, ""));
+        assertEquals("Jane Smith", cache.get("2", loader(null)).orElseThrow().getName());
+
+        cache.onSnapshotChange(new EmployeeChangeEvent(1, 2,
+                new EmployeeChangeSet(Collections.emptyList(), Collections.singletonList(renamed), Collections.singletonList(2))));
+        assertEquals(Optional.of(renamed), cache.get("1", loader(employee)));
+        assertFalse(cache.get("2", loader(employee)).isPresent());
+
+        cache.onSnapshotChange(new EmployeeChangeEvent(2, 3,
+                new EmployeeChangeSet(Collections.singletonList(new Employee(3, "New", 1, 1, "")), Collections.emptyList(),
+                        Collections.emptyList())));
+        assertEquals(2, cache.size());
+
+        cache.putNotFound("1");
+        assertFalse(cache.get("1", loader(employee)).isPresent());
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void testDeleteDuringLoadIsNotOverwrittenByLoadedEmployee() {
+        Optional<Employee> loaded = cache.get("1", priority -> {
+            loads.add(priority);
+            cache.putNotFound("1");
+            return Optional.of(employee);
+        });
+
+        assertEquals(Optional.of(employee), loaded);
+        assertFalse(cache.get("1", loader(employee)).isPresent());
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void testSnapshotDeleteDuringLoadIsNotOverwrittenByLoadedEmployee() {
+        cache.get("1", priority -> {
+            loads.add(priority);
+            cache.onSnapshotChange(new EmployeeChangeEvent(1, 2,
+                    new EmployeeChangeSet(Collections.emptyList(), Collections.emptyList(), Collections.singletonList(1))));
+            return Optional.of(employee);
+        });
+
+        assertFalse(cache.get("1", loader(employee)).isPresent());
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void testFailedLoadLeavesNothingCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get("1", priority -> {
+            throw new IllegalStateException("upstream down");
+        }));
+
+        assertEquals(Optional.of(employee), cache.get("1", loader(employee)));
+        assertEquals(1, loads.size());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testNonNumericIdsAndDisabledCacheAlwaysLoad() {
+        cache.get("abc", loader(null));
+        cache.get("abc", loader(null));
+        EmployeeLookupCache disabled = EmployeeLookupCache.disabled();
+        disabled.get("1", loader(employee));
+        disabled.get("1", loader(employee));
+
+        assertEquals(4, loads.size());
+        assertEquals(0, disabled.size());
+    }
+
+    private Function<Priority, Optional<Employee>> loader(Employee result) {
+        return priority -> {
+            loads.add(priority);
+            return Optional.ofNullable(result);
+        };
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private double lookups(String result) {
+        return registry.get("employees.cache.lookups").tags("cache", "by_id", "result", result).counter().count();
+    }
+
+    private double evictions(String cause) {
+        return registry.get("employees.cache.evictions").tags("cache", "by_id", "cause", cause).counter().count();
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.rqchallenge.employee.cache;
+
+import com.example.rqchallenge.employees.cache.CacheMetrics;
+import com.example.rqchallenge.employees.cache.EmployeeChangeEvent;
+import com.example.rqchallenge.employees.cache.EmployeeLookupCache;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.cache.SnapshotFileStore;
+import com.example.rqchallenge.employees.cache.SnapshotReplication;
+import com.example.rqchallenge.employees.exception.RemoteApiException;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.service.impl.EmployeeServiceImpl;
+import com.example.rqchallenge.employees.upstream.ConditionalFetch;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import com.example.rqchallenge.employees.upstream.UpstreamValidators;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EmployeeSnapshotCacheTest {
+
+    @Mock
+    private EmployeeServiceImpl remote;
+
+    @TempDir
+    Path directory;
+
+    private EmployeeSnapshotCache cache;
+
+    private Employee employee1;
+    private Employee employee2;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new EmployeeSnapshotCache(remote);
+        employee1 = new Employee(1, "Tiger Nixon", 320800, 61, "");
+        employee2 = new Employee(2, "Jane Smith", 500000, 30, "");
+    }
+
+    @Test
+    void testFirstReadLoadsOnceAndIsReused() {
+        when(remote.collectAllEmployees(any(), any(), any())).thenAnswer(roster(Arrays.asList(employee1, employee2)));
+
+        EmployeeSnapshot first = cache.get();
+        EmployeeSnapshot second = cache.get();
+
+        assertSame(first, second);
+        assertEquals(2, first.size());
+        verify(remote, times(1)).collectAllEmployees(eq(Priority.INTERACTIVE), any(), any());
+    }
+
+    @Test
+    void testRefreshFailureKeepsPreviousSnapshot() {
+        when(remote.collectAllEmployees(any(), any(), any()))
+                .thenAnswer(roster(Collections.singletonList(employee1)))
+                .thenThrow(new RemoteApiException("upstream down"));
+
+        EmployeeSnapshot loaded = cache.get();
+        cache.refresh();
+
+        assertSame(loaded, cache.get());
+    }
+
+    @Test
+    void testRefreshReplacesSnapshotWithNewVersion() {
+        when(remote.collectAllEmployees(any(), any(), any()))
+                .thenAnswer(roster(Collections.singletonList(employee1)))
+                .thenAnswer(roster(Arrays.asList(employee1, employee2)));
+
+        EmployeeSnapshot loaded = cache.get();
+        cache.refresh();
+
+        assertEquals(2, cache.get().size());
+        assertTrue(cache.get().getVersion() > loaded.getVersion());
+        verify(remote, times(1)).collectAllEmployees(eq(Priority.BACKGROUND), any(), any());
+    }
+
+    @Test
+    void testGaugesReportCurrentSnapshot() {
+        when(remote.collectAllEmployees(any(), any(), any())).thenAnswer(roster(Arrays.asList(employee1, employee2)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("cache", cache));
+        new CacheMetrics(beans.getBeanProvider(EmployeeSnapshotCache.class), beans.getBeanProvider(EmployeeLookupCache.class))
+                .bindTo(registry);
+
+        assertTrue(Double.isNaN(registry.get("employees.snapshot.employees").gauge().value()));
+
+        EmployeeSnapshot loaded = cache.get();
+
+        assertEquals(2.0, registry.get("employees.snapshot.employees").gauge().value());
+        assertEquals(loaded.getVersion(), registry.get("employees.snapshot.version").gauge().value());
+        assertTrue(registry.get("employees.snapshot.age").gauge().value() < 60);
+    }
+
+    @Test
+    void testRefreshAppliesOnlyChangesAndPublishesThem() {
+        Employee renamed = new Employee(1, "Tiger Nixon Jr", 320800, 61, "");
+        when(remote.collectAllEmployees(any(), any(), any()))
+                .thenAnswer(roster(Arrays.asList(employee1, employee2)))
+                .thenAnswer(roster(Collections.singletonList(renamed)));
+        List<Object> events = new ArrayList<>();
+        EmployeeSnapshotCache publishingCache = new EmployeeSnapshotCache(remote, Optional.empty(), events::add);
+
+        EmployeeSnapshot loaded = publishingCache.get();
+        publishingCache.refresh();
+
+        EmployeeChangeEvent event = (EmployeeChangeEvent) events.get(0);
+        assertEquals(1, events.size());
+        assertEquals(loaded.getVersion(), event.getPreviousVersion());
+        assertEquals(publishingCache.get().getVersion(), event.getVersion());
+        assertEquals(Collections.singletonList(renamed), event.getChanges().getUpdated());
+        assertEquals(Collections.singletonList(2), event.getChanges().getDeletedIds());
+        assertEquals(Collections.singletonList(renamed), publishingCache.get().getEmployees());
+    }
+
+    @Test
+    void testRefreshWithoutChangesKeepsSnapshot() {
+        when(remote.collectAllEmployees(any(), any(), any())).thenAnswer(roster(Arrays.asList(employee1, employee2)));
+
+        EmployeeSnapshot loaded = cache.get();
+        cache.refresh();
+
+        assertSame(loaded, cache.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRefreshSendsUpstreamValidatorsAndKeepsSnapshotWhenNotModified() {
+        UpstreamValidators validators = new UpstreamValidators("\"roster-1\"", null);
+        when(remote.collectAllEmployees(any(), any(), any()))
+                .thenAnswer(invocation -> ConditionalFetch.modified(
+                        Stream.of(employee1).collect(invocation.getArgument(1, Collector.class)), validators))
+                .thenReturn(ConditionalFetch.notModified(validators));
+
+        EmployeeSnapshot loaded = cache.get();
+        cache.refresh();
+
+        assertSame(loaded, cache.get());
+        verify(remote).collectAllEmployees(eq(Priority.INTERACTIVE), any(), same(UpstreamValidators.NONE));
+        verify(remote).collectAllEmployees(eq(Priority.BACKGROUND), any(), same(validators));
+    }
+
+    @Test
+    void testCreateAndDeletePatchSnapshot() {
+        when(remote.collectAllEmployees(any(), any(), any())).thenAnswer(roster(Collections.singletonList(employee1)));
+        cache.get();
+
+        cache.applyCreated(employee2);
+        assertTrue(cache.get().findById(2).isPresent());
+
+        cache.applyDeleted(1);
+        assertFalse(cache.get().findById(1).isPresent());
+        assertEquals(1, cache.get().size());
+        verify(remote, times(1)).collectAllEmployees(eq(Priority.INTERACTIVE), any(), any());
+    }
+
+    @Test
+    void testConcurrentWritesAreAllKeptUnderOneVersionEach() throws InterruptedException {
+        when(remote.collectAllEmployees(any(), any(), any())).thenAnswer(roster(Collections.singletonList(employee1)));
+        List<Long> published = Collections.synchronizedList(new ArrayList<>());
+        cache = new EmployeeSnapshotCache(remote, Optional.empty(),
+                event -> published.add(((EmployeeChangeEvent) event).getVersion()));
+        long loaded = cache.get().getVersion();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int id = 100; id < 300; id++) {
+            Employee created = new Employee(id, "Employee " + id, 1000, 30, "");
+            executor.execute(() -> cache.applyCreated(created));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(201, cache.get().size());
+        assertEquals(loaded + 200, cache.get().getVersion());
+        List<Long> expected = LongStream.rangeClosed(loaded + 1, loaded + 200).boxed().collect(Collectors.toList());
+        assertEquals(expected, published);
+    }
+
+    @Test
+    void testLoadDoesNotReplaceSnapshotInstalledMeanwhile() {
+        Employee created = new Employee(3, "Ashton Cox", 86000, 66, "");
+        when(remote.collectAllEmployees(eq(Priority.INTERACTIVE), any(), any())).thenAnswer(roster(Collections.singletonList(employee1)));
+        Answer<Object> background = roster(Arrays.asList(employee1, employee2));
+        when(remote.collectAllEmployees(eq(Priority.BACKGROUND), any(), any())).thenAnswer(invocation -> {
+            cache.get();
+            cache.applyCreated(created);
+            return background.answer(invocation);
+        });
+
+        cache.refresh();
+
+        assertTrue(cache.get().findById(3).isPresent());
+        assertFalse(cache.get().findById(2).isPresent());
+    }
+
+    @Test
+    void testRestoredSnapshotIsServedWithoutCallingUpstream() throws IOException {
+        SnapshotFileStore store = new SnapshotFileStore(directory.resolve("snapshot.bin"));
+        store.save(EmployeeSnapshot.of(9, Arrays.asList(employee1, employee2)));
+        EmployeeSnapshotCache restoredCache = new EmployeeSnapshotCache(remote, Optional.of(store), event -> { });
+
+        restoredCache.restore();
+
+        assertEquals(9, restoredCache.get().getVersion());
+        assertEquals("Jane Smith", restoredCache.get().searchByName("jane", 0, 10).get(0).getName());
+        verifyNoInteractions(remote);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testReplicaInstanceTakesSnapshotsWithoutCallingUpstream() {
+        Employee renamed = new Employee(1, "Tiger Nixon Jr", 320800, 61, "");
+        List<Object> events = new ArrayList<>();
+        SnapshotReplication replication = mock(SnapshotReplication.class);
+        when(replication.fetchReplica())
+                .thenReturn(Optional.of(EmployeeSnapshot.of(40, Arrays.asList(employee1, employee2))))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(EmployeeSnapshot.of(41, Collections.singletonList(renamed))));
+        EmployeeSnapshotCache replica = new EmployeeSnapshotCache(remote, Optional.empty(), events::add, Optional.of(replication));
+
+        EmployeeSnapshot adopted = replica.get();
+        replica.refresh();
+        assertSame(adopted, replica.get());
+        replica.refresh();
+
+        assertEquals(2, adopted.size());
+        assertEquals(Collections.singletonList(renamed), replica.get().getEmployees());
+        assertTrue(replica.get().getVersion() > adopted.getVersion());
+        assertEquals(1, ((EmployeeChangeEvent) events.get(0)).getChanges().getDeletedIds().size());
+        verify(remote, never()).collectAllEmployees(any(), any(), any());
+    }
+
+    @Test
+    void testReplicaInstanceKeepsItsOwnWritesUntilTheLeaderShowsThem() {
+        Employee created = new Employee(3, "Ashton Cox", 86000, 66, "");
+        SnapshotReplication replication = mock(SnapshotReplication.class);
+        when(replication.localWriteTimeout()).thenReturn(Duration.ofMinutes(1));
+        when(replication.fetchReplica())
+                .thenReturn(Optional.of(EmployeeSnapshot.of(40, Arrays.asList(employee1, employee2))))
+                .thenReturn(Optional.of(EmployeeSnapshot.of(41, Arrays.asList(employee1, employee2))))
+                .thenReturn(Optional.of(EmployeeSnapshot.of(42, Arrays.asList(employee1, created))))
+                .thenReturn(Optional.of(EmployeeSnapshot.of(43, Arrays.asList(employee1, employee2))));
+        EmployeeSnapshotCache replica = new EmployeeSnapshotCache(remote, Optional.empty(), event -> { }, Optional.of(replication));
+        replica.get();
+
+        replica.applyCreated(created);
+        replica.applyDeleted(2);
+        replica.refresh();
+
+        assertEquals(Arrays.asList(employee1, created), replica.get().getEmployees());
+
+        replica.refresh();
+        replica.refresh();
+
+        assertEquals(Arrays.asList(employee1, employee2), replica.get().getEmployees());
+    }
+
+    @Test
+    void testReplicaInstanceGivesUpItsOwnWritesAfterTimeout() {
+        Employee created = new Employee(3, "Ashton Cox", 86000, 66, "");
+        SnapshotReplication replication = mock(SnapshotReplication.class);
+        when(replication.localWriteTimeout()).thenReturn(Duration.ZERO);
+        when(replication.fetchReplica())
+                .thenReturn(Optional.of(EmployeeSnapshot.of(40, Collections.singletonList(employee1))))
+                .thenReturn(Optional.of(EmployeeSnapshot.of(41, Collections.singletonList(employee1))));
+        EmployeeSnapshotCache replica = new EmployeeSnapshotCache(remote, Optional.empty(), event -> { }, Optional.of(replication));
+        replica.get();
+
+        replica.applyCreated(created);
+        replica.refresh();
+
+        assertEquals(Collections.singletonList(employee1), replica.get().getEmployees());
+    }
+
+    @Test
+    void testReplicaInstanceLoadsUpstreamWhenLeaderHasNoSnapshot() {
+        when(remote.collectAllEmployees(any(), any(), any())).thenAnswer(roster(Collections.singletonList(employee1)));
+        SnapshotReplication replication = mock(SnapshotReplication.class);
+        when(replication.fetchReplica()).thenReturn(Optional.empty());
+        EmployeeSnapshotCache replica = new EmployeeSnapshotCache(remote, Optional.empty(), event -> { }, Optional.of(replication));
+
+        assertEquals(1, replica.get().size());
+        verify(remote, times(1)).collectAllEmployees(eq(Priority.INTERACTIVE), any(), any());
+    }
+
+    @Test
+    void testCacheIsOnlyCreatedForTheBlockingStack() {
+        ApplicationContextRunner runner = new ApplicationContextRunner()
+                .withBean(EmployeeServiceImpl.class, () -> remote)
+                .withUserConfiguration(EmployeeSnapshotCache.class);
+
+        runner.run(context -> assertEquals(1, context.getBeansOfType(EmployeeSnapshotCache.class).size()));
+        runner.withPropertyValues("employees.stack=blocking")
+                .run(context -> assertEquals(1, context.getBeansOfType(EmployeeSnapshotCache.class).size()));
+        runner.withPropertyValues("employees.stack=reactive")
+                .run(context -> assertTrue(context.getBeansOfType(EmployeeSnapshotCache.class).isEmpty()));
+        runner.withPropertyValues("employees.cache.enabled=false")
+                .run(context -> assertTrue(context.getBeansOfType(EmployeeSnapshotCache.class).isEmpty()));
+        verify(remote, never()).collectAllEmployees(any(), any(), any());
+    }
+
+    private static Answer<Object> roster(List<Employee> employees) {
+        return invocation -> ConditionalFetch.modified(employees.stream().collect(invocation.getArgument(1, Collector.class)),
+                UpstreamValidators.NONE);
+    }
+}
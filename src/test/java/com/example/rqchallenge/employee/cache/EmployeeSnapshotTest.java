@@ -0,0 +1,197 @@
+package com.example.rqchallenge.employee.cache;
+
+import com.example.rqchallenge.employees.cache.EmployeeChangeSet;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeQuery;
+import com.example.rqchallenge.employees.model.EmployeeQuery.SortField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeSnapshotTest {
+
+    private final List<Employee> employees = Arrays.asList(
+            new Employee(1, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2, "Garrett Winters", 170750, 63, ""),
+            new Employee(3, "Ashton Cox", 86000, 66, ""),
+            new Employee(4, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5, "Airi Satou", 170750, 33, ""),
+            new Employee(6, "No Salary", null, 40, ""));
+
+    @Test
+    void testHighestSalary() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+
+        assertEquals(433060, snapshot.highestSalary());
+    }
+
+    @Test
+    void testHighestSalaryOfEmptyRoster() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, Collections.emptyList());
+
+        assertEquals(0, snapshot.highestSalary());
+        assertTrue(snapshot.topEarners(10).isEmpty());
+    }
+
+    @Test
+    void testTopEarnersKeepsRosterOrderForTies() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+
+        List<String> names = snapshot.topEarners(4).stream().map(Employee::getName).collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("Cedric Kelly", "Tiger Nixon", "Garrett Winters", "Airi Satou"), names);
+    }
+
+    @Test
+    void testTopEarnersLargerThanRoster() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+
+        assertEquals(5, snapshot.topEarners(100).size());
+    }
+
+    @Test
+    void testIndexFollowsPatches() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees)
+                .withEmployee(2, new Employee(7, "Brielle Williamson", 900000, 61, ""))
+                .withoutEmployee(3, 4);
+
+        assertEquals(900000, snapshot.highestSalary());
+        assertEquals("Tiger Nixon", snapshot.topEarners(2).get(1).getName());
+    }
+
+    @Test
+    void testCollectorBuildsIndexedSnapshot() {
+        EmployeeSnapshot snapshot = employees.stream().collect(EmployeeSnapshot.collector(() -> 7));
+
+        assertEquals(7, snapshot.getVersion());
+        assertEquals(6, snapshot.size());
+        assertEquals(433060, snapshot.highestSalary());
+        assertEquals("Ashton Cox", snapshot.searchByName("ashton", 0, 10).get(0).getName());
+    }
+
+    @Test
+    void testEmployeesAfterPagesInIdOrder() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees).withEmployee(2, new Employee(0, "First Hire", 1, 20, ""));
+
+        List<Integer> firstPage = snapshot.employeesAfter(null, 3).map(Employee::getId).collect(Collectors.toList());
+        List<Integer> nextPage = snapshot.employeesAfter(2, 10).map(Employee::getId).collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(0, 1, 2), firstPage);
+        assertEquals(Arrays.asList(3, 4, 5, 6), nextPage);
+        assertEquals(0, snapshot.employeesAfter(6, 10).count());
+    }
+
+    @Test
+    void testQueryIntersectsSalaryAndAgeRanges() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+
+        List<Employee> matches = snapshot.query(new EmployeeQuery(100000, 350000, 30, 65, null, SortField.SALARY, true, 0, 10));
+
+        assertEquals(Arrays.asList(1, 2, 5), ids(matches));
+    }
+
+    @Test
+    void testQueryByNamePrefixInNameOrder() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+
+        assertEquals(Arrays.asList(3, 5), ids(snapshot.query(new EmployeeQuery(null, null, null, null, "a", SortField.NAME, true, 0, 10))));
+        assertEquals(Collections.singletonList(4), ids(snapshot.query(new EmployeeQuery(null, null, null, 30, "CED", SortField.ID, false, 0, 10))));
+    }
+
+    @Test
+    void testQueryPagesAndSkipsMissingValues() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+
+        assertEquals(Arrays.asList(5, 1), ids(snapshot.query(new EmployeeQuery(0, null, null, null, null, SortField.AGE, false, 1, 2))));
+        assertTrue(snapshot.query(new EmployeeQuery(500000, 100000, null, null, null, SortField.ID, false, 0, 10)).isEmpty());
+        assertEquals(6, snapshot.query(new EmployeeQuery()).size());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.query(new EmployeeQuery(null, null, null, null, null, SortField.ID, false, -1, 10)));
+    }
+
+    @Test
+    void testChangeCollectorReportsOnlyDifferences() {
+        EmployeeSnapshot snapshot = EmployeeSnapshot.of(1, employees);
+        List<Employee> incoming = Arrays.asList(
+                new Employee(1, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2, "Garrett Winters", 180000, 63, ""),
+                new Employee(3, "Ashton Cox", 86000, 66, ""),
+                new Employee(5, "Airi Satou", 170750, 33, ""),
+                new Employee(6, "No Salary", null, 40, ""),
+                new Employee(8, "Rhona Davidson", 327900, 55, ""));
+
+        EmployeeChangeSet changes = incoming.stream().collect(snapshot.changeCollector());
+
+        assertEquals(Collections.singletonList(incoming.get(5)), changes.getCreated());
+        assertEquals(Collections.singletonList(incoming.get(1)), changes.getUpdated());
+        assertEquals(Collections.singletonList(4), changes.getDeletedIds());
+        assertTrue(employees.stream().collect(snapshot.changeCollector()).isEmpty());
+    }
+
+    @Test
+    void testPatchedSnapshotMatchesRebuiltSnapshot() {
+        Random random = new Random(42);
+        TreeMap<Integer, Employee> roster = new TreeMap<>();
+        for (int id = 0; id < 2_000; id++) {
+            roster.put(id, new Employee(id, "Employee " + id, 1_000 + random.nextInt(500), 20 + random.nextInt(40), ""));
+        }
+        EmployeeSnapshot patched = EmployeeSnapshot.of(1, new ArrayList<>(roster.values()));
+
+        for (int round = 0; round < 20; round++) {
+            List<Employee> upserts = new ArrayList<>();
+            List<Integer> deletedIds = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int id = random.nextInt(2_500);
+                if (random.nextBoolean() && roster.containsKey(id)) {
+                    roster.remove(id);
+                    upserts.removeIf(e -> e.getId() == id);
+                    deletedIds.add(id);
+                } else {
+                    Integer salary = random.nextInt(10) == 0 ? null : 1_000 + random.nextInt(500);
+                    Employee employee = new Employee(id, "Renamed " + id, salary, 30, "x.png");
+                    roster.put(id, employee);
+                    deletedIds.remove((Integer) id);
+                    upserts.removeIf(e -> e.getId() == id);
+                    upserts.add(employee);
+                }
+            }
+            patched = patched.withChanges(round + 2, upserts, deletedIds);
+        }
+        EmployeeSnapshot rebuilt = EmployeeSnapshot.of(99, new ArrayList<>(roster.values()));
+
+        assertEquals(rebuilt.size(), patched.size());
+        assertEquals(rebuilt.highestSalary(), patched.highestSalary());
+        assertEquals(salaries(rebuilt.topEarners(500)), salaries(patched.topEarners(500)));
+        for (Employee employee : roster.values()) {
+            assertEquals(employee, patched.findById(employee.getId()).orElse(null));
+        }
+        assertEquals(rebuilt.searchByName("renamed 1", 0, 1000), patched.searchByName("renamed 1", 0, 1000));
+
+        EmployeeQuery query = new EmployeeQuery(1_100, 1_300, 25, 45, "ren", SortField.SALARY, true, 0, Integer.MAX_VALUE);
+        List<Employee> scanned = roster.values().stream()
+                .filter(e -> e.getSalary() != null && e.getSalary() >= 1_100 && e.getSalary() <= 1_300)
+                .filter(e -> e.getAge() >= 25 && e.getAge() <= 45 && e.getName().startsWith("Ren"))
+                .sorted(Comparator.comparing(Employee::getSalary).reversed().thenComparing(Employee::getId))
+                .collect(Collectors.toList());
+        assertFalse(scanned.isEmpty());
+        assertEquals(scanned, patched.query(query));
+        assertEquals(scanned, rebuilt.query(query));
+    }
+
+    private static List<Integer> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+
+    private static List<Integer> salaries(List<Employee> employees) {
+        return employees.stream().map(Employee::getSalary).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rqchallenge.employee.cache;
+
+import com.example.rqchallenge.employees.cache.NameSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameSearchIndexTest {
+
+    private NameSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = NameSearchIndex.build(
+                new int[]{3, 1, 2, 4},
+                new String[]{"Ashton Cox", "Tiger Nixon", "Garrett Winters", null});
+    }
+
+    @Test
+    void testSearchIsCaseInsensitive() {
+        assertArrayEquals(new int[]{1}, index.search("NIXON"));
+        assertArrayEquals(new int[]{2}, index.search("rett win"));
+    }
+
+    @Test
+    void testSearchReturnsIdsInAscendingOrder() {
+        assertArrayEquals(new int[]{1, 2, 3}, index.search("t"));
+    }
+
+    @Test
+    void testTrigramCandidatesAreVerified() {
+        NameSearchIndex scattered = NameSearchIndex.build(new int[]{7}, new String[]{"Abcd Bcde"});
+
+        // every trigram of "abcde" occurs in the name, but not as one contiguous substring
+        assertArrayEquals(new int[0], scattered.search("abcde"));
+        assertArrayEquals(new int[]{7}, scattered.search("bcd bc"));
+    }
+
+    @Test
+    void testShortQueriesScanFoldedNames() {
+        assertArrayEquals(new int[]{3}, index.search("co"));
+        assertArrayEquals(new int[]{1, 2, 3, 4}, index.search(""));
+    }
+
+    @Test
+    void testWithAddsAndReplacesNames() {
+        NameSearchIndex updated = index.with(5, "Cedric Kelly").with(1, "Tiger Woods");
+
+        assertArrayEquals(new int[]{5}, updated.search("kelly"));
+        assertArrayEquals(new int[0], updated.search("nixon"));
+        assertArrayEquals(new int[]{1}, updated.search("woods"));
+        assertArrayEquals(new int[]{1}, index.search("nixon"));
+    }
+
+    @Test
+    void testWithoutRemovesPostings() {
+        NameSearchIndex updated = index.without(3);
+
+        assertArrayEquals(new int[0], updated.search("cox"));
+        assertEquals(3, updated.size());
+        assertSame(updated, updated.without(42));
+    }
+}
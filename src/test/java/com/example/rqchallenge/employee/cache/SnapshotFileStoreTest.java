@@ -0,0 +1,107 @@
+package com.example.rqchallenge.employee.cache;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cache.SnapshotFileStore;
+import com.example.rqchallenge.employees.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotFileStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Employee> employees = Arrays.asList(
+            new Employee(1, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2, "Jane Smith", 500000, 30, "https://example.com/jane.png"),
+            new Employee(3, "Zo\u00eb \u00c5ngstr\u00f6m", null, null, null));
+
+    @Test
+    void testRoundTrip() throws IOException {
+        SnapshotFileStore store = new SnapshotFileStore(directory.resolve("snapshot.bin"));
+        EmployeeSnapshot saved = EmployeeSnapshot.of(42, employees);
+
+        store.save(saved);
+        EmployeeSnapshot loaded = store.load().orElseThrow();
+
+        assertEquals(42, loaded.getVersion());
+        assertEquals(saved.getCreatedAt().toEpochMilli(), loaded.getCreatedAt().toEpochMilli());
+        assertEquals(employees, loaded.getEmployees());
+        assertEquals(500000, loaded.highestSalary());
+        assertEquals("Zo\u00eb \u00c5ngstr\u00f6m", loaded.searchByName("\u00e5ngs", 0, 10).get(0).getName());
+    }
+
+    @Test
+    void testConfiguredDirectoryIsRequired() {
+        assertEquals(directory.resolve("employee-snapshot.bin"), new SnapshotFileStore(directory.toString()).getPath());
+        assertThrows(IllegalStateException.class, () -> new SnapshotFileStore(""));
+    }
+
+    @Test
+    void testMissingFileLoadsNothing() {
+        assertEquals(Optional.empty(), new SnapshotFileStore(directory.resolve("absent.bin")).load());
+    }
+
+    @Test
+    void testCorruptFileIsIgnored() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        SnapshotFileStore store = new SnapshotFileStore(file);
+        store.save(EmployeeSnapshot.of(1, employees));
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+
+        assertFalse(store.load().isPresent());
+    }
+
+    @Test
+    void testTruncatedFileIsIgnored() throws IOException {
+        Path file = directory.resolve("snapshot.bin");
+        SnapshotFileStore store = new SnapshotFileStore(file);
+        store.save(EmployeeSnapshot.of(1, employees));
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertFalse(store.load().isPresent());
+    }
+
+    @Test
+    void testSaveReplacesPreviousSnapshot() throws IOException {
+        SnapshotFileStore store = new SnapshotFileStore(directory.resolve("nested").resolve("snapshot.bin"));
+        store.save(EmployeeSnapshot.of(1, employees));
+        store.save(EmployeeSnapshot.of(2, employees.subList(0, 1)));
+
+        EmployeeSnapshot loaded = store.load().orElseThrow();
+
+        assertEquals(2, loaded.getVersion());
+        assertEquals(1, loaded.size());
+        assertEquals(1, Files.list(directory.resolve("nested")).count());
+    }
+
+    @Test
+    void testStreamEncodingRoundTripsAndRejectsCorruptBytes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SnapshotFileStore.write(EmployeeSnapshot.of(7, employees), out);
+        byte[] bytes = out.toByteArray();
+
+        EmployeeSnapshot read = SnapshotFileStore.read(ByteBuffer.wrap(bytes));
+        assertEquals(7, read.getVersion());
+        assertEquals(employees, read.getEmployees());
+
+        bytes[bytes.length / 2] ^= 0x5A;
+        assertThrows(SnapshotFileStore.InvalidSnapshotException.class, () -> SnapshotFileStore.read(ByteBuffer.wrap(bytes)));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.rqchallenge.employee.cluster;
+
+import com.example.rqchallenge.config.ClusterProperties;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cluster.ClusterMembership;
+import com.example.rqchallenge.employees.cluster.PeerClient;
+import com.example.rqchallenge.employees.model.ClusterStatus;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.upstream.ConditionalFetch;
+import com.example.rqchallenge.employees.upstream.UpstreamValidators;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterMembershipTest {
+
+    private static final String NODE_1 = "http://localhost:8081";
+    private static final String NODE_2 = "http://localhost:8082";
+    private static final String NODE_3 = "http://localhost:8083";
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final FakePeers peers = new FakePeers();
+    private ClusterProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ClusterProperties();
+        properties.setMembers(Arrays.asList(NODE_1, NODE_2 + "/", NODE_3));
+        properties.setFailureTimeout(Duration.ofSeconds(5));
+        peers.down.clear();
+    }
+
+    @Test
+    void testLowestMemberUpLeads() {
+        ClusterMembership node1 = member(NODE_1);
+        ClusterMembership node2 = member(NODE_2);
+
+        assertTrue(node1.refreshesFromUpstream());
+        assertFalse(node2.refreshesFromUpstream());
+        assertEquals(NODE_1, node2.getLeader());
+    }
+
+    @Test
+    void testNextMemberTakesOverOnceLeaderStopsAnswering() {
+        ClusterMembership node2 = member(NODE_2);
+        ClusterMembership node3 = member(NODE_3);
+        peers.down.add(NODE_1);
+
+        advance(Duration.ofSeconds(3));
+        node2.heartbeat();
+        node3.heartbeat();
+        assertEquals(NODE_1, node2.getLeader());
+
+        advance(Duration.ofSeconds(3));
+        node2.heartbeat();
+        node3.heartbeat();
+        assertTrue(node2.refreshesFromUpstream());
+        assertEquals(NODE_2, node3.getLeader());
+
+        peers.down.clear();
+        node2.heartbeat();
+        assertEquals(NODE_1, node2.getLeader());
+    }
+
+    @Test
+    void testReplicaIsFetchedFromLeaderOnlyWhenChanged() {
+        ClusterMembership node2 = member(NODE_2);
+        ClusterMembership node1 = member(NODE_1);
+
+        Optional<EmployeeSnapshot> first = node2.fetchReplica();
+        Optional<EmployeeSnapshot> unchanged = node2.fetchReplica();
+        peers.version = 2;
+        Optional<EmployeeSnapshot> changed = node2.fetchReplica();
+
+        assertEquals(1, first.orElseThrow().getVersion());
+        assertFalse(unchanged.isPresent());
+        assertEquals(2, changed.orElseThrow().getVersion());
+        assertEquals(Arrays.asList("none", "\"1\"", "\"1\""), peers.sentEtags);
+        assertFalse(node1.fetchReplica().isPresent());
+        assertEquals(3, peers.sentEtags.size());
+    }
+
+    @Test
+    void testUnreachableLeaderYieldsNoReplica() {
+        ClusterMembership node2 = member(NODE_2);
+        peers.down.add(NODE_1);
+
+        assertFalse(node2.fetchReplica().isPresent());
+    }
+
+    private ClusterMembership member(String self) {
+        properties.setSelfUrl(self);
+        return new ClusterMembership(properties, peers, nanos::get);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    // members answer unless listed as down; the leader serves a one-employee snapshot at the current version
+    private static final class FakePeers extends PeerClient {
+        final Set<String> down = new HashSet<>();
+        final List<String> sentEtags = new ArrayList<>();
+        long version = 1;
+
+        FakePeers() {
+            super(Duration.ofSeconds(1));
+        }
+
+        @Override
+        public ClusterStatus status(String member) {
+            if (down.contains(member)) {
+                throw new ResourceAccessException("Connection refused");
+            }
+            return new ClusterStatus(member, NODE_1, version);
+        }
+
+        @Override
+        public ConditionalFetch<EmployeeSnapshot> snapshot(String member, UpstreamValidators validators) {
+            if (down.contains(member)) {
+                throw new ResourceAccessException("Connection refused");
+            }
+            sentEtags.add(validators.getEtag() == null ? "none" : validators.getEtag());
+            UpstreamValidators current = new UpstreamValidators("\"" + version + "\"", null);
+            if (current.getEtag().equals(validators.getEtag())) {
+                return ConditionalFetch.notModified(current);
+            }
+            return ConditionalFetch.modified(EmployeeSnapshot.of(version,
+                    Collections.singletonList(new Employee(1, "Tiger Nixon", 320800, 61, ""))), current);
+        }
+    }
+}
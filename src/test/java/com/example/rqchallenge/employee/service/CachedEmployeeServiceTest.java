@@ -0,0 +1,140 @@
+package com.example.rqchallenge.employee.service;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.model.BulkItemResult;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.EmployeeAnalytics;
+import com.example.rqchallenge.employees.service.impl.CachedEmployeeService;
+import com.example.rqchallenge.employees.service.impl.EmployeeServiceImpl;
+import com.example.rqchallenge.employees.upstream.ConditionalFetch;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import com.example.rqchallenge.employees.upstream.UpstreamValidators;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collector;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CachedEmployeeServiceTest {
+
+    @Mock
+    private EmployeeServiceImpl remote;
+
+    private EmployeeSnapshotCache cache;
+    private CachedEmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        cache = new EmployeeSnapshotCache(remote);
+        employeeService = new CachedEmployeeService(remote, cache);
+        when(remote.collectAllEmployees(any(), any(), any())).thenAnswer(roster(Arrays.asList(
+                new Employee(1, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2, "Jane Smith", 500000, 30, ""))));
+    }
+
+    @Test
+    void testReadsAreServedFromOneSnapshotLoad() {
+        assertEquals(500000, employeeService.getHighestSalary());
+        assertEquals(Collections.singletonList("Jane Smith"), employeeService.getTopEarningEmployeeNames(1));
+        assertEquals(1, employeeService.searchEmployeesByName("nixon").size());
+        assertEquals("Jane Smith", employeeService.getEmployeeById("2").get().getName());
+
+        verify(remote, times(1)).collectAllEmployees(eq(Priority.INTERACTIVE), any(), any());
+        verify(remote, never()).getEmployeeById(anyString());
+    }
+
+    @Test
+    void testLookupMissPassesOnUpstreamUnavailable() {
+        when(remote.getEmployeeById("3")).thenThrow(new UpstreamUnavailableException("shedding", Duration.ofSeconds(5)));
+
+        assertTrue(employeeService.getEmployeeById("1").isPresent());
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.getEmployeeById("3"));
+    }
+
+    @Test
+    void testOnlySnapshotRecordsCarryTheRosterVersion() {
+        Employee remoteOnly = new Employee(3, "Ashton Cox", 86000, 66, "");
+        when(remote.getEmployeeById("3")).thenReturn(Optional.of(remoteOnly));
+
+        assertTrue(employeeService.getRosterVersionOf(employeeService.getEmployeeById("1").get()).isPresent());
+        assertFalse(employeeService.getRosterVersionOf(employeeService.getEmployeeById("3").get()).isPresent());
+        assertFalse(employeeService.getRosterVersionOf(new Employee(1, "Tiger Nixon", 1, 61, "")).isPresent());
+    }
+
+    @Test
+    void testDeleteResolvesNameFromSnapshot() {
+        cache.get();
+        when(remote.deleteKnownEmployee("1", "Tiger Nixon")).thenReturn("Tiger Nixon");
+
+        assertEquals("Tiger Nixon", employeeService.deleteEmployeeById("1"));
+
+        verify(remote, never()).getEmployeeById(anyString());
+        assertFalse(cache.get().findById(1).isPresent());
+    }
+
+    @Test
+    void testBulkDeletePassesSnapshotNamesAndPatchesSnapshot() {
+        Map<String, String> knownNames = new HashMap<>();
+        knownNames.put("1", "Tiger Nixon");
+        knownNames.put("2", "Jane Smith");
+        List<String> ids = Arrays.asList("1", "2", "3");
+        when(remote.deleteEmployeesByIds(ids, knownNames)).thenReturn(Arrays.asList(
+                BulkItemResult.deleted(0, "1", "Tiger Nixon"),
+                BulkItemResult.deleted(1, "2", "Jane Smith"),
+                BulkItemResult.failed(2, "3", "Employee not found for ID: 3")));
+
+        List<BulkItemResult> results = employeeService.deleteEmployeesByIds(ids);
+
+        assertEquals(3, results.size());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals(0, cache.get().size());
+    }
+
+    @Test
+    void testBulkCreatePatchesSnapshot() {
+        cache.get();
+        Employee created = new Employee(3, "Ashton Cox", 86000, 66, "");
+        when(remote.createEmployees(anyList())).thenReturn(Collections.singletonList(BulkItemResult.created(0, created)));
+
+        employeeService.createEmployees(Collections.singletonList(new HashMap<>()));
+
+        assertTrue(cache.get().findById(3).isPresent());
+        assertEquals(1, employeeService.searchEmployeesByName("ashton").size());
+    }
+
+    @Test
+    void testAnalyticsAreCachedPerSnapshotVersion() {
+        EmployeeAnalytics first = employeeService.getAnalytics(100_000);
+
+        assertSame(first, employeeService.getAnalytics(100_000));
+        assertEquals(2, first.getSalary().getCount());
+
+        cache.applyDeleted(1);
+        EmployeeAnalytics afterDelete = employeeService.getAnalytics(100_000);
+
+        assertNotSame(first, afterDelete);
+        assertEquals(1, afterDelete.getSalary().getCount());
+        assertNotSame(afterDelete, employeeService.getAnalytics(50_000));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Answer<Object> roster(List<Employee> employees) {
+        return invocation -> ConditionalFetch.modified(employees.stream().collect(invocation.getArgument(1, Collector.class)),
+                UpstreamValidators.NONE);
+    }
+}
@@ -1,24 +1,44 @@
 package com.example.rqchallenge.employee.service;
 
+import com.example.rqchallenge.config.LookupCacheProperties;
+import com.example.rqchallenge.config.UpstreamProperties;
+import com.example.rqchallenge.employees.cache.EmployeeLookupCache;
+import com.example.rqchallenge.employees.exception.InvalidRequestException;
 import com.example.rqchallenge.employees.model.ApiResponse;
+import com.example.rqchallenge.employees.model.BatchGetResponse;
+import com.example.rqchallenge.employees.model.BulkItemResult;
 import com.example.rqchallenge.employees.model.Employee;
 import com.example.rqchallenge.employees.service.impl.EmployeeServiceImpl;
+import com.example.rqchallenge.employees.support.EmployeeMetrics;
+import com.example.rqchallenge.employees.upstream.ConditionalFetch;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import com.example.rqchallenge.employees.upstream.UpstreamValidators;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
 import static org.mockito.Mockito.*;
 
 class EmployeeServiceImplTest {
@@ -26,7 +46,6 @@ class EmployeeServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
     private EmployeeServiceImpl employeeService;
 
     private Employee employee1;
@@ -35,6 +54,10 @@ class EmployeeServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        employeeService = new EmployeeServiceImpl(restTemplate, properties, Executors.newFixedThreadPool(2),
+                new UpstreamCallScheduler(properties));
         employee1 = new Employee();
         employee1.setId(1);
         employee1.setName("Tiger Nixon");
@@ -68,6 +91,23 @@ class EmployeeServiceImplTest {
         verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class));
     }
 
+    @Test
+    void testUsesConfiguredBaseUrl() {
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.setBaseUrl("http://localhost:8081/api/v1");
+        EmployeeServiceImpl localService = new EmployeeServiceImpl(restTemplate, properties, Executors.newFixedThreadPool(2),
+                new UpstreamCallScheduler(properties));
+        ApiResponse<Employee> apiResponse = new ApiResponse<>();
+        apiResponse.setData(employee1);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(apiResponse, HttpStatus.OK));
+
+        localService.getEmployeeById("1");
+
+        verify(restTemplate).exchange(eq("http://localhost:8081/api/v1/employee/1"), eq(HttpMethod.GET), eq(null),
+                any(ParameterizedTypeReference.class));
+    }
+
     @Test
     void testSearchEmployeesByName() {
         ApiResponse<List<Employee>> apiResponse = new ApiResponse<>();
@@ -143,6 +183,26 @@ class EmployeeServiceImplTest {
         assertEquals("Jane Smith", topEarners.get(0));
     }
 
+    @Test
+    void testGetTopEarningEmployeeNames() {
+        ApiResponse<List<Employee>> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus("success");
+        apiResponse.setData(Arrays.asList(employee1, employee2));
+        apiResponse.setMessage("Successfully! Record has been fetched.");
+
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(apiResponse, HttpStatus.OK));
+
+        List<String> topEarners = employeeService.getTopEarningEmployeeNames(1);
+
+        assertEquals(Collections.singletonList("Jane Smith"), topEarners);
+    }
+
+    @Test
+    void testGetTopEarningEmployeeNames_NegativeCount() {
+        assertThrows(InvalidRequestException.class, () -> employeeService.getTopEarningEmployeeNames(-1));
+    }
+
     @Test
     void testCreateEmployee() {
         ApiResponse<Employee> apiResponse = new ApiResponse<>();
@@ -190,4 +250,125 @@ class EmployeeServiceImplTest {
         verify(restTemplate, times(1)).delete(anyString());
     }
 
+    @Test
+    void testLookupCacheServesRepeatedReadsAndTracksDeletes() {
+        UpstreamProperties properties = new UpstreamProperties();
+        EmployeeServiceImpl cachingService = new EmployeeServiceImpl(restTemplate, properties, Executors.newFixedThreadPool(2),
+                new UpstreamCallScheduler(properties), EmployeeMetrics.noop(),
+                new EmployeeLookupCache(new LookupCacheProperties(), Runnable::run, EmployeeMetrics.noop(), System::nanoTime));
+        ApiResponse<Employee> apiResponse = new ApiResponse<>();
+        apiResponse.setData(employee1);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(apiResponse, HttpStatus.OK));
+
+        assertEquals(Optional.of(employee1), cachingService.getEmployeeById("1"));
+        assertEquals("Tiger Nixon", cachingService.deleteEmployeeById("1"));
+        assertFalse(cachingService.getEmployeeById("1").isPresent());
+
+        verify(restTemplate, times(1)).exchange(anyString(), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class));
+        verify(restTemplate, times(1)).delete(anyString());
+    }
+
+    @Test
+    void testGetEmployeesByIds() {
+        ApiResponse<Employee> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus("success");
+        apiResponse.setData(employee1);
+        apiResponse.setMessage("Successfully! Record has been fetched.");
+
+        when(restTemplate.exchange(endsWith("/employee/1"), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(apiResponse, HttpStatus.OK));
+        when(restTemplate.exchange(endsWith("/employee/2"), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+        when(restTemplate.exchange(endsWith("/employee/3"), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS));
+
+        BatchGetResponse response = employeeService.getEmployeesByIds(Arrays.asList("1", "2", "3", "1"));
+
+        assertEquals(1, response.getEmployees().size());
+        assertEquals("Tiger Nixon", response.getEmployees().get(0).getName());
+        assertEquals(Collections.singletonList("2"), response.getNotFound());
+        assertTrue(response.getErrors().containsKey("3"));
+        verify(restTemplate, times(1)).exchange(endsWith("/employee/1"), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void testDeleteEmployeesByIdsSkipsLookupForKnownNames() {
+        ApiResponse<Employee> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus("success");
+        apiResponse.setData(employee2);
+        when(restTemplate.exchange(endsWith("/employee/2"), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(apiResponse, HttpStatus.OK));
+        doNothing().when(restTemplate).delete(anyString());
+        doThrow(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)).when(restTemplate).delete(endsWith("/delete/2"));
+
+        List<BulkItemResult> results = employeeService.deleteEmployeesByIds(
+                Arrays.asList("1", "2"), Collections.singletonMap("1", "Tiger Nixon"));
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("Tiger Nixon", results.get(0).getName());
+        assertFalse(results.get(1).isSuccess());
+        verify(restTemplate, times(1)).exchange(endsWith("/employee/2"), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class));
+        verify(restTemplate, never()).exchange(endsWith("/employee/1"), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void testGetAllEmployeesRetriesServerErrors() {
+        ApiResponse<List<Employee>> apiResponse = new ApiResponse<>();
+        apiResponse.setStatus("success");
+        apiResponse.setData(Arrays.asList(employee1, employee2));
+
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+                .thenReturn(new ResponseEntity<>(apiResponse, HttpStatus.OK));
+
+        List<Employee> employees = employeeService.getAllEmployees();
+
+        assertEquals(2, employees.size());
+        verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), eq(null), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void testCollectAllEmployeesSendsValidatorsAndSkipsBodyWhenNotModified() {
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED);
+        response.getHeaders().setETag("\"roster-2\"");
+        stubExecute(request, response);
+
+        ConditionalFetch<List<Employee>> fetch = employeeService.collectAllEmployees(Priority.BACKGROUND,
+                Collectors.toList(), new UpstreamValidators("\"roster-1\"", "Wed, 21 Oct 2015 07:28:00 GMT"));
+
+        assertFalse(fetch.isModified());
+        assertNull(fetch.getBody());
+        assertEquals("\"roster-2\"", fetch.getValidators().getEtag());
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", fetch.getValidators().getLastModified());
+        assertEquals(Collections.singletonList("\"roster-1\""), request.getHeaders().getIfNoneMatch());
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", request.getHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    @Test
+    void testCollectAllEmployeesReturnsBodyAndValidatorsWhenModified() {
+        MockClientHttpRequest request = new MockClientHttpRequest();
+        MockClientHttpResponse response = new MockClientHttpResponse(
+                "{\"data\":[{\"id\":1,\"employee_name\":\"Tiger Nixon\"}]}".getBytes(), HttpStatus.OK);
+        response.getHeaders().setETag("\"roster-2\"");
+        stubExecute(request, response);
+
+        ConditionalFetch<List<Employee>> fetch = employeeService.collectAllEmployees(Priority.BACKGROUND,
+                Collectors.toList(), UpstreamValidators.NONE);
+
+        assertTrue(fetch.isModified());
+        assertEquals("Tiger Nixon", fetch.getBody().get(0).getName());
+        assertEquals("\"roster-2\"", fetch.getValidators().getEtag());
+        assertNull(request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubExecute(MockClientHttpRequest request, MockClientHttpResponse response) {
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, RequestCallback.class).doWithRequest(request);
+                    return invocation.getArgument(3, ResponseExtractor.class).extractData(response);
+                });
+    }
 }
@@ -0,0 +1,102 @@
+package com.example.rqchallenge.employee.service;
+
+import com.example.rqchallenge.employees.exception.RemoteApiException;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.service.impl.ReactiveEmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveEmployeeServiceImplTest {
+
+    private static final String EMPLOYEES_JSON = "{\"status\":\"success\",\"data\":["
+            + "{\"id\":1,\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800,\"employee_age\":61,\"profile_image\":\"\"},"
+            + "{\"id\":2,\"employee_name\":\"Jane Smith\",\"employee_salary\":500000,\"employee_age\":30,\"profile_image\":\"\"}"
+            + "],\"message\":\"Successfully! Record has been fetched.\"}";
+
+    private ReactiveEmployeeServiceImpl employeeService;
+
+    @BeforeEach
+    void setUp() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    String path = request.url().getPath();
+                    if (path.equals("/employees")) {
+                        return Mono.just(json(HttpStatus.OK, EMPLOYEES_JSON));
+                    }
+                    if (path.equals("/employee/1")) {
+                        return Mono.just(json(HttpStatus.OK, "{\"status\":\"success\",\"data\":"
+                                + "{\"id\":1,\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800,\"employee_age\":61,\"profile_image\":\"\"}}"));
+                    }
+                    if (path.equals("/employee/500")) {
+                        return Mono.just(json(HttpStatus.INTERNAL_SERVER_ERROR, "{}"));
+                    }
+                    return Mono.just(json(HttpStatus.NOT_FOUND, "{}"));
+                })
+                .build();
+        employeeService = new ReactiveEmployeeServiceImpl(webClient);
+    }
+
+    @Test
+    void testGetAllEmployees() {
+        List<Employee> employees = employeeService.getAllEmployees().collectList().block();
+
+        assertEquals(2, employees.size());
+        assertEquals("Tiger Nixon", employees.get(0).getName());
+    }
+
+    @Test
+    void testSearchEmployeesByName() {
+        List<Employee> employees = employeeService.searchEmployeesByName("jane", 0, 10).collectList().block();
+
+        assertEquals(1, employees.size());
+        assertEquals("Jane Smith", employees.get(0).getName());
+    }
+
+    @Test
+    void testGetHighestSalaryAndTopEarners() {
+        assertEquals(500000, (int) employeeService.getHighestSalary().block());
+        assertEquals(Arrays.asList("Jane Smith", "Tiger Nixon"), employeeService.getTopEarningEmployeeNames(10).collectList().block());
+    }
+
+    @Test
+    void testGetTopEarners_SkipsNullSalary() {
+        String body = "{\"status\":\"success\",\"data\":["
+                + "{\"id\":1,\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800,\"employee_age\":61,\"profile_image\":\"\"},"
+                + "{\"id\":3,\"employee_name\":\"No Salary\",\"employee_salary\":null,\"employee_age\":40,\"profile_image\":\"\"}"
+                + "]}";
+        ReactiveEmployeeServiceImpl service = new ReactiveEmployeeServiceImpl(WebClient.builder()
+                .exchangeFunction(request -> Mono.just(json(HttpStatus.OK, body)))
+                .build());
+
+        assertEquals(List.of("Tiger Nixon"), service.getTopEarningEmployeeNames(10).collectList().block());
+    }
+
+    @Test
+    void testGetEmployeeById() {
+        assertEquals("Tiger Nixon", employeeService.getEmployeeById("1").block().getName());
+        assertNull(employeeService.getEmployeeById("2").block());
+    }
+
+    @Test
+    void testGetEmployeeById_ServerError() {
+        assertThrows(RemoteApiException.class, () -> employeeService.getEmployeeById("500").block());
+    }
+
+    private static ClientResponse json(HttpStatus status, String body) {
+        return ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.rqchallenge.employee.support;
+
+import com.example.rqchallenge.employees.support.SerializedPayloadCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedPayloadCacheTest {
+
+    private final SerializedPayloadCache cache = new SerializedPayloadCache(new ObjectMapper());
+
+    @Test
+    void testSerializesOncePerVersion() {
+        AtomicInteger serializations = new AtomicInteger();
+
+        SerializedPayloadCache.Payload first = cache.get("names", 1, () -> {
+            serializations.incrementAndGet();
+            return Arrays.asList("Tiger Nixon", "Jane Smith");
+        });
+        SerializedPayloadCache.Payload second = cache.get("names", 1, () -> {
+            serializations.incrementAndGet();
+            return Arrays.asList("not", "used");
+        });
+
+        assertSame(first, second);
+        assertEquals(1, serializations.get());
+        assertEquals("[\"Tiger Nixon\",\"Jane Smith\"]", new String(first.json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNewerVersionReplacesOlderOne() {
+        cache.get("names", 1, () -> Arrays.asList("Tiger Nixon"));
+        SerializedPayloadCache.Payload newer = cache.get("names", 2, () -> Arrays.asList("Jane Smith"));
+        cache.get("names", 1, () -> Arrays.asList("stale"));
+
+        assertSame(newer, cache.get("names", 2, () -> Arrays.asList("not", "used")));
+    }
+
+    @Test
+    void testGzipVariantDecompressesToJson() throws IOException {
+        SerializedPayloadCache.Payload payload = cache.get("names", 1, () -> Arrays.asList("Tiger Nixon", "Jane Smith"));
+
+        byte[] gzip = payload.gzip();
+
+        assertSame(gzip, payload.gzip());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertArrayEquals(payload.json(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void testNamesAreCachedIndependently() {
+        cache.get("names", 1, () -> Arrays.asList("Tiger Nixon"));
+        SerializedPayloadCache.Payload other = cache.get("salaries", 1, () -> Arrays.asList(320800));
+
+        assertEquals("[320800]", new String(other.json(), StandardCharsets.UTF_8));
+    }
+}
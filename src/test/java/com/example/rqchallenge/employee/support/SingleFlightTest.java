@@ -0,0 +1,74 @@
+package com.example.rqchallenge.employee.support;
+
+import com.example.rqchallenge.employees.support.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>();
+
+    @Test
+    void testConcurrentCallsShareOneExecution() throws Exception {
+        int callers = 8;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flight.execute("employees", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "roster";
+                })));
+            }
+            while (flight.inFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("roster", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+            assertEquals(0, flight.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailureIsPropagatedAndNotRemembered() {
+        assertThrows(IllegalStateException.class, () -> flight.execute("employees", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+
+        assertEquals("roster", flight.execute("employees", () -> "roster"));
+    }
+
+    @Test
+    void testDifferentKeysDoNotShare() {
+        assertEquals("1", flight.execute("1", () -> "1"));
+        assertEquals("2", flight.execute("2", () -> "2"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
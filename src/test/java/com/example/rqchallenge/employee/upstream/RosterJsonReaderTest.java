@@ -0,0 +1,93 @@
+package com.example.rqchallenge.employee.upstream;
+
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.upstream.RosterJsonReader;
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RosterJsonReaderTest {
+
+    @Test
+    void testReadsDataArrayIntoCollector() throws IOException {
+        String json = "{\"status\":\"success\",\"data\":["
+                + "{\"id\":1,\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800,\"employee_age\":61,\"profile_image\":\"\"},"
+                + "{\"id\":2,\"employee_name\":\"Jane Smith\",\"employee_salary\":500000,\"employee_age\":30,\"profile_image\":\"\"}"
+                + "],\"message\":\"Successfully! All records has been fetched.\"}";
+
+        List<Employee> employees = RosterJsonReader.read(body(json), Collectors.toList());
+
+        assertEquals(2, employees.size());
+        assertEquals(new Employee(1, "Tiger Nixon", 320800, 61, ""), employees.get(0));
+        assertEquals("Jane Smith", employees.get(1).getName());
+    }
+
+    @Test
+    void testCoercesStringNumbersAndSkipsUnknownFields() throws IOException {
+        String json = "{\"data\":[{\"id\":\"7\",\"employee_name\":\"Ashton Cox\",\"employee_salary\":\"86000\","
+                + "\"employee_age\":null,\"extra\":{\"nested\":[1,2]}}],\"status\":\"success\"}";
+
+        List<Employee> employees = RosterJsonReader.read(body(json), Collectors.toList());
+
+        assertEquals(new Employee(7, "Ashton Cox", 86000, null, null), employees.get(0));
+    }
+
+    @Test
+    void testEmptyDataArrayYieldsEmptyResult() throws IOException {
+        long count = RosterJsonReader.read(body("{\"status\":\"success\",\"data\":[]}"), Collectors.counting());
+
+        assertEquals(0, count);
+    }
+
+    @Test
+    void testRejectsBodyWithoutData() {
+        assertThrows(JsonParseException.class, () -> RosterJsonReader.read(body("{\"status\":\"failed\"}"), Collectors.toList()));
+    }
+
+    @Test
+    void testRejectsNullData() {
+        assertThrows(JsonParseException.class,
+                () -> RosterJsonReader.read(body("{\"status\":\"failure\",\"data\":null}"), Collectors.toList()));
+    }
+
+    @Test
+    void testRejectsNonArrayData() {
+        assertThrows(JsonParseException.class,
+                () -> RosterJsonReader.read(body("{\"status\":\"success\",\"data\":{\"id\":1}}"), Collectors.toList()));
+    }
+
+    @Test
+    void testRejectsNullElement() {
+        assertThrows(JsonParseException.class,
+                () -> RosterJsonReader.read(body("{\"data\":[{\"id\":1},null,{\"id\":2}]}"), Collectors.toList()));
+    }
+
+    @Test
+    void testRejectsNonObjectElement() {
+        assertThrows(JsonParseException.class,
+                () -> RosterJsonReader.read(body("{\"data\":[{\"id\":1},\"two\"]}"), Collectors.toList()));
+    }
+
+    @Test
+    void testRejectsTruncatedArray() {
+        assertThrows(JsonParseException.class,
+                () -> RosterJsonReader.read(body("{\"data\":[{\"id\":1},"), Collectors.toList()));
+    }
+
+    @Test
+    void testRejectsNonObjectBody() {
+        assertThrows(JsonParseException.class, () -> RosterJsonReader.read(body("[]"), Collectors.toList()));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
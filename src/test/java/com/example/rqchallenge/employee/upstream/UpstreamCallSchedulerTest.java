@@ -0,0 +1,244 @@
+package com.example.rqchallenge.employee.upstream;
+
+import com.example.rqchallenge.config.UpstreamProperties;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.support.EmployeeMetrics;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Operation;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamCallSchedulerTest {
+
+    private UpstreamProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UpstreamProperties();
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(5));
+    }
+
+    @Test
+    void testRetriesServerErrorsUntilSuccess() {
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = scheduler.call(Operation.GET, Priority.INTERACTIVE, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testDoesNotRetryCreateAfterServerErrorOrReadTimeout() {
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(HttpServerErrorException.class, () -> scheduler.run(Operation.CREATE, Priority.INTERACTIVE, () -> {
+            calls.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+        assertThrows(ResourceAccessException.class, () -> scheduler.run(Operation.CREATE, Priority.INTERACTIVE, () -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out"));
+        }));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testRetriesCreateThatWasThrottledOrNeverConnected() {
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = scheduler.call(Operation.CREATE, Priority.INTERACTIVE, () -> {
+            int call = calls.incrementAndGet();
+            if (call == 1) {
+                throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS);
+            }
+            if (call == 2) {
+                throw new ResourceAccessException("Connection refused", new ConnectException("Connection refused"));
+            }
+            return "created";
+        });
+
+        assertEquals("created", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testRetriesDeleteAfterReadTimeout() {
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+        AtomicInteger calls = new AtomicInteger();
+
+        scheduler.run(Operation.DELETE, Priority.INTERACTIVE, () -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out"));
+            }
+        });
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testRecordsAttemptsRetriesAndThrottling() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties, new EmployeeMetrics(registry));
+        AtomicInteger calls = new AtomicInteger();
+
+        scheduler.call(Operation.LIST, Priority.INTERACTIVE, () -> {
+            if (calls.incrementAndGet() < 2) {
+                throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS);
+            }
+            return "ok";
+        });
+
+        assertEquals(1, registry.get("employees.upstream.requests").tags("operation", "list", "status", "429").timer().count());
+        assertEquals(1, registry.get("employees.upstream.requests").tags("operation", "list", "status", "2xx").timer().count());
+        assertEquals(1.0, registry.get("employees.upstream.retries").tag("operation", "list").counter().count());
+        assertEquals(1.0, registry.get("employees.upstream.throttled").tag("operation", "list").counter().count());
+        assertEquals(0.0, registry.get("employees.upstream.retries").tag("operation", "get").counter().count());
+    }
+
+    @Test
+    void testDoesNotRetryClientErrors() {
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.class, () -> scheduler.call(Operation.GET, Priority.INTERACTIVE, () -> {
+            calls.incrementAndGet();
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testRetryAfterBeyondMaxBackoffFailsWithoutRetrying() {
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+        AtomicInteger calls = new AtomicInteger();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "30");
+
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class,
+                () -> scheduler.call(Operation.GET, Priority.INTERACTIVE, () -> {
+                    calls.incrementAndGet();
+                    throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null);
+                }));
+
+        assertEquals(1, calls.get());
+        assertEquals(Duration.ofSeconds(30), e.getRetryAfter());
+    }
+
+    @Test
+    void testCircuitOpensAndFailsFast() {
+        properties.setMaxAttempts(1);
+        properties.setCircuitFailureThreshold(2);
+        properties.setCircuitOpenDuration(Duration.ofMinutes(1));
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(HttpClientErrorException.class, () -> scheduler.call(Operation.GET, Priority.INTERACTIVE, () -> {
+                calls.incrementAndGet();
+                throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS);
+            }));
+        }
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class,
+                () -> scheduler.call(Operation.GET, Priority.INTERACTIVE, calls::incrementAndGet));
+
+        assertTrue(scheduler.isCircuitOpen());
+        assertEquals(2, calls.get());
+        assertTrue(e.getRetryAfter().compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    void testRecordsRejectedCalls() {
+        properties.setMaxAttempts(1);
+        properties.setCircuitFailureThreshold(1);
+        properties.setCircuitOpenDuration(Duration.ofMinutes(1));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties, new EmployeeMetrics(registry));
+
+        assertThrows(HttpServerErrorException.class, () -> scheduler.run(Operation.CREATE, Priority.INTERACTIVE, () -> {
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+        assertThrows(UpstreamUnavailableException.class, () -> scheduler.call(Operation.CREATE, Priority.INTERACTIVE, () -> "ok"));
+
+        assertEquals(1, registry.get("employees.upstream.requests").tags("operation", "create", "status", "5xx").timer().count());
+        assertEquals(1.0, registry.get("employees.upstream.rejected").tags("operation", "create", "reason", "circuit_open").counter().count());
+    }
+
+    @Test
+    void testTrialCallClosesCircuit() throws InterruptedException {
+        properties.setMaxAttempts(1);
+        properties.setCircuitFailureThreshold(1);
+        properties.setCircuitOpenDuration(Duration.ofMillis(20));
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+
+        assertThrows(HttpServerErrorException.class, () -> scheduler.run(Operation.DELETE, Priority.INTERACTIVE, () -> {
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+        }));
+        assertTrue(scheduler.isCircuitOpen());
+        Thread.sleep(30);
+
+        assertEquals("ok", scheduler.call(Operation.GET, Priority.INTERACTIVE, () -> "ok"));
+        assertFalse(scheduler.isCircuitOpen());
+    }
+
+    @Test
+    void testTrialCallThatTimesOutOnBudgetReopensCircuit() throws InterruptedException {
+        properties.setMaxAttempts(1);
+        properties.setCircuitFailureThreshold(1);
+        properties.setCircuitOpenDuration(Duration.ofMillis(20));
+        properties.setBurst(1);
+        properties.setRequestsPerSecond(10);
+        properties.setAcquireTimeout(Duration.ZERO);
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+
+        assertThrows(HttpServerErrorException.class, () -> scheduler.run(Operation.GET, Priority.INTERACTIVE, () -> {
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        }));
+        Thread.sleep(30);
+        UpstreamUnavailableException e = assertThrows(UpstreamUnavailableException.class,
+                () -> scheduler.call(Operation.GET, Priority.INTERACTIVE, () -> "trial"));
+        assertEquals("The remote API call budget is exhausted", e.getMessage());
+        assertTrue(scheduler.isCircuitOpen());
+        Thread.sleep(120);
+
+        assertEquals("ok", scheduler.call(Operation.GET, Priority.INTERACTIVE, () -> "ok"));
+        assertFalse(scheduler.isCircuitOpen());
+    }
+
+    @Test
+    void testBackgroundCallsLeaveReserveForInteractive() {
+        properties.setBurst(2);
+        properties.setBackgroundReserve(0.5);
+        properties.setRequestsPerSecond(0.001);
+        properties.setAcquireTimeout(Duration.ZERO);
+        UpstreamCallScheduler scheduler = new UpstreamCallScheduler(properties);
+
+        assertEquals("first", scheduler.call(Operation.GET, Priority.BACKGROUND, () -> "first"));
+        assertThrows(UpstreamUnavailableException.class, () -> scheduler.call(Operation.GET, Priority.BACKGROUND, () -> "second"));
+        assertEquals("read", scheduler.call(Operation.GET, Priority.INTERACTIVE, () -> "read"));
+        assertThrows(UpstreamUnavailableException.class, () -> scheduler.call(Operation.GET, Priority.INTERACTIVE, () -> "over"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.rqchallenge.employee.writebehind;
+
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.writebehind.CreateJournal;
+import com.example.rqchallenge.employees.writebehind.JournalRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CreateJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final Map<String, Object> input = Map.of("name", "Tiger Nixon", "salary", "320800", "age", "61");
+
+    @Test
+    void testAppendedRecordsAreReadBackAfterReopening() throws IOException {
+        Path path = directory.resolve("journal.log");
+        try (CreateJournal journal = new CreateJournal(path)) {
+            assertTrue(journal.open().isEmpty());
+            journal.append(Collections.singletonList(JournalRecord.accepted("a", -1, input)));
+            journal.append(Arrays.asList(JournalRecord.accepted("b", -2, input),
+                    JournalRecord.created("a", -1, new Employee(7, "Tiger Nixon", 320800, 61, ""))));
+            assertEquals(3, journal.size());
+        }
+
+        try (CreateJournal journal = new CreateJournal(path)) {
+            List<JournalRecord> records = journal.open();
+
+            assertEquals(3, records.size());
+            assertEquals(JournalRecord.Type.ACCEPTED, records.get(0).getType());
+            assertEquals(input, records.get(1).getInput());
+            assertEquals(-1, records.get(2).getProvisionalId());
+            assertEquals(7, (int) records.get(2).getEmployee().getId());
+        }
+    }
+
+    @Test
+    void testTornLastRecordIsDiscarded() throws IOException {
+        Path path = directory.resolve("journal.log");
+        try (CreateJournal journal = new CreateJournal(path)) {
+            journal.open();
+            journal.append(Collections.singletonList(JournalRecord.accepted("a", -1, input)));
+        }
+        Files.write(path, "{\"type\":\"ACCEPTED\",\"tracking".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (CreateJournal journal = new CreateJournal(path)) {
+            assertEquals(1, journal.open().size());
+            journal.append(Collections.singletonList(JournalRecord.failed("a", -1, "rejected")));
+        }
+
+        try (CreateJournal journal = new CreateJournal(path)) {
+            List<JournalRecord> records = journal.open();
+            assertEquals(2, records.size());
+            assertEquals("rejected", records.get(1).getError());
+        }
+    }
+
+    @Test
+    void testRewriteKeepsOnlyLiveRecords() throws IOException {
+        Path path = directory.resolve("journal.log");
+        try (CreateJournal journal = new CreateJournal(path)) {
+            journal.open();
+            journal.append(Arrays.asList(JournalRecord.accepted("a", -1, input), JournalRecord.accepted("b", -2, input),
+                    JournalRecord.failed("a", -1, "rejected")));
+
+            journal.rewrite(Collections.singletonList(JournalRecord.accepted("b", -2, input)));
+            journal.append(Collections.singletonList(JournalRecord.accepted("c", -3, input)));
+            assertEquals(2, journal.size());
+        }
+
+        try (CreateJournal journal = new CreateJournal(path)) {
+            List<JournalRecord> records = journal.open();
+            assertEquals(2, records.size());
+            assertEquals("b", records.get(0).getTrackingId());
+            assertEquals("c", records.get(1).getTrackingId());
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.rqchallenge.employee.writebehind;
+
+import com.example.rqchallenge.config.WriteBehindProperties;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.exception.RemoteApiException;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.model.Employee;
+import com.example.rqchallenge.employees.model.PendingCreate;
+import com.example.rqchallenge.employees.service.impl.EmployeeServiceImpl;
+import com.example.rqchallenge.employees.upstream.ConditionalFetch;
+import com.example.rqchallenge.employees.upstream.UpstreamCallScheduler.Priority;
+import com.example.rqchallenge.employees.upstream.UpstreamValidators;
+import com.example.rqchallenge.employees.writebehind.CreateJournal;
+import com.example.rqchallenge.employees.writebehind.CreateWriteBehindQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.stubbing.Answer;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collector;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CreateWriteBehindQueueTest {
+
+    @Mock
+    private EmployeeServiceImpl remote;
+
+    @TempDir
+    Path directory;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final WriteBehindProperties properties = new WriteBehindProperties();
+    private final Map<String, Object> input = Map.of("name", "Jane Smith", "salary", "500000", "age", "30");
+    private final Employee created = new Employee(2, "Jane Smith", 500000, 30, "");
+
+    private EmployeeSnapshotCache cache;
+    private CreateWriteBehindQueue queue;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        when(remote.collectAllEmployees(any(), any(), any()))
+                .thenAnswer(roster(Collections.singletonList(new Employee(1, "Tiger Nixon", 320800, 61, ""))));
+        cache = new EmployeeSnapshotCache(remote);
+        queue = newQueue(cache);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        queue.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConfiguredJournalPathIsRequired() {
+        assertThrows(IllegalStateException.class, () -> new CreateWriteBehindQueue(remote, cache, properties, executor));
+    }
+
+    @Test
+    void testSubmittedCreateIsVisibleAndReconciledOnDrain() {
+        when(remote.createEmployee(anyMap(), eq(Priority.BACKGROUND))).thenReturn(created);
+        cache.get();
+
+        PendingCreate accepted = queue.submit(input);
+        int provisionalId = accepted.getEmployee().getId();
+
+        assertEquals(PendingCreate.Status.QUEUED, accepted.getStatus());
+        assertTrue(provisionalId < 0);
+        assertEquals("Jane Smith", cache.get().findById(provisionalId).orElseThrow().getName());
+        verify(remote, never()).createEmployee(anyMap(), any());
+
+        queue.drain();
+
+        assertFalse(cache.get().findById(provisionalId).isPresent());
+        assertTrue(cache.get().findById(2).isPresent());
+        assertEquals(2, cache.get().size());
+        PendingCreate done = queue.status(accepted.getTrackingId()).orElseThrow();
+        assertEquals(PendingCreate.Status.CREATED, done.getStatus());
+        assertEquals(created, done.getEmployee());
+        assertEquals(0, queue.queuedCount());
+    }
+
+    @Test
+    void testQueuedCreatesAreRecoveredAfterRestart() throws IOException {
+        PendingCreate accepted = queue.submit(input);
+        queue.close();
+
+        EmployeeSnapshotCache restartedCache = new EmployeeSnapshotCache(remote);
+        CreateWriteBehindQueue restarted = newQueue(restartedCache);
+        try {
+            assertEquals(1, restarted.queuedCount());
+            assertEquals(PendingCreate.Status.QUEUED, restarted.status(accepted.getTrackingId()).orElseThrow().getStatus());
+            assertTrue(restartedCache.get().findById(accepted.getEmployee().getId()).isPresent());
+            assertTrue(restarted.submit(input).getEmployee().getId() < accepted.getEmployee().getId());
+        } finally {
+            restarted.close();
+        }
+    }
+
+    @Test
+    void testUnavailableUpstreamDefersWithoutUsingAnAttempt() {
+        properties.setMaxAttempts(1);
+        when(remote.createEmployee(anyMap(), eq(Priority.BACKGROUND)))
+                .thenThrow(new UpstreamUnavailableException("budget exhausted", Duration.ofSeconds(1)))
+                .thenReturn(created);
+        PendingCreate accepted = queue.submit(input);
+
+        queue.drain();
+        assertEquals(PendingCreate.Status.QUEUED, queue.status(accepted.getTrackingId()).orElseThrow().getStatus());
+
+        queue.drain();
+        assertEquals(PendingCreate.Status.CREATED, queue.status(accepted.getTrackingId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testCreateIsGivenUpAfterMaxAttempts() {
+        properties.setMaxAttempts(2);
+        when(remote.createEmployee(anyMap(), eq(Priority.BACKGROUND))).thenThrow(new RemoteApiException("rejected"));
+        cache.get();
+        PendingCreate accepted = queue.submit(input);
+
+        queue.drain();
+        assertEquals(PendingCreate.Status.QUEUED, queue.status(accepted.getTrackingId()).orElseThrow().getStatus());
+
+        queue.drain();
+        PendingCreate failed = queue.status(accepted.getTrackingId()).orElseThrow();
+        assertEquals(PendingCreate.Status.FAILED, failed.getStatus());
+        assertEquals("rejected", failed.getError());
+        assertFalse(cache.get().findById(accepted.getEmployee().getId()).isPresent());
+        verify(remote, times(2)).createEmployee(anyMap(), eq(Priority.BACKGROUND));
+    }
+
+    @Test
+    void testCreateThatMayHaveReachedUpstreamIsNotSentAgain() {
+        properties.setMaxAttempts(5);
+        when(remote.createEmployee(anyMap(), eq(Priority.BACKGROUND))).thenThrow(new RemoteApiException("Read timed out",
+                new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out"))));
+        cache.get();
+        PendingCreate accepted = queue.submit(input);
+
+        queue.drain();
+        queue.drain();
+
+        PendingCreate failed = queue.status(accepted.getTrackingId()).orElseThrow();
+        assertEquals(PendingCreate.Status.FAILED, failed.getStatus());
+        assertTrue(failed.getError().startsWith("Outcome unknown"));
+        assertFalse(cache.get().findById(accepted.getEmployee().getId()).isPresent());
+        verify(remote, times(1)).createEmployee(anyMap(), eq(Priority.BACKGROUND));
+    }
+
+    private CreateWriteBehindQueue newQueue(EmployeeSnapshotCache snapshotCache) throws IOException {
+        CreateWriteBehindQueue writeBehind = new CreateWriteBehindQueue(remote, snapshotCache,
+                new CreateJournal(directory.resolve("create-journal.log")), properties, executor);
+        writeBehind.recover();
+        return writeBehind;
+    }
+
+    private static Answer<Object> roster(List<Employee> employees) {
+        return invocation -> ConditionalFetch.modified(employees.stream().collect(invocation.getArgument(1, Collector.class)),
+                UpstreamValidators.NONE);
+    }
+}
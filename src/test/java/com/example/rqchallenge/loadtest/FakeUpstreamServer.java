@@ -0,0 +1,398 @@
+package com.example.rqchallenge.loadtest;
+
+import com.example.rqchallenge.employees.model.Employee;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for the remote employee API, serving {@code GET /employees}, {@code GET /employee/{id}},
+ * {@code POST /create} and {@code DELETE /delete/{id}} under {@code /api/v1} on the JDK HTTP server.
+ * <p>
+ * The roster is generated from a seed and changed by creates and deletes. Every response can be delayed by a
+ * fixed latency plus uniform jitter, with a fraction of responses taking a much slower path, and a fraction can
+ * fail with 500 or be throttled with 429. Above {@code requestsPerSecond}, calls are throttled with 429 and a
+ * {@code Retry-After} header, like the real API's quota. The roster endpoint sends an ETag and answers
+ * {@code If-None-Match} with 304.
+ * <p>
+ * Run on its own with {@code java ... com.example.rqchallenge.loadtest.FakeUpstreamServer --port=8081
+ * --roster-size=10000 --latency-ms=50} and point the application at it with
+ * {@code --employees.upstream.base-url=http://localhost:8081/api/v1}.
+ */
+public class FakeUpstreamServer implements AutoCloseable {
+
+    static final String BASE_PATH = "/api/v1";
+
+    private static final String[] FIRST_NAMES = {
+            "Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod", "Rhona", "Colleen", "Sonya",
+            "Jena", "Quinn", "Charde", "Haley", "Tatyana", "Michael", "Paul", "Gloria", "Bradley", "Dai"};
+    private static final String[] LAST_NAMES = {
+            "Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler", "Davidson", "Hurst", "Frost",
+            "Gaines", "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd", "Little", "Greer", "Rios"};
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentSkipListMap<Integer, Employee> roster = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+    // bumped on every write; the roster body and its ETag are rebuilt when it moves
+    private final AtomicLong rosterVersion = new AtomicLong();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private volatile RosterBody rosterBody;
+
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    private FakeUpstreamServer(Settings settings, HttpServer server) {
+        this.settings = settings;
+        this.server = server;
+        this.executor = Executors.newFixedThreadPool(settings.threads);
+        this.tokens = settings.requestsPerSecond;
+        Random random = new Random(settings.seed);
+        for (int id = 1; id <= settings.rosterSize; id++) {
+            roster.put(id, new Employee(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    20_000 + random.nextInt(480_000), 18 + random.nextInt(50), ""));
+        }
+        nextId.set(settings.rosterSize);
+        server.createContext(BASE_PATH + "/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts a stand-in on {@code port}, or on a free port when it is 0.
+     */
+    public static FakeUpstreamServer start(Settings settings, int port) throws IOException {
+        // without TCP_NODELAY, small responses stall ~40 ms on Nagle and delayed ACKs, swamping the configured latency
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        FakeUpstreamServer upstream = new FakeUpstreamServer(settings, HttpServer.create(new InetSocketAddress("localhost", port), 1024));
+        upstream.server.start();
+        return upstream;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = LoadTestHarness.options(args);
+        FakeUpstreamServer upstream = start(Settings.from(options), Integer.parseInt(options.getOrDefault("port", "8081")));
+        System.out.printf("Fake upstream serving %,d employees at %s%n", upstream.rosterSize(), upstream.getBaseUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            upstream.close();
+            System.out.println("Fake upstream responses by status: " + upstream.statusCounts());
+        }));
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    public int rosterSize() {
+        return roster.size();
+    }
+
+    /**
+     * Returns how many responses were sent with each status code, including injected errors.
+     */
+    public Map<Integer, Long> statusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            delay();
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            if (!acquire()) {
+                exchange.getResponseHeaders().set("Retry-After", Integer.toString(settings.retryAfterSeconds));
+                send(exchange, 429, error("Too Many Requests"));
+                return;
+            }
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < settings.errorRate) {
+                send(exchange, 500, error("Injected failure"));
+            } else if (roll < settings.errorRate + settings.throttleRate) {
+                exchange.getResponseHeaders().set("Retry-After", Integer.toString(settings.retryAfterSeconds));
+                send(exchange, 429, error("Too Many Requests"));
+            } else if ("GET".equals(method) && path.equals("/employees")) {
+                getRoster(exchange);
+            } else if ("GET".equals(method) && path.startsWith("/employee/")) {
+                getEmployee(exchange, path.substring("/employee/".length()));
+            } else if ("POST".equals(method) && path.equals("/create")) {
+                create(exchange);
+            } else if ("DELETE".equals(method) && path.startsWith("/delete/")) {
+                delete(exchange, path.substring("/delete/".length()));
+            } else {
+                send(exchange, 404, error("Not Found"));
+            }
+        }
+    }
+
+    private void getRoster(HttpExchange exchange) throws IOException {
+        RosterBody body = rosterBody();
+        exchange.getResponseHeaders().set("ETag", body.etag);
+        if (body.etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            count(304);
+            // the JDK server closes the connection after a 304; say so, or clients may try to reuse it
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, body.json);
+    }
+
+    private void getEmployee(HttpExchange exchange, String id) throws IOException {
+        Employee employee = parseId(id) == null ? null : roster.get(parseId(id));
+        if (employee == null) {
+            send(exchange, 404, error("Employee not found"));
+        } else {
+            send(exchange, 200, success("data", employee));
+        }
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        Map<String, Object> input;
+        try {
+            input = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<Map<String, Object>>() {
+            });
+        } catch (IOException e) {
+            send(exchange, 400, error("Malformed request body"));
+            return;
+        }
+        // answered with the roster's field names, so the created record reads back like any other employee
+        Employee employee = new Employee(nextId.incrementAndGet(), stringValue(input, "name", "employee_name"),
+                intValue(input, "salary", "employee_salary"), intValue(input, "age", "employee_age"), "");
+        roster.put(employee.getId(), employee);
+        rosterVersion.incrementAndGet();
+        send(exchange, 200, success("data", employee));
+    }
+
+    private void delete(HttpExchange exchange, String id) throws IOException {
+        Integer key = parseId(id);
+        if (key == null || roster.remove(key) == null) {
+            send(exchange, 404, error("Employee not found"));
+            return;
+        }
+        rosterVersion.incrementAndGet();
+        send(exchange, 200, success("data", id));
+    }
+
+    private RosterBody rosterBody() throws IOException {
+        long version = rosterVersion.get();
+        RosterBody body = rosterBody;
+        if (body == null || body.version != version) {
+            synchronized (this) {
+                body = rosterBody;
+                if (body == null || body.version != rosterVersion.get()) {
+                    version = rosterVersion.get();
+                    body = new RosterBody(version, "\"" + settings.seed + "-" + version + "\"",
+                            success("data", roster.values()));
+                    rosterBody = body;
+                }
+            }
+        }
+        return body;
+    }
+
+    private void delay() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long nanos = settings.latency.toNanos();
+        if (!settings.latencyJitter.isZero()) {
+            nanos += random.nextLong(settings.latencyJitter.toNanos() + 1);
+        }
+        if (settings.slowRate > 0 && random.nextDouble() < settings.slowRate) {
+            nanos += settings.slowLatency.toNanos();
+        }
+        if (nanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // token bucket refilled at requestsPerSecond, holding at most one second of calls
+    private synchronized boolean acquire() {
+        if (settings.requestsPerSecond <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        tokens = Math.min(settings.requestsPerSecond, tokens + (now - lastRefillNanos) * settings.requestsPerSecond / 1e9);
+        lastRefillNanos = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        count(status);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private void count(int status) {
+        statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    private byte[] success(String field, Object value) throws IOException {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("status", "success");
+        envelope.put(field, value);
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+
+    private byte[] error(String message) throws IOException {
+        Map<String, Object> envelope = new HashMap<>();
+        envelope.put("status", "error");
+        envelope.put("message", message);
+        return objectMapper.writeValueAsBytes(envelope);
+    }
+
+    private static Integer parseId(String id) {
+        try {
+            return Integer.valueOf(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String stringValue(Map<String, Object> input, String... keys) {
+        for (String key : keys) {
+            if (input.get(key) != null) {
+                return input.get(key).toString();
+            }
+        }
+        return null;
+    }
+
+    private static Integer intValue(Map<String, Object> input, String... keys) {
+        String value = stringValue(input, keys);
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class RosterBody {
+        final long version;
+        final String etag;
+        final byte[] json;
+
+        RosterBody(long version, String etag, byte[] json) {
+            this.version = version;
+            this.etag = etag;
+            this.json = json;
+        }
+    }
+
+    /**
+     * How the stand-in behaves. Every option can also be given on the command line, e.g. {@code --error-rate=0.01}.
+     */
+    public static final class Settings {
+        int rosterSize = 1_000;
+        long seed = 42;
+        Duration latency = Duration.ZERO;
+        Duration latencyJitter = Duration.ZERO;
+        double slowRate;
+        Duration slowLatency = Duration.ofSeconds(1);
+        double errorRate;
+        double throttleRate;
+        double requestsPerSecond;
+        int retryAfterSeconds = 1;
+        int threads = 64;
+
+        public static Settings from(Map<String, String> options) {
+            Settings settings = new Settings();
+            settings.rosterSize = Integer.parseInt(options.getOrDefault("roster-size", "1000"));
+            settings.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+            settings.latency = Duration.ofMillis(Long.parseLong(options.getOrDefault("latency-ms", "0")));
+            settings.latencyJitter = Duration.ofMillis(Long.parseLong(options.getOrDefault("jitter-ms", "0")));
+            settings.slowRate = Double.parseDouble(options.getOrDefault("slow-rate", "0"));
+            settings.slowLatency = Duration.ofMillis(Long.parseLong(options.getOrDefault("slow-latency-ms", "1000")));
+            settings.errorRate = Double.parseDouble(options.getOrDefault("error-rate", "0"));
+            settings.throttleRate = Double.parseDouble(options.getOrDefault("throttle-rate", "0"));
+            settings.requestsPerSecond = Double.parseDouble(options.getOrDefault("upstream-rps", "0"));
+            settings.retryAfterSeconds = Integer.parseInt(options.getOrDefault("retry-after-seconds", "1"));
+            settings.threads = Integer.parseInt(options.getOrDefault("upstream-threads", "64"));
+            return settings;
+        }
+
+        /** Employees in the generated roster. */
+        public Settings rosterSize(int rosterSize) {
+            this.rosterSize = rosterSize;
+            return this;
+        }
+
+        /** Fixed delay before every response, and the upper bound of a uniform random delay added to it. */
+        public Settings latency(Duration latency, Duration jitter) {
+            this.latency = latency;
+            this.latencyJitter = jitter;
+            return this;
+        }
+
+        /** Fraction of responses delayed by a further {@code slowLatency}, to model a latency tail. */
+        public Settings slowResponses(double slowRate, Duration slowLatency) {
+            this.slowRate = slowRate;
+            this.slowLatency = slowLatency;
+            return this;
+        }
+
+        /** Fraction of calls answered 500. */
+        public Settings errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /** Fraction of calls answered 429 whatever the call rate. */
+        public Settings throttleRate(double throttleRate) {
+            this.throttleRate = throttleRate;
+            return this;
+        }
+
+        /** Sustained call rate above which calls are answered 429 with {@code Retry-After}; 0 for no limit. */
+        public Settings requestsPerSecond(double requestsPerSecond, int retryAfterSeconds) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.retryAfterSeconds = retryAfterSeconds;
+            return this;
+        }
+
+        /** Requests handled concurrently; further requests queue, as on a saturated upstream. */
+        public Settings threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.rqchallenge.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FakeUpstreamServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testServesRosterAndAppliesWrites() throws Exception {
+        try (FakeUpstreamServer upstream = FakeUpstreamServer.start(new FakeUpstreamServer.Settings().rosterSize(25), 0)) {
+            HttpResponse<String> roster = send(HttpRequest.newBuilder(URI.create(upstream.getBaseUrl() + "/employees")).build());
+            assertEquals(200, roster.statusCode());
+            assertEquals(25, objectMapper.readTree(roster.body()).path("data").size());
+            String etag = roster.headers().firstValue("ETag").orElseThrow();
+
+            HttpResponse<String> notModified = send(HttpRequest.newBuilder(URI.create(upstream.getBaseUrl() + "/employees"))
+                    .header("If-None-Match", etag).build());
+            assertEquals(304, notModified.statusCode());
+
+            HttpResponse<String> created = send(HttpRequest.newBuilder(URI.create(upstream.getBaseUrl() + "/create"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"New Hire\",\"salary\":\"1234\",\"age\":\"30\"}"))
+                    .build());
+            JsonNode employee = objectMapper.readTree(created.body()).path("data");
+            assertEquals(200, created.statusCode());
+            assertEquals(26, employee.path("id").asInt());
+            assertEquals("New Hire", employee.path("employee_name").asText());
+            assertEquals(1234, employee.path("employee_salary").asInt());
+
+            HttpResponse<String> changed = send(HttpRequest.newBuilder(URI.create(upstream.getBaseUrl() + "/employees"))
+                    .header("If-None-Match", etag).build());
+            assertEquals(200, changed.statusCode());
+            assertEquals(26, objectMapper.readTree(changed.body()).path("data").size());
+
+            assertEquals(200, send(HttpRequest.newBuilder(URI.create(upstream.getBaseUrl() + "/employee/26")).build()).statusCode());
+            assertEquals(200, send(HttpRequest.newBuilder(URI.create(upstream.getBaseUrl() + "/delete/26")).DELETE().build()).statusCode());
+            assertEquals(404, send(HttpRequest.newBuilder(URI.create(upstream.getBaseUrl() + "/employee/26")).build()).statusCode());
+            assertEquals(25, upstream.rosterSize());
+        }
+    }
+
+    @Test
+    void testThrottlesAboveRequestRate() throws Exception {
+        FakeUpstreamServer.Settings settings = new FakeUpstreamServer.Settings().rosterSize(1).requestsPerSecond(2, 7);
+        try (FakeUpstreamServer upstream = FakeUpstreamServer.start(settings, 0)) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(upstream.getBaseUrl() + "/employee/1")).build();
+            assertEquals(200, send(request).statusCode());
+            assertEquals(200, send(request).statusCode());
+
+            HttpResponse<String> throttled = send(request);
+
+            assertEquals(429, throttled.statusCode());
+            assertEquals("7", throttled.headers().firstValue("Retry-After").orElse(null));
+            assertEquals(Long.valueOf(1), upstream.statusCounts().get(429));
+        }
+    }
+
+    @Test
+    void testInjectsErrors() throws Exception {
+        try (FakeUpstreamServer upstream = FakeUpstreamServer.start(new FakeUpstreamServer.Settings().errorRate(1.0), 0)) {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(upstream.getBaseUrl() + "/employees")).build());
+
+            assertEquals(500, response.statusCode());
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
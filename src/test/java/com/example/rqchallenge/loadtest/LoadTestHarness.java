@@ -0,0 +1,322 @@
+package com.example.rqchallenge.loadtest;
+
+import com.example.rqchallenge.RqChallengeApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end load test: starts a {@link FakeUpstreamServer} and the application pointed at it, then drives each
+ * {@code EmployeeController} endpoint in turn and prints its throughput and p50/p99/p999 latency.
+ * <p>
+ * Each endpoint gets a warmup phase, whose results are discarded, and a measured phase with {@code concurrency}
+ * workers. By default the workers run closed-loop, each sending its next request as soon as the last one is
+ * answered. With {@code --rate}, requests are sent on a fixed schedule instead, and latency is measured from
+ * when each request was due. A stalled server then shows up in the tail rather than as fewer requests sent.
+ * <p>
+ * Run with {@code ./gradlew loadTest -PloadTestArgs="--roster-size=50000 --latency-ms=80 --slow-rate=0.01"}.
+ * Harness options:
+ * <ul>
+ *     <li>{@code concurrency} (32), {@code duration-seconds} (20), {@code warmup-seconds} (5), {@code rate}
+ *     (requests per second across all workers; closed-loop when absent), {@code endpoints} (comma-separated,
+ *     from {@code all,search,byId,highestSalary,topTen,create,delete}; all of them by default), {@code gzip} (send {@code Accept-Encoding: gzip}), and {@code target} (base URL of an
+ *     application that is already running; no fake upstream is started then)</li>
+ *     <li>the {@link FakeUpstreamServer.Settings} options: {@code roster-size}, {@code latency-ms},
+ *     {@code jitter-ms}, {@code slow-rate}, {@code slow-latency-ms}, {@code error-rate}, {@code throttle-rate},
+ *     {@code upstream-rps}, {@code retry-after-seconds}, {@code upstream-threads}, {@code seed}</li>
+ *     <li>any option containing a dot, such as {@code --employees.upstream.requests-per-second=100}, is passed to
+ *     the application as a property</li>
+ * </ul>
+ */
+public class LoadTestHarness {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String[] SEARCH_STRINGS = {"nix", "garrett", "kelly", "an", "son w", "chandler", "zzz"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration-seconds", "20")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-seconds", "5")));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        boolean gzip = Boolean.parseBoolean(options.getOrDefault("gzip", "false"));
+        FakeUpstreamServer.Settings settings = FakeUpstreamServer.Settings.from(options);
+
+        String target = options.get("target");
+        FakeUpstreamServer upstream = null;
+        ConfigurableApplicationContext application = null;
+        try {
+            if (target == null) {
+                upstream = FakeUpstreamServer.start(settings, 0);
+                application = startApplication(upstream, options);
+                target = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+                System.out.printf("%s against a fake upstream with %,d employees%n", target, settings.rosterSize);
+            }
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            List<Endpoint> endpoints = endpoints(URI.create(target + "/employees"), settings.rosterSize, gzip);
+            if (options.containsKey("endpoints")) {
+                Set<String> selected = Arrays.stream(options.get("endpoints").split(",")).map(String::trim).collect(Collectors.toSet());
+                endpoints.removeIf(endpoint -> !selected.contains(endpoint.key));
+            }
+
+            System.out.printf("%d workers, %s%n", concurrency,
+                    rate > 0 ? String.format("%,.0f requests/s scheduled", rate) : "closed loop");
+            System.out.printf("%-50s %10s %8s %10s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+            for (Endpoint endpoint : endpoints) {
+                run(client, endpoint, concurrency, warmup, rate);
+                Result result = run(client, endpoint, concurrency, duration, rate);
+                System.out.printf("%-50s %,10d %,8d %,10.0f %9.2f %9.2f %9.2f %9.2f%n", endpoint.name,
+                        result.count(), result.errors, result.throughput(), result.percentileMillis(0.50),
+                        result.percentileMillis(0.99), result.percentileMillis(0.999), result.percentileMillis(1.0));
+            }
+            if (upstream != null) {
+                System.out.println("Upstream responses by status: " + upstream.statusCounts());
+            }
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            if (upstream != null) {
+                upstream.close();
+            }
+        }
+    }
+
+    /**
+     * Parses {@code --name=value} arguments; a bare {@code --name} means {@code true}.
+     */
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int equals = arg.indexOf('=');
+            options.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals), equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static ConfigurableApplicationContext startApplication(FakeUpstreamServer upstream, Map<String, String> options) {
+        List<String> properties = new ArrayList<>(Arrays.asList(
+                "--server.port=0",
+                "--employees.upstream.base-url=" + upstream.getBaseUrl(),
+                "--employees.cache.persistence.enabled=false"));
+        options.forEach((name, value) -> {
+            if (name.contains(".")) {
+                properties.add("--" + name + "=" + value);
+            }
+        });
+        return SpringApplication.run(RqChallengeApplication.class, properties.toArray(new String[0]));
+    }
+
+    private static List<Endpoint> endpoints(URI base, int rosterSize, boolean gzip) {
+        Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+        AtomicInteger created = new AtomicInteger();
+        List<Endpoint> endpoints = new ArrayList<>();
+        endpoints.add(new Endpoint("all", "GET /employees", false,
+                () -> get(base, "", gzip)));
+        endpoints.add(new Endpoint("search", "GET /employees/search/{searchString}", false,
+                () -> get(base, "/search/" + SEARCH_STRINGS[ThreadLocalRandom.current().nextInt(SEARCH_STRINGS.length)]
+                        .replace(" ", "%20"), gzip)));
+        // ids are drawn from the generated roster; those deleted by earlier phases answer 404, which is not an error
+        endpoints.add(new Endpoint("byId", "GET /employees/{id}", true,
+                () -> get(base, "/" + (1 + ThreadLocalRandom.current().nextInt(Math.max(rosterSize, 1))), gzip)));
+        endpoints.add(new Endpoint("highestSalary", "GET /employees/highestSalary", false,
+                () -> get(base, "/highestSalary", gzip)));
+        endpoints.add(new Endpoint("topTen", "GET /employees/topTenHighestEarningEmployeeNames", false,
+                () -> get(base, "/topTenHighestEarningEmployeeNames", gzip)));
+        endpoints.add(new Endpoint("create", "POST /employees", false,
+                () -> HttpRequest.newBuilder(base)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                "{\"name\":\"Load Test %d\",\"salary\":\"%d\",\"age\":\"30\"}",
+                                created.incrementAndGet(), 30_000 + ThreadLocalRandom.current().nextInt(200_000))))
+                        .build(),
+                body -> {
+                    try {
+                        JsonNode id = JSON.readTree(body).path("id");
+                        if (!id.isMissingNode()) {
+                            createdIds.add(id.asText());
+                        }
+                    } catch (IOException ignored) {
+                        // counted by status; a body we cannot read just leaves nothing to delete later
+                    }
+                }));
+        // deletes the employees created by the POST phase and stops early once they run out
+        endpoints.add(new Endpoint("delete", "DELETE /employees/{id}", false,
+                () -> {
+                    String id = createdIds.poll();
+                    return id == null ? null : HttpRequest.newBuilder(URI.create(base + "/" + id)).DELETE().build();
+                }));
+        return endpoints;
+    }
+
+    private static HttpRequest get(URI base, String path, boolean gzip) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path)).GET();
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        return request.build();
+    }
+
+    private static Result run(HttpClient client, Endpoint endpoint, int concurrency, Duration duration, double rate)
+            throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        // each worker sends one request per interval when scheduled, offset so the workers interleave
+        long interval = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concurrency / rate) : 0;
+        List<Future<Result>> futures = new ArrayList<>(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            long offset = interval * w / concurrency;
+            futures.add(workers.submit(() -> work(client, endpoint, start + offset, end, interval)));
+        }
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            try {
+                total.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load worker failed", e.getCause());
+            }
+        }
+        workers.shutdown();
+        total.elapsedNanos = Math.max(1, Math.min(System.nanoTime(), end) - start);
+        return total;
+    }
+
+    private static Result work(HttpClient client, Endpoint endpoint, long first, long end, long interval) {
+        Result result = new Result();
+        long due = first;
+        while (true) {
+            long now = System.nanoTime();
+            if (interval > 0) {
+                if (due > now) {
+                    LockSupport.parkNanos(due - now);
+                }
+            } else {
+                due = now;
+            }
+            if (due >= end) {
+                return result;
+            }
+            HttpRequest request = endpoint.request.get();
+            if (request == null) {
+                return result;
+            }
+            boolean ok;
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                int status = response.statusCode();
+                ok = status < 400 || (endpoint.notFoundIsOk && status == 404);
+                if (ok && endpoint.onBody != null) {
+                    endpoint.onBody.accept(response.body());
+                }
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return result;
+            }
+            result.record(System.nanoTime() - due, ok);
+            due += interval;
+        }
+    }
+
+    private static final class Endpoint {
+        final String key;
+        final String name;
+        final boolean notFoundIsOk;
+        final Supplier<HttpRequest> request;
+        final Consumer<byte[]> onBody;
+
+        Endpoint(String key, String name, boolean notFoundIsOk, Supplier<HttpRequest> request) {
+            this(key, name, notFoundIsOk, request, null);
+        }
+
+        Endpoint(String key, String name, boolean notFoundIsOk, Supplier<HttpRequest> request, Consumer<byte[]> onBody) {
+            this.key = key;
+            this.name = name;
+            this.notFoundIsOk = notFoundIsOk;
+            this.request = request;
+            this.onBody = onBody;
+        }
+    }
+
+    /**
+     * Latencies of one phase, kept in full so percentiles are exact.
+     */
+    private static final class Result {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+        long elapsedNanos;
+
+        void record(long latencyNanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void add(Result other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(count + other.count, latencies.length * 2));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        int count() {
+            return count;
+        }
+
+        double throughput() {
+            return count * 1e9 / elapsedNanos;
+        }
+
+        double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            Arrays.sort(latencies, 0, count);
+            int rank = (int) Math.ceil(percentile * count) - 1;
+            return latencies[Math.max(0, Math.min(rank, count - 1))] / 1e6;
+        }
+    }
+}